@@ -0,0 +1,120 @@
+package com.flauschcode.broccoli;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import android.database.Cursor;
+
+import androidx.room.testing.MigrationTestHelper;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.MediumTest;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+
+/**
+ * Runs every migration on a database created from the exported schema of its start version and validates the result
+ * against the exported schema of its end version.
+ */
+@RunWith(AndroidJUnit4.class)
+@MediumTest
+public class BroccoliDatabaseMigrationTest {
+
+    private static final String TEST_DB = "migration-test";
+
+    @Rule
+    public MigrationTestHelper helper = new MigrationTestHelper(InstrumentationRegistry.getInstrumentation(), BroccoliDatabase.class);
+
+    @Test
+    public void migrate1To2() throws IOException {
+        try (SupportSQLiteDatabase database = helper.createDatabase(TEST_DB, 1)) {
+            insertRecipe(database);
+        }
+
+        try (SupportSQLiteDatabase database = helper.runMigrationsAndValidate(TEST_DB, 2, true, BroccoliDatabase.MIGRATION_1_2)) {
+            assertThat(count(database, "SELECT COUNT(*) FROM recipes_fts WHERE recipes_fts MATCH 'lauch*'"), is(1));
+            assertThat(count(database, "SELECT COUNT(*) FROM recipes_fts WHERE recipes_fts MATCH 'zwiebel*'"), is(1));
+        }
+    }
+
+    @Test
+    public void migrate2To3() throws IOException {
+        try (SupportSQLiteDatabase database = helper.createDatabase(TEST_DB, 2)) {
+            insertRecipe(database);
+        }
+
+        try (SupportSQLiteDatabase database = helper.runMigrationsAndValidate(TEST_DB, 3, true, BroccoliDatabase.MIGRATION_2_3)) {
+            assertThat(count(database, "SELECT COUNT(*) FROM recipe_search_texts WHERE recipeId = 1"), is(1));
+            assertThat(count(database, "SELECT COUNT(*) FROM recipe_trigrams WHERE recipeId = 1 AND trigram = 'auc'"), is(1));
+        }
+    }
+
+    @Test
+    public void migrate3To4() throws IOException {
+        try (SupportSQLiteDatabase database = helper.createDatabase(TEST_DB, 3)) {
+            insertRecipe(database);
+        }
+
+        try (SupportSQLiteDatabase database = helper.runMigrationsAndValidate(TEST_DB, 4, true, BroccoliDatabase.MIGRATION_3_4)) {
+            assertThat(count(database, "SELECT COUNT(*) FROM recipe_ingredients WHERE recipeId = 1"), is(2));
+            assertThat(count(database, "SELECT value FROM recipe_ingredients WHERE recipeId = 1 AND position = 0"), is(500));
+        }
+    }
+
+    @Test
+    public void migrate4To5() throws IOException {
+        try (SupportSQLiteDatabase database = helper.createDatabase(TEST_DB, 4)) {
+            insertRecipe(database);
+        }
+
+        try (SupportSQLiteDatabase database = helper.runMigrationsAndValidate(TEST_DB, 5, true, BroccoliDatabase.MIGRATION_4_5)) {
+            // the table is filled by the SeasonalFoodIndex once the seasonal calendar is loaded
+            assertThat(count(database, "SELECT COUNT(*) FROM recipe_seasonal_food"), is(0));
+            assertThat(count(database, "SELECT COUNT(*) FROM recipes"), is(1));
+        }
+    }
+
+    @Test
+    public void migrate5To6() throws IOException {
+        try (SupportSQLiteDatabase database = helper.createDatabase(TEST_DB, 5)) {
+            insertRecipe(database);
+            database.execSQL("INSERT INTO categories (categoryId, name) VALUES (1, 'Herzhaft')");
+            database.execSQL("INSERT INTO recipes_with_categories (recipeId, categoryId) VALUES (1, 1)");
+        }
+
+        try (SupportSQLiteDatabase database = helper.runMigrationsAndValidate(TEST_DB, 6, true, BroccoliDatabase.MIGRATION_5_6)) {
+            assertThat(count(database, "SELECT COUNT(*) FROM recipes_with_categories WHERE categoryId = 1"), is(1));
+        }
+    }
+
+    @Test
+    public void migrateAll() throws IOException {
+        try (SupportSQLiteDatabase database = helper.createDatabase(TEST_DB, 1)) {
+            insertRecipe(database);
+        }
+
+        try (SupportSQLiteDatabase database = helper.runMigrationsAndValidate(TEST_DB, 6, true,
+                BroccoliDatabase.MIGRATION_1_2, BroccoliDatabase.MIGRATION_2_3, BroccoliDatabase.MIGRATION_3_4, BroccoliDatabase.MIGRATION_4_5, BroccoliDatabase.MIGRATION_5_6)) {
+            assertThat(count(database, "SELECT COUNT(*) FROM recipes_fts WHERE recipes_fts MATCH 'lauch*'"), is(1));
+            assertThat(count(database, "SELECT COUNT(*) FROM recipe_search_texts"), is(1));
+            assertThat(count(database, "SELECT COUNT(*) FROM recipe_ingredients"), is(2));
+        }
+    }
+
+    private void insertRecipe(SupportSQLiteDatabase database) {
+        database.execSQL("INSERT INTO recipes (recipeId, title, description, source, ingredients, directions, favorite) VALUES (1, 'Lauchkuchen', 'Herzhaft', '', '500 g Lauch\n2 Zwiebeln', 'Backen.', 0)");
+    }
+
+    private int count(SupportSQLiteDatabase database, String query) {
+        try (Cursor cursor = database.query(query)) {
+            cursor.moveToFirst();
+            return cursor.getInt(0);
+        }
+    }
+
+}
@@ -13,26 +13,45 @@ import com.flauschcode.broccoli.MockApplicationComponent;
 
 import com.flauschcode.broccoli.category.Category;
 import com.flauschcode.broccoli.category.CategoryRepository;
+import com.flauschcode.broccoli.concurrent.BroccoliExecutors;
 import com.flauschcode.broccoli.recipe.Recipe;
 import com.flauschcode.broccoli.recipe.RecipeRepository;
 import com.flauschcode.broccoli.recipe.images.RecipeImageService;
 import com.flauschcode.broccoli.recipe.sharing.RecipeZipReader;
 import com.flauschcode.broccoli.recipe.sharing.RecipeZipWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.apache.commons.io.output.CloseShieldOutputStream;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import javax.inject.Inject;
 
 import static androidx.test.platform.app.InstrumentationRegistry.getInstrumentation;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
@@ -57,10 +76,13 @@ public class BackupAndRestoreServiceTest {
     @Inject
     RecipeImageService recipeImageService;
 
+    @Inject
+    BroccoliExecutors executors;
+
     private BackupService backupService ;
     private RestoreService restoreService;
 
-    private ArgumentCaptor<Recipe> recipeCaptor = ArgumentCaptor.forClass(Recipe.class);
+    private ArgumentCaptor<List<Recipe>> recipesCaptor = ArgumentCaptor.forClass(List.class);
     private ArgumentCaptor<Category> categoryCaptor = ArgumentCaptor.forClass(Category.class);
 
     @Before
@@ -73,8 +95,8 @@ public class BackupAndRestoreServiceTest {
         component.inject(this);
         component.inject(getApplication());
 
-        backupService = new BackupService(application, recipeZipWriter, recipeRepository, categoryRepository);
-        restoreService = new RestoreService(application, recipeZipReader, recipeRepository, recipeImageService, categoryRepository);
+        backupService = new BackupService(application, recipeImageService, recipeRepository, categoryRepository, executors);
+        restoreService = new RestoreService(application, recipeZipReader, recipeRepository, recipeImageService, categoryRepository, executors);
     }
 
     private BroccoliApplication getApplication() {
@@ -87,11 +109,14 @@ public class BackupAndRestoreServiceTest {
         Category originalCategory = new Category(5, "Hauptgerichte");
 
         Recipe originalRecipe = new Recipe();
+        originalRecipe.setRecipeId(1);
         originalRecipe.setTitle("Lauchkuchen");
 
         ArrayList<Recipe> recipes = new ArrayList<>();
         recipes.add(originalRecipe);
-        when(recipeRepository.findAll()).thenReturn(CompletableFuture.completedFuture(recipes));
+        when(recipeRepository.count()).thenReturn(CompletableFuture.completedFuture(1));
+        when(recipeRepository.findPageAfter(eq(0L), anyInt())).thenReturn(CompletableFuture.completedFuture(recipes));
+        when(recipeRepository.findPageAfter(eq(1L), anyInt())).thenReturn(CompletableFuture.completedFuture(new ArrayList<>()));
 
         ArrayList<Category> categories = new ArrayList<>();
         categories.add(originalCategory);
@@ -100,7 +125,7 @@ public class BackupAndRestoreServiceTest {
         when(categoryRepository.retainNonExisting(anyList())).thenAnswer(i -> CompletableFuture.completedFuture(i.getArguments()[0]));
         when(categoryRepository.retainExisting(anyList())).thenAnswer(i -> CompletableFuture.completedFuture(i.getArguments()[0]));
 
-        when(recipeRepository.insertOrUpdate(recipeCaptor.capture())).thenReturn(CompletableFuture.completedFuture(5L));
+        when(recipeRepository.insertOrUpdateAll(recipesCaptor.capture())).thenReturn(CompletableFuture.completedFuture(null));
         when(categoryRepository.insertOrUpdate(categoryCaptor.capture())).thenReturn(CompletableFuture.completedFuture(null));
 
         Uri uri = backupService.backup().get();
@@ -111,9 +136,81 @@ public class BackupAndRestoreServiceTest {
         Category category = categoryCaptor.getValue();
         assertThat(category.getName(), is("Hauptgerichte"));
 
-        Recipe recipe = recipeCaptor.getValue();
+        assertThat(recipesCaptor.getValue().size(), is(1));
+        Recipe recipe = recipesCaptor.getValue().get(0);
         assertThat(recipe.getTitle(), is("Lauchkuchen"));
 
         verifyNoInteractions(recipeImageService);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void restore_version_1_archive() throws IOException, InterruptedException, ExecutionException {
+        Recipe originalRecipe = new Recipe();
+        originalRecipe.setTitle("Lauchkuchen");
+
+        File archive = new File(application.getCacheDir(), "version1.broccoli-archive");
+        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(archive))) {
+            zos.setComment("42");
+
+            zos.putNextEntry(new ZipEntry("categories.json"));
+            zos.write("[{\"name\":\"Hauptgerichte\"}]".getBytes(StandardCharsets.UTF_8));
+            zos.closeEntry();
+
+            zos.putNextEntry(new ZipEntry("1_Lauchkuchen.broccoli"));
+            try (CloseShieldOutputStream cloned = CloseShieldOutputStream.wrap(zos); ZipOutputStream nestedZos = new ZipOutputStream(cloned)) {
+                recipeZipWriter.write(originalRecipe).to(nestedZos);
+                nestedZos.finish();
+            }
+            zos.closeEntry();
+        }
+
+        when(categoryRepository.retainNonExisting(anyList())).thenAnswer(i -> CompletableFuture.completedFuture(i.getArguments()[0]));
+        when(recipeRepository.insertOrUpdateAll(recipesCaptor.capture())).thenReturn(CompletableFuture.completedFuture(null));
+        when(categoryRepository.insertOrUpdate(categoryCaptor.capture())).thenReturn(CompletableFuture.completedFuture(null));
+
+        int numberOfRecipes = restoreService.restore(Uri.fromFile(archive)).get();
+
+        assertThat(numberOfRecipes, is(1));
+        assertThat(categoryCaptor.getValue().getName(), is("Hauptgerichte"));
+        assertThat(recipesCaptor.getValue().get(0).getTitle(), is("Lauchkuchen"));
+    }
+
+    @Test
+    public void delete_staged_images_if_recipes_cannot_be_restored() throws IOException, InterruptedException {
+        Recipe originalRecipe = new Recipe();
+        originalRecipe.setTitle("Lauchkuchen");
+        originalRecipe.setImageName("lauchkuchen.jpg");
+
+        File archive = new File(application.getCacheDir(), "version2.broccoli-archive");
+        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(archive))) {
+            zos.setComment("broccoli-archive-v2");
+
+            zos.putNextEntry(new ZipEntry(BackupArchive.MANIFEST));
+            zos.write("{\"version\":2}".getBytes(StandardCharsets.UTF_8));
+            zos.closeEntry();
+
+            zos.putNextEntry(new ZipEntry(BackupArchive.RECIPES_DIRECTORY + "1.json"));
+            zos.write(new ObjectMapper().writeValueAsBytes(originalRecipe));
+            zos.closeEntry();
+
+            zos.putNextEntry(new ZipEntry(BackupArchive.IMAGES_DIRECTORY + "lauchkuchen.jpg"));
+            zos.write(new byte[]{1, 2, 3});
+            zos.closeEntry();
+        }
+
+        when(recipeImageService.stageCompressedImage(any(InputStream.class))).thenReturn("JPEG_staged.jpg");
+        when(recipeImageService.deleteStagedImage("JPEG_staged.jpg")).thenReturn(CompletableFuture.completedFuture(true));
+        when(categoryRepository.retainNonExisting(anyList())).thenAnswer(i -> CompletableFuture.completedFuture(i.getArguments()[0]));
+        CompletableFuture<Void> failedInsert = new CompletableFuture<>();
+        failedInsert.completeExceptionally(new IllegalStateException("disk full"));
+        when(recipeRepository.insertOrUpdateAll(anyList())).thenReturn(failedInsert);
+
+        try {
+            restoreService.restore(Uri.fromFile(archive)).get();
+            fail("The restore should have failed.");
+        } catch (ExecutionException e) {
+            verify(recipeImageService).deleteStagedImage("JPEG_staged.jpg");
+            verify(recipeImageService, never()).moveStagedImage(anyString());
+        }
+    }
+}
@@ -19,6 +19,7 @@ import static org.mockito.Mockito.when;
 import android.os.Bundle;
 
 import androidx.lifecycle.MutableLiveData;
+import androidx.paging.PagingData;
 import androidx.test.espresso.accessibility.AccessibilityChecks;
 import androidx.test.espresso.intent.Intents;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
@@ -77,10 +78,10 @@ public class RecipeFragmentTest {
         when(categoryRepository.getUnassignedRecipesCategory()).thenReturn(CATEGORY_UNASSIGNED);
         when(categoryRepository.getSeasonalRecipesCategory()).thenReturn(CATEGORY_SEASONAL);
 
-        List<Recipe> recipes = new ArrayList<>();
-        recipes.add(lauchkuchen);
-        recipes.add(nusskuchen);
-        when(recipeRepository.find(any(RecipeRepository.SearchCriteria.class))).thenReturn(new MutableLiveData<>(recipes));
+        List<RecipeListItem> recipes = new ArrayList<>();
+        recipes.add(RecipeTestUtil.toListItem(lauchkuchen));
+        recipes.add(RecipeTestUtil.toListItem(nusskuchen));
+        when(recipeRepository.find(any(RecipeRepository.SearchCriteria.class))).thenReturn(new MutableLiveData<>(PagingData.from(recipes)));
 
         when(categoryRepository.findAll()).thenReturn(new MutableLiveData<>(new ArrayList<>()));
 
@@ -121,7 +122,7 @@ public class RecipeFragmentTest {
 
         intended(allOf(
                 hasComponent(RecipeDetailsActivity.class.getName()),
-                hasExtra(Recipe.class.getName(), lauchkuchen)
+                hasExtra(RecipeDetailsActivity.RECIPE_ID, lauchkuchen.getRecipeId())
         ));
     }
 
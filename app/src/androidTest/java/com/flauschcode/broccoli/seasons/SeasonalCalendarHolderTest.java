@@ -5,6 +5,7 @@ import androidx.test.espresso.accessibility.AccessibilityChecks;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
 
 import com.flauschcode.broccoli.BroccoliApplication;
+import com.flauschcode.broccoli.concurrent.BroccoliExecutors;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -16,6 +17,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 
 import static androidx.test.platform.app.InstrumentationRegistry.getInstrumentation;
 import static org.hamcrest.CoreMatchers.hasItem;
@@ -32,7 +34,7 @@ public class SeasonalCalendarHolderTest {
     @Before
     public void setUp() {
         AccessibilityChecks.enable();
-        holder = new SeasonalCalendarHolder(getApplication());
+        holder = new SeasonalCalendarHolder(getApplication(), new BroccoliExecutors());
     }
 
     private BroccoliApplication getApplication() {
@@ -51,7 +53,7 @@ public class SeasonalCalendarHolderTest {
    }
 
     @Test
-    public void get_calendar() {
+    public void get_calendar() throws ExecutionException, InterruptedException {
         Set<String> languages = new HashSet<>();
         languages.add("en");
         languages.add("de");
@@ -62,7 +64,7 @@ public class SeasonalCalendarHolderTest {
                 .putStringSet("seasonal-calendar-languages", languages)
                 .apply();
 
-        Optional<SeasonalCalendar> seasonalCalendarOptional = holder.get();
+        Optional<SeasonalCalendar> seasonalCalendarOptional = holder.load().get();
         assertThat(seasonalCalendarOptional.isPresent(), is(true));
 
         List<Month> augustDecember = new ArrayList<>();
@@ -77,8 +79,8 @@ public class SeasonalCalendarHolderTest {
         octoberDecember.add(Month.NOVEMBER);
         octoberDecember.add(Month.DECEMBER);
 
-        SeasonalFood flauschfrucht = new SeasonalFood("flauschfrucht", "flauschfrucht, flauschfrucht", octoberDecember);
-        SeasonalFood apple = new SeasonalFood("Apples", "Apfel, Äpfel, apple, apples", augustDecember);
+        SeasonalFood flauschfrucht = new SeasonalFood("flauschfrucht", "flauschfrucht", "flauschfrucht, flauschfrucht", octoberDecember);
+        SeasonalFood apple = new SeasonalFood("apple", "Apples", "Apfel, Äpfel, apple, apples", augustDecember);
 
         SeasonalCalendar seasonalCalendar = seasonalCalendarOptional.get();
 
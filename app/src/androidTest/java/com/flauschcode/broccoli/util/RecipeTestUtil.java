@@ -2,6 +2,7 @@ package com.flauschcode.broccoli.util;
 
 import com.flauschcode.broccoli.category.Category;
 import com.flauschcode.broccoli.recipe.Recipe;
+import com.flauschcode.broccoli.recipe.RecipeListItem;
 
 public class RecipeTestUtil {
 
@@ -42,4 +43,15 @@ public class RecipeTestUtil {
         return recipe;
     }
 
+    public static RecipeListItem toListItem(Recipe recipe) {
+        RecipeListItem listItem = new RecipeListItem();
+        listItem.setRecipeId(recipe.getRecipeId());
+        listItem.setTitle(recipe.getTitle());
+        listItem.setDescription(recipe.getDescription());
+        listItem.setSource(recipe.getSource());
+        listItem.setImageName(recipe.getImageName());
+        listItem.setFavorite(recipe.isFavorite());
+        return listItem;
+    }
+
 }
@@ -16,6 +16,7 @@ import com.flauschcode.broccoli.di.BindingComponent;
 import com.flauschcode.broccoli.di.DaggerApplicationComponent;
 import com.flauschcode.broccoli.di.DaggerBindingComponent;
 import com.flauschcode.broccoli.di.DatabaseModule;
+import com.flauschcode.broccoli.seasons.SeasonalCalendarHolder;
 
 import javax.inject.Inject;
 
@@ -28,6 +29,9 @@ public class BroccoliApplication extends Application implements HasAndroidInject
     @Inject
     DispatchingAndroidInjector<Object> dispatchingAndroidInjector;
 
+    @Inject
+    SeasonalCalendarHolder seasonalCalendarHolder;
+
     @Override
     public AndroidInjector<Object> androidInjector() {
         return dispatchingAndroidInjector;
@@ -48,6 +52,7 @@ public class BroccoliApplication extends Application implements HasAndroidInject
                 .database(new DatabaseModule(this))
                 .build();
         applicationComponent.inject(this);
+        seasonalCalendarHolder.preload();
 
         BindingComponent bindingComponent = DaggerBindingComponent.builder()
                 .applicationComponent(applicationComponent)
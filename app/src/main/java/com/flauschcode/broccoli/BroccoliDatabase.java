@@ -2,9 +2,12 @@ package com.flauschcode.broccoli;
 
 import android.content.Context;
 
+import androidx.annotation.NonNull;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
 
 import com.flauschcode.broccoli.category.Category;
 import com.flauschcode.broccoli.category.CategoryDAO;
@@ -12,18 +15,103 @@ import com.flauschcode.broccoli.recipe.CoreRecipe;
 import com.flauschcode.broccoli.recipe.CoreRecipeFts;
 import com.flauschcode.broccoli.recipe.RecipeCategoryAssociation;
 import com.flauschcode.broccoli.recipe.RecipeDAO;
+import com.flauschcode.broccoli.recipe.ingredients.IngredientDAO;
+import com.flauschcode.broccoli.recipe.ingredients.IngredientTable;
+import com.flauschcode.broccoli.recipe.ingredients.RecipeIngredient;
+import com.flauschcode.broccoli.recipe.search.RecipeSearchText;
+import com.flauschcode.broccoli.recipe.search.RecipeTrigram;
+import com.flauschcode.broccoli.recipe.search.SearchIndexDAO;
+import com.flauschcode.broccoli.recipe.search.TrigramIndex;
+import com.flauschcode.broccoli.seasons.RecipeSeasonalFood;
+import com.flauschcode.broccoli.seasons.SeasonalFoodDAO;
 
-@Database(entities = {CoreRecipe.class, Category.class, RecipeCategoryAssociation.class, CoreRecipeFts.class}, version = 1)
+@Database(entities = {CoreRecipe.class, Category.class, RecipeCategoryAssociation.class, CoreRecipeFts.class, RecipeTrigram.class, RecipeSearchText.class, RecipeIngredient.class, RecipeSeasonalFood.class}, version = 6)
 public abstract class BroccoliDatabase extends RoomDatabase {
 
     private static BroccoliDatabase broccoliDatabase;
 
+    // the prefix indexes keep the prefix queries issued while typing from scanning every term of the index
+    public static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("DROP TABLE IF EXISTS `recipes_fts`");
+            database.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `recipes_fts` USING FTS4(`title` TEXT, `description` TEXT, `source` TEXT, `ingredients` TEXT, tokenize=unicode61 `tokenchars=#`, content=`recipes`, prefix=`2,3`)");
+            database.execSQL("INSERT INTO `recipes_fts`(`recipes_fts`) VALUES('rebuild')");
+        }
+    };
+
+    public static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `recipe_trigrams` (`trigram` TEXT NOT NULL, `recipeId` INTEGER NOT NULL, PRIMARY KEY(`trigram`, `recipeId`), FOREIGN KEY(`recipeId`) REFERENCES `recipes`(`recipeId`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_recipe_trigrams_recipeId` ON `recipe_trigrams` (`recipeId`)");
+            database.execSQL("CREATE TABLE IF NOT EXISTS `recipe_search_texts` (`recipeId` INTEGER NOT NULL, `title` TEXT NOT NULL, `ingredients` TEXT NOT NULL, PRIMARY KEY(`recipeId`), FOREIGN KEY(`recipeId`) REFERENCES `recipes`(`recipeId`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+            TrigramIndex.rebuild(database);
+        }
+    };
+
+    public static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `recipe_ingredients` (`recipeId` INTEGER NOT NULL, `position` INTEGER NOT NULL, `quantity` TEXT NOT NULL, `unit` TEXT NOT NULL, `text` TEXT NOT NULL, `value` REAL, PRIMARY KEY(`recipeId`, `position`), FOREIGN KEY(`recipeId`) REFERENCES `recipes`(`recipeId`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+            IngredientTable.rebuild(database);
+        }
+    };
+
+    // the SeasonalFoodIndex fills the table as soon as the seasonal calendar has been loaded
+    public static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `recipe_seasonal_food` (`recipeId` INTEGER NOT NULL, `food` TEXT NOT NULL, `months` INTEGER NOT NULL, PRIMARY KEY(`recipeId`, `food`), FOREIGN KEY(`recipeId`) REFERENCES `recipes`(`recipeId`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_recipe_seasonal_food_food` ON `recipe_seasonal_food` (`food`)");
+        }
+    };
+
+    // filtering by several categories is answered from the index alone
+    public static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("DROP INDEX IF EXISTS `index_recipes_with_categories_categoryId`");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_recipes_with_categories_categoryId_recipeId` ON `recipes_with_categories` (`categoryId`, `recipeId`)");
+        }
+    };
+
+    private static final String INDEXED_COLUMNS_CHANGED = "OLD.`title` IS NOT NEW.`title` OR OLD.`description` IS NOT NEW.`description` OR OLD.`source` IS NOT NEW.`source` OR OLD.`ingredients` IS NOT NEW.`ingredients`";
+
+    // Room's own triggers reindex a recipe on every update, even of the favorite flag, these only fire if an indexed column
+    // changed. Room recreates its triggers around every migration, so they are replaced whenever the database is opened.
+    public static final RoomDatabase.Callback FTS_TRIGGER_CALLBACK = new RoomDatabase.Callback() {
+        @Override
+        public void onOpen(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("DROP TRIGGER IF EXISTS `room_fts_content_sync_recipes_fts_BEFORE_UPDATE`");
+            database.execSQL("DROP TRIGGER IF EXISTS `room_fts_content_sync_recipes_fts_AFTER_UPDATE`");
+            database.execSQL("CREATE TRIGGER IF NOT EXISTS `room_fts_content_sync_recipes_fts_BEFORE_UPDATE` BEFORE UPDATE OF `title`, `description`, `source`, `ingredients` ON `recipes` " +
+                    "WHEN " + INDEXED_COLUMNS_CHANGED + " BEGIN DELETE FROM `recipes_fts` WHERE `docid`=OLD.`rowid`; END");
+            database.execSQL("CREATE TRIGGER IF NOT EXISTS `room_fts_content_sync_recipes_fts_AFTER_UPDATE` AFTER UPDATE OF `title`, `description`, `source`, `ingredients` ON `recipes` " +
+                    "WHEN " + INDEXED_COLUMNS_CHANGED + " BEGIN INSERT INTO `recipes_fts`(`docid`, `title`, `description`, `source`, `ingredients`) VALUES (NEW.`rowid`, NEW.`title`, NEW.`description`, NEW.`source`, NEW.`ingredients`); END");
+        }
+    };
+
+    // an fts4aux table reads the full-text index itself, but it is no entity Room knows about
+    public static final RoomDatabase.Callback FTS_VOCABULARY_CALLBACK = new RoomDatabase.Callback() {
+        @Override
+        public void onOpen(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `recipes_fts_terms` USING fts4aux(`recipes_fts`)");
+        }
+    };
+
     public abstract RecipeDAO getRecipeDAO();
     public abstract CategoryDAO getCategoryDAO();
+    public abstract SearchIndexDAO getSearchIndexDAO();
+    public abstract IngredientDAO getIngredientDAO();
+    public abstract SeasonalFoodDAO getSeasonalFoodDAO();
 
     public static synchronized BroccoliDatabase get(Context context) {
         if (broccoliDatabase == null) {
             broccoliDatabase = Room.databaseBuilder(context.getApplicationContext(), BroccoliDatabase.class, "broccoli")
+                                    .addMigrations(MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6)
+                                    .addCallback(FTS_TRIGGER_CALLBACK)
+                                    .addCallback(FTS_VOCABULARY_CALLBACK)
                                     .build();
         }
         return broccoliDatabase;
@@ -0,0 +1,101 @@
+package com.flauschcode.broccoli;
+
+import android.view.LayoutInflater;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.databinding.DataBindingUtil;
+import androidx.databinding.ViewDataBinding;
+import androidx.paging.LoadState;
+import androidx.paging.PagingDataAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import kotlin.Unit;
+
+public abstract class PagingRecyclerViewAdapter<T> extends PagingDataAdapter<T, PagingRecyclerViewAdapter<T>.Holder> {
+
+    protected PagingRecyclerViewAdapter() {
+        super(new RecyclerViewAdapter.DiffCallback<>());
+        registerAdapterDataObserver(new ItemCountObserver());
+        addLoadStateListener(loadStates -> {
+            if (loadStates.getRefresh() instanceof LoadState.NotLoading) {
+                onAdapterDataChanged(getItemCount());
+            }
+            return Unit.INSTANCE;
+        });
+    }
+
+    @NonNull
+    @Override
+    public PagingRecyclerViewAdapter<T>.Holder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        LayoutInflater layoutInflater = LayoutInflater.from(parent.getContext());
+        ViewDataBinding itemBinding = DataBindingUtil.inflate(layoutInflater, getLayoutResourceId(), parent, false);
+        return new PagingRecyclerViewAdapter<T>.Holder(itemBinding);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull PagingRecyclerViewAdapter<T>.Holder holder, int position) {
+        T currentItem = getItem(position);
+        holder.bind(currentItem);
+        holder.itemView.setOnClickListener(currentItem == null? null : v -> onItemClick(currentItem));
+    }
+
+    protected abstract int getLayoutResourceId();
+    protected abstract int getBindingVariableId();
+    protected abstract void onItemClick(T item);
+    protected abstract void onAdapterDataChanged(int itemCount);
+
+    public class Holder extends RecyclerView.ViewHolder {
+
+        private final ViewDataBinding binding;
+
+        Holder(ViewDataBinding binding) {
+            super(binding.getRoot());
+            this.binding = binding;
+        }
+
+        void bind(T obj) {
+            binding.setVariable(getBindingVariableId(), obj);
+            binding.executePendingBindings();
+        }
+    }
+
+    private class ItemCountObserver extends RecyclerView.AdapterDataObserver {
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            super.onItemRangeChanged(positionStart, itemCount);
+            notifyAdapterDataChanged();
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount, @Nullable Object payload) {
+            super.onItemRangeChanged(positionStart, itemCount, payload);
+            notifyAdapterDataChanged();
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            super.onItemRangeInserted(positionStart, itemCount);
+            notifyAdapterDataChanged();
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            super.onItemRangeRemoved(positionStart, itemCount);
+            notifyAdapterDataChanged();
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            super.onItemRangeMoved(fromPosition, toPosition, itemCount);
+            notifyAdapterDataChanged();
+        }
+
+        private void notifyAdapterDataChanged() {
+            PagingRecyclerViewAdapter.this.onAdapterDataChanged(getItemCount());
+        }
+
+    }
+}
@@ -0,0 +1,116 @@
+package com.flauschcode.broccoli.backup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// version 1 nests a zipped .broccoli file per recipe, version 2 is a flat zip with the images as stored entries.
+// The version is written to the zip comment, archives of version 1 only carry the version code of the app there.
+final class BackupArchive {
+
+    static final int VERSION = 2;
+    static final int UNKNOWN_VERSION = 0;
+
+    static final String MANIFEST = "manifest.json";
+    static final String CATEGORIES = "categories.json";
+    static final String RECIPES_DIRECTORY = "recipes/";
+    static final String IMAGES_DIRECTORY = "images/";
+
+    private static final String COMMENT_PREFIX = "broccoli-archive-v";
+    private static final Pattern COMMENT_PATTERN = Pattern.compile("^" + COMMENT_PREFIX + "(\\d+)");
+
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_LENGTH = 22;
+    private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+
+    private BackupArchive() {}
+
+    static String commentFor(int appVersionCode) {
+        return COMMENT_PREFIX + VERSION + " " + appVersionCode;
+    }
+
+    static int versionOf(String comment) {
+        Matcher matcher = COMMENT_PATTERN.matcher(comment);
+        return matcher.find()? Integer.parseInt(matcher.group(1)) : 1;
+    }
+
+    // ZipInputStream cannot read the comment, it is in the end of central directory record at the very end of the file
+    static Optional<String> readComment(FileChannel channel) throws IOException {
+        long size = channel.size();
+        int tailLength = (int) Math.min(size, END_OF_CENTRAL_DIRECTORY_LENGTH + MAX_COMMENT_LENGTH);
+        if (tailLength < END_OF_CENTRAL_DIRECTORY_LENGTH) {
+            return Optional.empty();
+        }
+
+        ByteBuffer tail = ByteBuffer.allocate(tailLength);
+        long position = size - tailLength;
+        while (tail.hasRemaining()) {
+            if (channel.read(tail, position + tail.position()) < 0) {
+                return Optional.empty();
+            }
+        }
+
+        byte[] bytes = tail.array();
+        for (int i = tailLength - END_OF_CENTRAL_DIRECTORY_LENGTH; i >= 0; i--) {
+            if (readInt(bytes, i) == END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+                int commentLength = readShort(bytes, i + 20);
+                if (i + END_OF_CENTRAL_DIRECTORY_LENGTH + commentLength == tailLength) {
+                    return Optional.of(new String(bytes, i + END_OF_CENTRAL_DIRECTORY_LENGTH, commentLength, StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static int readShort(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) | (bytes[offset + 1] & 0xFF) << 8;
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return readShort(bytes, offset) | readShort(bytes, offset + 2) << 16;
+    }
+
+    static class Manifest {
+
+        private int version;
+        private int appVersionCode;
+        private int numberOfRecipes;
+
+        public Manifest() {}
+
+        Manifest(int appVersionCode, int numberOfRecipes) {
+            this.version = VERSION;
+            this.appVersionCode = appVersionCode;
+            this.numberOfRecipes = numberOfRecipes;
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        public void setVersion(int version) {
+            this.version = version;
+        }
+
+        public int getAppVersionCode() {
+            return appVersionCode;
+        }
+
+        public void setAppVersionCode(int appVersionCode) {
+            this.appVersionCode = appVersionCode;
+        }
+
+        public int getNumberOfRecipes() {
+            return numberOfRecipes;
+        }
+
+        public void setNumberOfRecipes(int numberOfRecipes) {
+            this.numberOfRecipes = numberOfRecipes;
+        }
+    }
+
+}
@@ -2,6 +2,7 @@ package com.flauschcode.broccoli.backup;
 
 import android.app.Application;
 import android.net.Uri;
+import android.util.Log;
 
 import androidx.core.content.FileProvider;
 import androidx.lifecycle.LiveData;
@@ -11,15 +12,16 @@ import androidx.preference.PreferenceManager;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.flauschcode.broccoli.BuildConfig;
+import com.flauschcode.broccoli.FileUtils;
 import com.flauschcode.broccoli.category.Category;
 import com.flauschcode.broccoli.category.CategoryRepository;
+import com.flauschcode.broccoli.concurrent.BroccoliExecutors;
 import com.flauschcode.broccoli.recipe.Recipe;
 import com.flauschcode.broccoli.recipe.RecipeRepository;
-import com.flauschcode.broccoli.recipe.sharing.RecipeZipWriter;
-
-import org.apache.commons.io.output.CloseShieldOutputStream;
+import com.flauschcode.broccoli.recipe.images.RecipeImageService;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
@@ -32,6 +34,8 @@ import java.util.Locale;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -42,21 +46,24 @@ import javax.inject.Singleton;
 public class BackupService {
 
     private static final String AUTHORITY = "com.flauschcode.broccoli.fileprovider";
+    private static final int PAGE_SIZE = 50;
 
     Application application;
-    RecipeZipWriter recipeZipWriter;
+    RecipeImageService recipeImageService;
     RecipeRepository recipeRepository;
     CategoryRepository categoryRepository;
+    BroccoliExecutors executors;
 
     private MutableLiveData<Integer> maxRecipes = new MutableLiveData<>(0);
     private MutableLiveData<Integer> count = new MutableLiveData<>(0);
 
     @Inject
-    BackupService(Application application, RecipeZipWriter recipeZipWriter, RecipeRepository recipeRepository, CategoryRepository categoryRepository) {
+    BackupService(Application application, RecipeImageService recipeImageService, RecipeRepository recipeRepository, CategoryRepository categoryRepository, BroccoliExecutors executors) {
         this.application = application;
-        this.recipeZipWriter = recipeZipWriter;
+        this.recipeImageService = recipeImageService;
         this.recipeRepository = recipeRepository;
         this.categoryRepository = categoryRepository;
+        this.executors = executors;
     }
 
     public CompletableFuture<Uri> backup() {
@@ -72,7 +79,7 @@ public class BackupService {
             }
             saveLastBackupDate();
             return archiveUri;
-        });
+        }, executors.io());
     }
 
     public LiveData<Integer> getMaxRecipes() {
@@ -90,38 +97,81 @@ public class BackupService {
         File zipFile = new File(application.getCacheDir(), zipFileName);
 
         try (FileOutputStream fos = new FileOutputStream(zipFile); ZipOutputStream zos = new ZipOutputStream(fos)) {
-            zos.setComment(String.valueOf(BuildConfig.VERSION_CODE));
+            zos.setComment(BackupArchive.commentFor(BuildConfig.VERSION_CODE));
 
-            List<Category> categories = categoryRepository.findAll().getValue();
-            ZipEntry categoryEntry = new ZipEntry("categories.json");
-            zos.putNextEntry(categoryEntry);
             ObjectMapper objectMapper = new ObjectMapper();
             objectMapper.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
-            objectMapper.writeValue(zos, categories);
-            zos.closeEntry();
 
-            List<Recipe> recipes = recipeRepository.findAll().get();
-            maxRecipes.postValue(recipes.size());
+            int numberOfRecipes = recipeRepository.count().get();
+            maxRecipes.postValue(numberOfRecipes);
 
-            for (int i = 0; i < recipes.size(); i++) {
-                count.postValue(i+1);
+            zos.putNextEntry(new ZipEntry(BackupArchive.MANIFEST));
+            objectMapper.writeValue(zos, new BackupArchive.Manifest(BuildConfig.VERSION_CODE, numberOfRecipes));
+            zos.closeEntry();
 
-                Recipe recipe = recipes.get(i);
-                ZipEntry entry = new ZipEntry(recipe.getRecipeId() + "_" + recipe.getTitle().replaceAll("[^a-zA-Z0-9\\.\\-]", "_") + ".broccoli");
-                zos.putNextEntry(entry);
+            List<Category> categories = categoryRepository.findAll().getValue();
+            zos.putNextEntry(new ZipEntry(BackupArchive.CATEGORIES));
+            objectMapper.writeValue(zos, categories);
+            zos.closeEntry();
 
-                try (CloseShieldOutputStream cloned = CloseShieldOutputStream.wrap(zos); ZipOutputStream nestedZos = new ZipOutputStream(cloned)) {
-                    recipeZipWriter.write(recipe).to(nestedZos);
-                    nestedZos.finish();
+            int written = 0;
+            long lastRecipeId = 0;
+            List<Recipe> page;
+            while (!(page = recipeRepository.findPageAfter(lastRecipeId, PAGE_SIZE).get()).isEmpty()) {
+                for (Recipe recipe : page) {
+                    count.postValue(++written);
+                    write(recipe, zos, objectMapper);
+                    lastRecipeId = recipe.getRecipeId();
                 }
-
-                zos.closeEntry();
             }
 
             return FileProvider.getUriForFile(application, AUTHORITY, zipFile);
         }
     }
 
+    private void write(Recipe recipe, ZipOutputStream zos, ObjectMapper objectMapper) throws IOException {
+        File imageFile = null;
+        if (recipe.getImageName().length() > 0) {
+            imageFile = recipeImageService.findImage(recipe.getImageName());
+            if (!imageFile.exists()) {
+                Log.w(getClass().getName(), "The image file \"" + recipe.getImageName() + "\" for recipe \"" + recipe.getTitle() + "\" does not exist.");
+                recipe.setImageName("");
+                imageFile = null;
+            }
+        }
+
+        zos.putNextEntry(new ZipEntry(BackupArchive.RECIPES_DIRECTORY + recipe.getRecipeId() + ".json"));
+        objectMapper.writeValue(zos, recipe);
+        zos.closeEntry();
+
+        if (imageFile != null) {
+            writeImage(recipe.getImageName(), imageFile, zos);
+        }
+    }
+
+    // JPEGs do not compress any further, so the image is stored as it is instead of being deflated
+    private void writeImage(String imageName, File imageFile, ZipOutputStream zos) throws IOException {
+        ZipEntry imageEntry = new ZipEntry(BackupArchive.IMAGES_DIRECTORY + imageName);
+        imageEntry.setMethod(ZipEntry.STORED);
+        imageEntry.setSize(imageFile.length());
+        imageEntry.setCompressedSize(imageFile.length());
+        imageEntry.setCrc(checksumOf(imageFile));
+
+        zos.putNextEntry(imageEntry);
+        FileUtils.copy(imageFile, zos);
+        zos.closeEntry();
+    }
+
+    private long checksumOf(File file) throws IOException {
+        try (CheckedInputStream in = new CheckedInputStream(new FileInputStream(file), new CRC32())) {
+            byte[] buffer = new byte[8192];
+            while (in.read(buffer) != -1) {
+                // only read to update the checksum
+            }
+            return in.getChecksum().getValue();
+        }
+    }
+
     private void saveLastBackupDate() {
         LocalDate date = LocalDate.now();
         String localizedCalendarDate = date.format(DateTimeFormatter.ofLocalizedDate(FormatStyle.SHORT));
@@ -2,14 +2,15 @@ package com.flauschcode.broccoli.backup;
 
 import android.app.Application;
 import android.net.Uri;
+import android.os.ParcelFileDescriptor;
+import android.util.Log;
 
-import androidx.room.Transaction;
-
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.flauschcode.broccoli.FileUtils;
 import com.flauschcode.broccoli.category.Category;
 import com.flauschcode.broccoli.category.CategoryRepository;
+import com.flauschcode.broccoli.concurrent.BroccoliExecutors;
 import com.flauschcode.broccoli.recipe.Recipe;
 import com.flauschcode.broccoli.recipe.RecipeRepository;
 import com.flauschcode.broccoli.recipe.images.RecipeImageService;
@@ -17,13 +18,18 @@ import com.flauschcode.broccoli.recipe.sharing.RecipeZipReader;
 
 import org.apache.commons.io.input.CloseShieldInputStream;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
@@ -41,15 +47,17 @@ public class RestoreService {
     RecipeRepository recipeRepository;
     RecipeImageService recipeImageService;
     CategoryRepository categoryRepository;
+    BroccoliExecutors executors;
 
 
     @Inject
-    public RestoreService(Application application, RecipeZipReader recipeZipReader, RecipeRepository recipeRepository, RecipeImageService recipeImageService, CategoryRepository categoryRepository) {
+    public RestoreService(Application application, RecipeZipReader recipeZipReader, RecipeRepository recipeRepository, RecipeImageService recipeImageService, CategoryRepository categoryRepository, BroccoliExecutors executors) {
         this.application = application;
         this.recipeZipReader = recipeZipReader;
         this.recipeRepository = recipeRepository;
         this.recipeImageService = recipeImageService;
         this.categoryRepository = categoryRepository;
+        this.executors = executors;
     }
 
 
@@ -63,53 +71,132 @@ public class RestoreService {
                 Thread.currentThread().interrupt();
                 throw new CompletionException(e);
             }
-        });
+        }, executors.io());
     }
 
     // package private for testing purposes
     int restoreInternal(Uri uri) throws IOException, ExecutionException, InterruptedException {
+        int version = readVersion(uri);
         InputStream inputStream = application.getContentResolver().openInputStream(uri);
 
         List<Recipe> recipes = new ArrayList<>();
         List<Category> categories = new ArrayList<>();
+        Map<String, String> stagedImages = new HashMap<>();
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.configure(JsonParser.Feature.AUTO_CLOSE_SOURCE, false);
+
+        // images of version 1 archives are extracted to the cache by the RecipeZipReader, those of version 2 are staged
+        // next to the pictures directory; both are only moved there once the recipes referencing them have been written
+        List<String> temporaryImages = new ArrayList<>();
+        Set<String> restoredImages = new HashSet<>();
+        try {
+            try (ZipInputStream zis = new ZipInputStream(inputStream)) {
+                ZipEntry zipEntry;
+
+                while ((zipEntry = zis.getNextEntry()) != null) {
+                    String name = zipEntry.getName();
+                    if (version == BackupArchive.UNKNOWN_VERSION) {
+                        version = BackupArchive.MANIFEST.equals(name)? BackupArchive.VERSION : 1;
+                    }
 
-        try (ZipInputStream zis = new ZipInputStream(inputStream); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            ZipEntry zipEntry;
-
-            while ((zipEntry = zis.getNextEntry()) != null) {
-                if (zipEntry.getName().endsWith(".broccoli")) {
-                    try (CloseShieldInputStream cloned = CloseShieldInputStream.wrap(zis); ZipInputStream nestedZis = new ZipInputStream(cloned)) {
-                        Optional<Recipe> optionalRecipe = recipeZipReader.read().from(nestedZis);
-                        optionalRecipe.ifPresent(recipes::add);
+                    if (BackupArchive.MANIFEST.equals(name)) {
+                        BackupArchive.Manifest manifest = objectMapper.readValue(zis, BackupArchive.Manifest.class);
+                        if (manifest.getVersion() > BackupArchive.VERSION) {
+                            throw new IOException("Archive version " + manifest.getVersion() + " is not supported.");
+                        }
+                    } else if (BackupArchive.CATEGORIES.equals(name)) {
+                        categories = objectMapper.readValue(zis, new TypeReference<List<Category>>() {});
+                    } else if (version == 1 && name.endsWith(".broccoli")) {
+                        try (CloseShieldInputStream cloned = CloseShieldInputStream.wrap(zis); ZipInputStream nestedZis = new ZipInputStream(cloned)) {
+                            Optional<Recipe> optionalRecipe = recipeZipReader.read().from(nestedZis);
+                            optionalRecipe.ifPresent(recipes::add);
+                        }
+                    } else if (version > 1 && name.startsWith(BackupArchive.RECIPES_DIRECTORY) && name.endsWith(".json")) {
+                        recipes.add(objectMapper.readValue(zis, Recipe.class));
+                    } else if (version > 1 && name.startsWith(BackupArchive.IMAGES_DIRECTORY)) {
+                        String stagedImageName = recipeImageService.stageCompressedImage(zis);
+                        stagedImages.put(name.substring(BackupArchive.IMAGES_DIRECTORY.length()), stagedImageName);
                     }
-                } else if ("categories.json".equals(zipEntry.getName())) {
-                    FileUtils.copy(zis, out);
-                    ObjectMapper objectMapper = new ObjectMapper();
-                    categories = objectMapper.readValue(new ByteArrayInputStream(out.toByteArray()), new TypeReference<List<Category>>() {});
+                }
+                zis.closeEntry();
+            }
+
+            for (Recipe recipe : recipes) {
+                if ("".equals(recipe.getImageName())) {
+                    continue;
+                }
+                if (version > 1) {
+                    recipe.setImageName(stagedImages.getOrDefault(recipe.getImageName(), ""));
+                    restoredImages.add(recipe.getImageName());
+                } else {
+                    temporaryImages.add(recipe.getImageName());
                 }
             }
-            zis.closeEntry();
+
+            save(categories, recipes);
+        } catch (IOException | ExecutionException | InterruptedException | RuntimeException e) {
+            stagedImages.values().forEach(recipeImageService::deleteStagedImage);
+            throw e;
         }
 
-        save(categories, recipes);
+        moveImages(temporaryImages, stagedImages.values(), restoredImages);
         return recipes.size();
     }
 
-    @Transaction
+    private int readVersion(Uri uri) {
+        try (ParcelFileDescriptor parcelFileDescriptor = application.getContentResolver().openFileDescriptor(uri, "r");
+             FileInputStream fileInputStream = new FileInputStream(parcelFileDescriptor.getFileDescriptor())) {
+            return BackupArchive.readComment(fileInputStream.getChannel())
+                    .map(BackupArchive::versionOf)
+                    .orElse(BackupArchive.UNKNOWN_VERSION);
+        } catch (IOException | RuntimeException e) {
+            Log.w(getClass().getName(), "Could not read the zip comment, the version is detected from the entries instead: " + e.getMessage());
+            return BackupArchive.UNKNOWN_VERSION;
+        }
+    }
+
     private void save(List<Category> categories, List<Recipe> recipes) throws ExecutionException, InterruptedException {
         List<Category> nonExistingCategories = categoryRepository.retainNonExisting(categories).get();
         for (Category category : nonExistingCategories) {
             categoryRepository.insertOrUpdate(category).get();
         }
 
+        Map<String, Optional<Category>> existingCategories = new HashMap<>();
         for (Recipe recipe : recipes) {
-            List<Category> retainedCategories = categoryRepository.retainExisting(recipe.getCategories()).get();
-            recipe.setCategories(retainedCategories);
-            recipeRepository.insertOrUpdate(recipe);
-            if (!"".equals(recipe.getImageName())) {
-                recipeImageService.moveImage(recipe.getImageName());
+            recipe.setCategories(retainExisting(recipe.getCategories(), existingCategories));
+        }
+        recipeRepository.insertOrUpdateAll(recipes).get();
+    }
+
+    // staged images that no recipe references are deleted instead of being moved
+    private void moveImages(List<String> temporaryImages, Collection<String> stagedImages, Set<String> restoredImages) throws ExecutionException, InterruptedException {
+        List<CompletableFuture<?>> movedImages = new ArrayList<>();
+        temporaryImages.forEach(imageName -> movedImages.add(recipeImageService.moveCompressedImage(imageName)));
+        stagedImages.forEach(imageName -> movedImages.add(restoredImages.contains(imageName)
+                ? recipeImageService.moveStagedImage(imageName)
+                : recipeImageService.deleteStagedImage(imageName)));
+
+        CompletableFuture<?>[] loggedImages = movedImages.stream()
+                .map(movedImage -> movedImage.exceptionally(e -> {
+                    Log.e(getClass().getName(), e.getMessage());
+                    return null;
+                }))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(loggedImages).get();
+    }
+
+    private List<Category> retainExisting(List<Category> categories, Map<String, Optional<Category>> existingCategories) throws ExecutionException, InterruptedException {
+        List<Category> retainedCategories = new ArrayList<>();
+        for (Category category : categories) {
+            Optional<Category> existingCategory = existingCategories.get(category.getName());
+            if (existingCategory == null) {
+                existingCategory = categoryRepository.retainExisting(Collections.singletonList(category)).get().stream().findFirst();
+                existingCategories.put(category.getName(), existingCategory);
             }
+            existingCategory.ifPresent(retainedCategories::add);
         }
+        return retainedCategories;
     }
 
 }
@@ -5,6 +5,7 @@ import android.app.Application;
 import androidx.lifecycle.LiveData;
 
 import com.flauschcode.broccoli.R;
+import com.flauschcode.broccoli.concurrent.BroccoliExecutors;
 
 import java.util.List;
 import java.util.Objects;
@@ -17,7 +18,14 @@ import javax.inject.Singleton;
 @Singleton
 public class CategoryRepository {
 
+    // the categories that are not stored, but derived from the recipes
+    public static final long ALL_RECIPES_ID = -1;
+    public static final long FAVORITES_ID = -2;
+    public static final long UNASSIGNED_ID = -3;
+    public static final long SEASONAL_ID = -4;
+
     private CategoryDAO categoryDAO;
+    private BroccoliExecutors executors;
     private LiveData<List<Category>> allCategories;
 
     private final Category categoryAll;
@@ -26,14 +34,15 @@ public class CategoryRepository {
     private final Category categorySeasonal;
 
     @Inject
-    CategoryRepository(Application application, CategoryDAO categoryDAO) {
+    CategoryRepository(Application application, CategoryDAO categoryDAO, BroccoliExecutors executors) {
         this.categoryDAO = categoryDAO;
+        this.executors = executors;
 
         allCategories = categoryDAO.findAll();
-        categoryAll = new Category(-1, application.getString(R.string.all_recipes));
-        categoryFavorites = new Category(-2, application.getString(R.string.favorites));
-        categoryUnassigned = new Category(-3, application.getString(R.string.unassigned) );
-        categorySeasonal = new Category(-4, application.getString(R.string.seasonal_recipes));
+        categoryAll = new Category(ALL_RECIPES_ID, application.getString(R.string.all_recipes));
+        categoryFavorites = new Category(FAVORITES_ID, application.getString(R.string.favorites));
+        categoryUnassigned = new Category(UNASSIGNED_ID, application.getString(R.string.unassigned) );
+        categorySeasonal = new Category(SEASONAL_ID, application.getString(R.string.seasonal_recipes));
     }
 
     public LiveData<List<Category>> findAll() {
@@ -41,14 +50,14 @@ public class CategoryRepository {
     }
 
     public void delete(Category category) {
-        CompletableFuture.runAsync(() -> categoryDAO.delete(category));
+        CompletableFuture.runAsync(() -> categoryDAO.delete(category), executors.databaseWriter());
     }
 
     public CompletableFuture<Void> insertOrUpdate(Category category) {
         if (category.getCategoryId() == 0) {
-            return CompletableFuture.runAsync(() -> categoryDAO.insert(category));
+            return CompletableFuture.runAsync(() -> categoryDAO.insert(category), executors.databaseWriter());
         } else {
-            return CompletableFuture.runAsync(() -> categoryDAO.update(category));
+            return CompletableFuture.runAsync(() -> categoryDAO.update(category), executors.databaseWriter());
         }
     }
 
@@ -56,13 +65,13 @@ public class CategoryRepository {
         return CompletableFuture.supplyAsync(() -> categories.stream()
                     .map(category -> categoryDAO.searchByName(category.getName()))
                     .filter(Objects::nonNull)
-                    .collect(Collectors.toList()));
+                    .collect(Collectors.toList()), executors.io());
     }
 
     public CompletableFuture<List<Category>> retainNonExisting(List<Category> categories) {
         return CompletableFuture.supplyAsync(() -> categories.stream()
                 .filter(category -> categoryDAO.searchByName(category.getName()) == null)
-                .collect(Collectors.toList()));
+                .collect(Collectors.toList()), executors.io());
     }
 
     public Category getAllRecipesCategory() {
@@ -0,0 +1,55 @@
+package com.flauschcode.broccoli.concurrent;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+// the common ForkJoin pool is only as large as the number of cores, blocking work would starve short database writes
+@Singleton
+public class BroccoliExecutors {
+
+    private static final int IO_THREADS = 4;
+
+    private final InstrumentedExecutor databaseWriter;
+    private final InstrumentedExecutor io;
+    private final InstrumentedExecutor cpu;
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    @Inject
+    public BroccoliExecutors() {
+        databaseWriter = new InstrumentedExecutor("database-writer", 1);
+        io = new InstrumentedExecutor("io", IO_THREADS);
+        cpu = new InstrumentedExecutor("cpu", Math.max(2, Runtime.getRuntime().availableProcessors() - 1));
+        scheduler = new ScheduledThreadPoolExecutor(1, new InstrumentedExecutor.NamedThreadFactory("scheduler"));
+        // debounced tasks are cancelled all the time, they should not wait in the queue until they would have been due
+        scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    // SQLite only allows one writer at a time anyway
+    public Executor databaseWriter() {
+        return databaseWriter;
+    }
+
+    public Executor io() {
+        return io;
+    }
+
+    public Executor cpu() {
+        return cpu;
+    }
+
+    // its tasks only hand work over to the other executors, so a single thread is enough
+    public ScheduledExecutorService scheduler() {
+        return scheduler;
+    }
+
+    public List<InstrumentedExecutor> getInstrumentedExecutors() {
+        return Arrays.asList(databaseWriter, io, cpu);
+    }
+
+}
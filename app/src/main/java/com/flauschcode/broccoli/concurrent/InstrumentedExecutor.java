@@ -0,0 +1,111 @@
+package com.flauschcode.broccoli.concurrent;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// tracks the waiting tasks and the time from submission to completion, so that a pool which is too small shows up
+public class InstrumentedExecutor implements Executor {
+
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private final String name;
+    private final ThreadPoolExecutor threadPoolExecutor;
+
+    private final AtomicLong completedTasks = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    public InstrumentedExecutor(String name, int threads) {
+        this.name = name;
+        this.threadPoolExecutor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new NamedThreadFactory(name));
+        this.threadPoolExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void execute(@NonNull Runnable command) {
+        long submitted = System.nanoTime();
+        threadPoolExecutor.execute(() -> {
+            long started = System.nanoTime();
+            try {
+                command.run();
+            } finally {
+                record(started - submitted, System.nanoTime() - submitted);
+            }
+        });
+    }
+
+    private void record(long waitNanos, long latencyNanos) {
+        completedTasks.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        totalLatencyNanos.addAndGet(latencyNanos);
+        maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getQueueDepth() {
+        return threadPoolExecutor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return threadPoolExecutor.getActiveCount();
+    }
+
+    public long getCompletedTasks() {
+        return completedTasks.get();
+    }
+
+    public long getAverageWaitMillis() {
+        return average(totalWaitNanos.get());
+    }
+
+    public long getAverageLatencyMillis() {
+        return average(totalLatencyNanos.get());
+    }
+
+    public long getMaxLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get());
+    }
+
+    private long average(long totalNanos) {
+        long tasks = completedTasks.get();
+        return tasks == 0? 0 : TimeUnit.NANOSECONDS.toMillis(totalNanos / tasks);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return name + " [queued=" + getQueueDepth()
+                + ", active=" + getActiveCount()
+                + ", completed=" + getCompletedTasks()
+                + ", averageWait=" + getAverageWaitMillis() + "ms"
+                + ", averageLatency=" + getAverageLatencyMillis() + "ms"
+                + ", maxLatency=" + getMaxLatencyMillis() + "ms]";
+    }
+
+    static class NamedThreadFactory implements ThreadFactory {
+
+        private final String name;
+        private final AtomicInteger count = new AtomicInteger();
+
+        NamedThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(@NonNull Runnable runnable) {
+            return new Thread(runnable, "broccoli-" + name + "-" + count.incrementAndGet());
+        }
+    }
+
+}
@@ -3,7 +3,11 @@ package com.flauschcode.broccoli.di;
 import android.app.Application;
 
 import com.flauschcode.broccoli.BroccoliApplication;
+import com.flauschcode.broccoli.concurrent.BroccoliExecutors;
+import com.flauschcode.broccoli.recipe.ParsedRecipeCache;
 import com.flauschcode.broccoli.recipe.RecipeModule;
+import com.flauschcode.broccoli.recipe.ingredients.UnitConverter;
+import com.flauschcode.broccoli.seasons.SeasonalCalendarHolder;
 import com.flauschcode.broccoli.seasons.SeasonsModule;
 
 import javax.inject.Singleton;
@@ -37,4 +41,10 @@ public interface ApplicationComponent {
     }
 
     void inject(BroccoliApplication application);
+
+    // exposed for the BindingComponent, which depends on this component
+    BroccoliExecutors executors();
+    ParsedRecipeCache parsedRecipeCache();
+    UnitConverter unitConverter();
+    SeasonalCalendarHolder seasonalCalendarHolder();
 }
@@ -2,8 +2,11 @@ package com.flauschcode.broccoli.di;
 
 import android.app.Application;
 
+import com.flauschcode.broccoli.recipe.ParsedRecipeCache;
+import com.flauschcode.broccoli.recipe.directions.DirectionsBindingAdapter;
 import com.flauschcode.broccoli.recipe.images.ImageBindingAdapter;
 import com.flauschcode.broccoli.recipe.images.RecipeImageService;
+import com.flauschcode.broccoli.recipe.ingredients.UnitConverter;
 import com.flauschcode.broccoli.seasons.SeasonalCalendarHolder;
 import com.flauschcode.broccoli.seasons.SeasonsBindingAdapter;
 
@@ -22,14 +25,14 @@ class BindingModule {
 
     @Provides
     @DataBinding
-    SeasonsBindingAdapter seasonsBindingAdapter(SeasonalCalendarHolder seasonalCalendarHolder) {
-        return new SeasonsBindingAdapter(seasonalCalendarHolder);
+    SeasonsBindingAdapter seasonsBindingAdapter(SeasonalCalendarHolder seasonalCalendarHolder, ParsedRecipeCache parsedRecipeCache, UnitConverter unitConverter) {
+        return new SeasonsBindingAdapter(seasonalCalendarHolder, parsedRecipeCache, unitConverter);
     }
 
     @Provides
     @DataBinding
-    SeasonalCalendarHolder seasonalCalendarHolder(Application application) {
-        return new SeasonalCalendarHolder(application);
+    DirectionsBindingAdapter directionsBindingAdapter(ParsedRecipeCache parsedRecipeCache) {
+        return new DirectionsBindingAdapter(parsedRecipeCache);
     }
 
     @Provides
@@ -7,6 +7,9 @@ import androidx.room.Room;
 import com.flauschcode.broccoli.BroccoliDatabase;
 import com.flauschcode.broccoli.category.CategoryDAO;
 import com.flauschcode.broccoli.recipe.RecipeDAO;
+import com.flauschcode.broccoli.recipe.ingredients.IngredientDAO;
+import com.flauschcode.broccoli.recipe.search.SearchIndexDAO;
+import com.flauschcode.broccoli.seasons.SeasonalFoodDAO;
 
 import javax.inject.Singleton;
 
@@ -22,6 +25,9 @@ public class DatabaseModule {
 
     public DatabaseModule(Application application) {
         database = Room.databaseBuilder(application, BroccoliDatabase.class, DB_NAME)
+                .addMigrations(BroccoliDatabase.MIGRATION_1_2, BroccoliDatabase.MIGRATION_2_3, BroccoliDatabase.MIGRATION_3_4, BroccoliDatabase.MIGRATION_4_5, BroccoliDatabase.MIGRATION_5_6)
+                .addCallback(BroccoliDatabase.FTS_TRIGGER_CALLBACK)
+                .addCallback(BroccoliDatabase.FTS_VOCABULARY_CALLBACK)
                 .build();
     }
 
@@ -43,4 +49,22 @@ public class DatabaseModule {
         return database.getCategoryDAO();
     }
 
+    @Provides
+    @Singleton
+    SearchIndexDAO searchIndexDAO(BroccoliDatabase database) {
+        return database.getSearchIndexDAO();
+    }
+
+    @Provides
+    @Singleton
+    IngredientDAO ingredientDAO(BroccoliDatabase database) {
+        return database.getIngredientDAO();
+    }
+
+    @Provides
+    @Singleton
+    SeasonalFoodDAO seasonalFoodDAO(BroccoliDatabase database) {
+        return database.getSeasonalFoodDAO();
+    }
+
 }
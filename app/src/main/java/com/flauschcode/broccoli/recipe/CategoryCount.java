@@ -0,0 +1,19 @@
+package com.flauschcode.broccoli.recipe;
+
+public class CategoryCount {
+    private final long categoryId;
+    private final int recipeCount;
+
+    public CategoryCount(long categoryId, int recipeCount) {
+        this.categoryId = categoryId;
+        this.recipeCount = recipeCount;
+    }
+
+    public long getCategoryId() {
+        return categoryId;
+    }
+
+    public int getRecipeCount() {
+        return recipeCount;
+    }
+}
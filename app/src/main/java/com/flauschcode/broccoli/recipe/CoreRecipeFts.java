@@ -3,7 +3,7 @@ package com.flauschcode.broccoli.recipe;
 import androidx.room.Entity;
 import androidx.room.Fts4;
 
-@Fts4(contentEntity = CoreRecipe.class, tokenizer = "unicode61", tokenizerArgs = "tokenchars=#")
+@Fts4(contentEntity = CoreRecipe.class, tokenizer = "unicode61", tokenizerArgs = "tokenchars=#", prefix = {2, 3})
 @Entity(tableName = "recipes_fts")
 public class CoreRecipeFts {
 
@@ -0,0 +1,143 @@
+package com.flauschcode.broccoli.recipe;
+
+import com.flauschcode.broccoli.recipe.cooking.PageableRecipe;
+import com.flauschcode.broccoli.recipe.directions.Direction;
+import com.flauschcode.broccoli.recipe.directions.DirectionBuilder;
+import com.flauschcode.broccoli.recipe.ingredients.Ingredient;
+import com.flauschcode.broccoli.recipe.ingredients.Quantity;
+import com.flauschcode.broccoli.recipe.ingredients.UnitConverter.UnitSystem;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+// keyed by the recipe id and the text, a recipe whose text changed simply misses the cache
+@Singleton
+public class ParsedRecipeCache {
+
+    static final int MAX_ENTRIES = 64;
+
+    private final Map<Key, Object> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @Inject
+    public ParsedRecipeCache() {
+        this(MAX_ENTRIES);
+    }
+
+    // package private for testing purposes
+    ParsedRecipeCache(int maxEntries) {
+        entries = new LinkedHashMap<Key, Object>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    // copies, because callers mark them as seasonal or scale their quantities
+    public List<Ingredient> getIngredients(Recipe recipe) {
+        List<Ingredient> ingredients = get(new Key(Kind.INGREDIENTS, recipe.getRecipeId(), recipe.getIngredients(), "", 0f, null),
+                () -> Collections.unmodifiableList(recipe.getIngredientList()));
+        return ingredients.stream()
+                .map(ingredient -> new Ingredient(ingredient.getQuantity(), ingredient.getText()))
+                .collect(Collectors.toList());
+    }
+
+    public List<Quantity> getQuantities(Recipe recipe) {
+        return get(new Key(Kind.QUANTITIES, recipe.getRecipeId(), recipe.getIngredients(), "", 0f, null),
+                () -> Collections.unmodifiableList(getIngredients(recipe).stream()
+                        .map(ingredient -> Quantity.parse(ingredient.getQuantity()))
+                        .collect(Collectors.toList())));
+    }
+
+    public List<Direction> getDirections(Recipe recipe) {
+        return get(new Key(Kind.DIRECTIONS, recipe.getRecipeId(), recipe.getDirections(), "", 0f, null),
+                () -> Collections.unmodifiableList(DirectionBuilder.from(recipe.getDirections())));
+    }
+
+    public PageableRecipe getPages(Recipe recipe, float scaleFactor, UnitSystem unitSystem, Supplier<PageableRecipe> pageableRecipeSupplier) {
+        return get(new Key(Kind.PAGES, recipe.getRecipeId(), recipe.getIngredients(), recipe.getDirections(), scaleFactor, unitSystem), pageableRecipeSupplier);
+    }
+
+    public synchronized void invalidate(long recipeId) {
+        entries.keySet().removeIf(key -> key.recipeId == recipeId);
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(Key key, Supplier<T> parser) {
+        synchronized (this) {
+            Object cached = entries.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return (T) cached;
+            }
+        }
+
+        // parse outside the lock, parsing the same text twice is cheaper than blocking every other lookup
+        misses.incrementAndGet();
+        T parsed = parser.get();
+        synchronized (this) {
+            entries.put(key, parsed);
+        }
+        return parsed;
+    }
+
+    private enum Kind {
+        INGREDIENTS, QUANTITIES, DIRECTIONS, PAGES
+    }
+
+    private static final class Key {
+        private final Kind kind;
+        private final long recipeId;
+        private final String text;
+        private final String secondText;
+        private final float scaleFactor;
+        private final UnitSystem unitSystem;
+
+        private Key(Kind kind, long recipeId, String text, String secondText, float scaleFactor, UnitSystem unitSystem) {
+            this.kind = kind;
+            this.recipeId = recipeId;
+            this.text = text;
+            this.secondText = secondText;
+            this.scaleFactor = scaleFactor;
+            this.unitSystem = unitSystem;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return kind == key.kind &&
+                    recipeId == key.recipeId &&
+                    Float.compare(scaleFactor, key.scaleFactor) == 0 &&
+                    unitSystem == key.unitSystem &&
+                    Objects.equals(text, key.text) &&
+                    Objects.equals(secondText, key.secondText);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, recipeId, text, secondText, scaleFactor, unitSystem);
+        }
+    }
+
+}
@@ -9,13 +9,18 @@ import androidx.room.Relation;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.flauschcode.broccoli.category.Category;
+import com.flauschcode.broccoli.recipe.ingredients.Ingredient;
+import com.flauschcode.broccoli.recipe.ingredients.IngredientBuilder;
+import com.flauschcode.broccoli.recipe.ingredients.RecipeIngredient;
 
 import com.flauschcode.broccoli.BR;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 public class Recipe extends BaseObservable implements Serializable {
 
@@ -29,6 +34,12 @@ public class Recipe extends BaseObservable implements Serializable {
     )
     private List<Category> categories = new ArrayList<>();
 
+    @Relation(
+            parentColumn = "recipeId",
+            entityColumn = "recipeId"
+    )
+    private List<RecipeIngredient> storedIngredients = new ArrayList<>();
+
     @Ignore
     private boolean isDirty = false;
 
@@ -125,6 +136,29 @@ public class Recipe extends BaseObservable implements Serializable {
 
     public void setIngredients(String ingredients) {
         this.coreRecipe.setIngredients(ingredients);
+        this.storedIngredients = new ArrayList<>();
+    }
+
+    @JsonIgnore
+    public List<RecipeIngredient> getStoredIngredients() {
+        return storedIngredients;
+    }
+
+    public void setStoredIngredients(List<RecipeIngredient> storedIngredients) {
+        this.storedIngredients = storedIngredients;
+    }
+
+    // parsed when the recipe was saved, parsed again if it has not been saved yet or its ingredients changed since
+    @JsonIgnore
+    public List<Ingredient> getIngredientList() {
+        if (storedIngredients.isEmpty()) {
+            return IngredientBuilder.from(getIngredients());
+        }
+        // the relation is loaded without an order
+        return storedIngredients.stream()
+                .sorted(Comparator.comparingInt(RecipeIngredient::getPosition))
+                .map(RecipeIngredient::toIngredient)
+                .collect(Collectors.toList());
     }
 
     public String getDirections() {
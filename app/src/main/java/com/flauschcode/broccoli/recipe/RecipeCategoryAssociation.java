@@ -27,7 +27,8 @@ import static androidx.room.ForeignKey.CASCADE;
         },
         indices = {
                 @Index("recipeId"),
-                @Index("categoryId")
+                // covers the lookup of the recipes of categories without reading the table
+                @Index({"categoryId", "recipeId"})
         })
 public class RecipeCategoryAssociation {
     private long recipeId;
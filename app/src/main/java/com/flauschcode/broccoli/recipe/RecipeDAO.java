@@ -1,18 +1,67 @@
 package com.flauschcode.broccoli.recipe;
 
 import androidx.lifecycle.LiveData;
+import androidx.paging.PagingSource;
 import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.Query;
+import androidx.room.RawQuery;
 import androidx.room.Transaction;
 import androidx.room.Update;
+import androidx.sqlite.db.SupportSQLiteQuery;
+
+import com.flauschcode.broccoli.category.CategoryRepository;
+import com.flauschcode.broccoli.recipe.search.RecipeSearchText;
+import com.flauschcode.broccoli.recipe.search.RecipeTrigram;
+import com.flauschcode.broccoli.seasons.RecipeSeasonalFood;
 
 import java.util.List;
 
 @Dao
 public interface RecipeDAO {
 
+    // :currentMonth is a bit mask of SeasonalFoodIndex.bitOf
+    String SEASONAL_MATCH = "recipes.recipeId IN (SELECT recipeId FROM recipe_seasonal_food WHERE months & :currentMonth)";
+
+    String SEASONAL_FOOD_MATCH = "recipes.recipeId IN (SELECT recipeId FROM recipe_seasonal_food WHERE food = :food)";
+
+    String UNASSIGNED_MATCH = "NOT EXISTS (SELECT * FROM recipes_with_categories WHERE recipeId = recipes.recipeId)";
+
+    String FULL_TEXT_JOIN = " JOIN recipes_fts ON (recipes.recipeId = recipes_fts.docid)";
+
+    String FULL_TEXT_MATCH = "recipes_fts MATCH :term";
+
+    String ORDER_BY_TITLE = " ORDER BY recipes.title COLLATE NOCASE";
+
+    String LIST_ITEM_COLUMNS = "recipes.recipeId, recipes.title, recipes.description, recipes.source, recipes.imageName, recipes.favorite, " +
+            SEASONAL_MATCH + " AS seasonal";
+
+    // each column is matched once per query instead of computing the offsets of every match for every row
+    String ORDER_BY_RANK = " ORDER BY " +
+            "(recipes.recipeId IN (SELECT docid FROM recipes_fts WHERE recipes_fts.title MATCH :term)) * :titleWeight + " +
+            "(recipes.recipeId IN (SELECT docid FROM recipes_fts WHERE recipes_fts.ingredients MATCH :term)) * :ingredientsWeight + " +
+            "(recipes.recipeId IN (SELECT docid FROM recipes_fts WHERE recipes_fts.description MATCH :term)) * :descriptionWeight + " +
+            "(recipes.recipeId IN (SELECT docid FROM recipes_fts WHERE recipes_fts.source MATCH :term)) * :sourceWeight DESC, " +
+            "recipes.title COLLATE NOCASE";
+
+    // only the recipes with all trigrams of the substring are checked against their text
+    String SUBSTRING_MATCH = "recipes.recipeId IN (SELECT recipeId FROM recipe_trigrams WHERE trigram IN (:trigrams) GROUP BY recipeId HAVING COUNT(*) = :trigramCount) " +
+            "AND EXISTS (SELECT 1 FROM recipe_search_texts WHERE recipe_search_texts.recipeId = recipes.recipeId AND (instr(recipe_search_texts.title, :substring) > 0 OR instr(recipe_search_texts.ingredients, :substring) > 0))";
+
+    String ORDER_BY_SUBSTRING_RANK = " ORDER BY " +
+            "(SELECT instr(recipe_search_texts.title, :substring) > 0 FROM recipe_search_texts WHERE recipe_search_texts.recipeId = recipes.recipeId) DESC, " +
+            "recipes.title COLLATE NOCASE";
+
+    // counts the common table expression matches per category, including the categories derived from the recipes
+    String COUNT_MATCHES_BY_CATEGORY = " SELECT categoryId, COUNT(*) AS recipeCount FROM recipes_with_categories WHERE recipeId IN (SELECT recipeId FROM matches) GROUP BY categoryId" +
+            " UNION ALL SELECT " + CategoryRepository.ALL_RECIPES_ID + ", COUNT(*) FROM matches" +
+            " UNION ALL SELECT " + CategoryRepository.FAVORITES_ID + ", COUNT(*) FROM matches WHERE favorite" +
+            " UNION ALL SELECT " + CategoryRepository.UNASSIGNED_ID + ", COUNT(*) FROM matches WHERE NOT EXISTS (SELECT * FROM recipes_with_categories WHERE recipes_with_categories.recipeId = matches.recipeId)" +
+            " UNION ALL SELECT " + CategoryRepository.SEASONAL_ID + ", COUNT(*) FROM matches WHERE seasonal";
+
+    String MATCH_COLUMNS = "recipes.recipeId AS recipeId, recipes.favorite AS favorite, " + SEASONAL_MATCH + " AS seasonal";
+
     @Insert
     long insert(CoreRecipe recipe);
 
@@ -22,49 +71,49 @@ public interface RecipeDAO {
     @Delete
     void delete(CoreRecipe recipe);
 
+    @Query("UPDATE recipes SET favorite = :favorite WHERE recipeId = :recipeId")
+    void updateFavorite(long recipeId, boolean favorite);
+
+    @Query("UPDATE recipes SET imageName = :imageName WHERE recipeId = :recipeId")
+    void updateImageName(long recipeId, String imageName);
+
     @Insert
     void insert(RecipeCategoryAssociation recipeCategoryAssociation);
 
     @Delete
     void delete(RecipeCategoryAssociation recipeCategoryAssociation);
 
-    @Transaction
-    @Query("SELECT * FROM recipes WHERE favorite IN (:favorite) ORDER BY title COLLATE NOCASE")
-    LiveData<List<Recipe>> findAll(List<Boolean> favorite);
-
-    @Transaction
-    @Query(" SELECT recipes.recipeId, title, imageName, description, servings, preparationTime, source, ingredients, directions, favorite FROM recipes INNER JOIN recipes_with_categories ON recipes.recipeId = recipes_with_categories.recipeId WHERE recipes_with_categories.categoryId = :categoryId ORDER BY title COLLATE NOCASE")
-    LiveData<List<Recipe>> filterBy(long categoryId);
+    @Query("SELECT EXISTS (SELECT 1 FROM recipes_fts WHERE " + FULL_TEXT_MATCH + ")")
+    boolean hasMatches(String term);
 
-    @Transaction
-    @Query("SELECT * FROM recipes JOIN recipes_fts ON (recipes.recipeId = recipes_fts.docid) WHERE recipes_fts MATCH :term AND favorite IN (:favorite) ORDER BY SUBSTR(OFFSETS(recipes_fts), 1, 1), recipes.title COLLATE NOCASE")
-    LiveData<List<Recipe>> searchFor(String term, List<Boolean> favorite);
+    // compiled from the clauses above by the RecipeFilterQuery
+    @RawQuery(observedEntities = {CoreRecipe.class, CoreRecipeFts.class, RecipeCategoryAssociation.class, RecipeTrigram.class, RecipeSearchText.class, RecipeSeasonalFood.class})
+    PagingSource<Integer, RecipeListItem> filter(SupportSQLiteQuery query);
 
-    @Transaction
-    @Query("SELECT recipes.recipeId, recipes.title, imageName, recipes.description, servings, preparationTime, recipes.source, recipes.ingredients, directions, favorite FROM recipes JOIN recipes_fts ON (recipes.recipeId = recipes_fts.docid) INNER JOIN recipes_with_categories ON recipes.recipeId = recipes_with_categories.recipeId WHERE recipes_with_categories.categoryId = :categoryId AND recipes_fts MATCH :term ORDER BY SUBSTR(OFFSETS(recipes_fts), 1, 1), recipes.title COLLATE NOCASE")
-    LiveData<List<Recipe>> filterByAndSearchFor(long categoryId, String term);
+    @Query("SELECT EXISTS (SELECT 1 FROM recipes WHERE " + SUBSTRING_MATCH + ")")
+    boolean hasSubstringMatches(List<String> trigrams, int trigramCount, String substring);
 
-    @Transaction
-    @Query("SELECT * FROM recipes WHERE NOT EXISTS (SELECT * FROM recipes_with_categories WHERE recipeId = recipes.recipeId) ORDER BY title COLLATE NOCASE")
-    LiveData<List<Recipe>> findUnassigned();
+    @Query("WITH matches AS (SELECT " + MATCH_COLUMNS + " FROM recipes)" + COUNT_MATCHES_BY_CATEGORY)
+    LiveData<List<CategoryCount>> countByCategory(int currentMonth);
 
-    @Transaction
-    @Query("SELECT * FROM recipes JOIN recipes_fts ON (recipes.recipeId = recipes_fts.docid) WHERE recipes_fts MATCH :term AND NOT EXISTS (SELECT * FROM recipes_with_categories WHERE recipeId = recipes.recipeId) ORDER BY SUBSTR(OFFSETS(recipes_fts), 1, 1), recipes.title COLLATE NOCASE")
-    LiveData<List<Recipe>> searchForUnassigned(String term);
+    @Query("WITH matches AS (SELECT " + MATCH_COLUMNS + " FROM recipes" + FULL_TEXT_JOIN + " WHERE " + FULL_TEXT_MATCH + ")" + COUNT_MATCHES_BY_CATEGORY)
+    LiveData<List<CategoryCount>> countSearchResultsByCategory(String term, int currentMonth);
 
-    @Transaction
-    @Query("SELECT * FROM recipes JOIN recipes_fts ON (recipes.recipeId = recipes_fts.docid) WHERE recipes_fts.ingredients MATCH :seasonalTerm ORDER BY SUBSTR(OFFSETS(recipes_fts), 1, 1), recipes.title COLLATE NOCASE")
-    LiveData<List<Recipe>> findSeasonal(String seasonalTerm);
+    @Query("WITH matches AS (SELECT " + MATCH_COLUMNS + " FROM recipes WHERE " + SUBSTRING_MATCH + ")" + COUNT_MATCHES_BY_CATEGORY)
+    LiveData<List<CategoryCount>> countSubstringSearchResultsByCategory(List<String> trigrams, int trigramCount, String substring, int currentMonth);
 
     @Transaction
-    @Query("SELECT * FROM recipes JOIN recipes_fts ON (recipes.recipeId = recipes_fts.docid) WHERE recipes_fts MATCH :term AND recipes_fts.rowid IN (SELECT rowid FROM recipes_fts WHERE recipes_fts.ingredients MATCH :seasonalTerm) ORDER BY SUBSTR(OFFSETS(recipes_fts), 1, 1), recipes.title COLLATE NOCASE")
-    LiveData<List<Recipe>> searchForSeasonal(String seasonalTerm, String term);
+    @Query("SELECT * FROM recipes WHERE recipeId = :recipeId")
+    Recipe findById(long recipeId);
 
     @Query("SELECT * FROM recipes_with_categories WHERE recipeId == :recipeId")
     List<RecipeCategoryAssociation> getCategoriesFor(long recipeId);
 
     @Transaction
-    @Query("SELECT * FROM recipes")
-    List<Recipe> findAll();
+    @Query("SELECT * FROM recipes WHERE recipeId > :afterRecipeId ORDER BY recipeId LIMIT :limit")
+    List<Recipe> findPageAfter(long afterRecipeId, int limit);
+
+    @Query("SELECT COUNT(*) FROM recipes")
+    int count();
 
 }
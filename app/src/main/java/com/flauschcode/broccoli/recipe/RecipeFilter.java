@@ -0,0 +1,134 @@
+package com.flauschcode.broccoli.recipe;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// the categories are combined as chosen, every other condition narrows the result further
+public class RecipeFilter {
+
+    public enum Combination {
+        ALL,
+        ANY
+    }
+
+    // a recipe scores the weight of every column that matches the search term
+    public static final class ColumnWeights {
+
+        public static final ColumnWeights DEFAULT = new ColumnWeights(8, 4, 2, 1);
+
+        private final int title;
+        private final int ingredients;
+        private final int description;
+        private final int source;
+
+        public ColumnWeights(int title, int ingredients, int description, int source) {
+            this.title = title;
+            this.ingredients = ingredients;
+            this.description = description;
+            this.source = source;
+        }
+
+        public int getTitle() {
+            return title;
+        }
+
+        public int getIngredients() {
+            return ingredients;
+        }
+
+        public int getDescription() {
+            return description;
+        }
+
+        public int getSource() {
+            return source;
+        }
+    }
+
+    private final Set<Long> categoryIds = new LinkedHashSet<>();
+    private Combination combination = Combination.ANY;
+    private boolean unassigned;
+    private boolean favorites;
+    private boolean seasonal;
+    private String seasonalFood;
+    private String searchTerm = "";
+    private RecipeRepository.SearchMode searchMode = RecipeRepository.SearchMode.PREFIX;
+    private ColumnWeights columnWeights = ColumnWeights.DEFAULT;
+
+    public Set<Long> getCategoryIds() {
+        return Collections.unmodifiableSet(categoryIds);
+    }
+
+    public Combination getCombination() {
+        return combination;
+    }
+
+    public boolean isUnassigned() {
+        return unassigned;
+    }
+
+    public boolean isFavorites() {
+        return favorites;
+    }
+
+    public boolean isSeasonal() {
+        return seasonal;
+    }
+
+    public String getSeasonalFood() {
+        return seasonalFood;
+    }
+
+    public String getSearchTerm() {
+        return searchTerm;
+    }
+
+    public RecipeRepository.SearchMode getSearchMode() {
+        return searchMode;
+    }
+
+    public ColumnWeights getColumnWeights() {
+        return columnWeights;
+    }
+
+    public void setCategoryIds(Collection<Long> categoryIds) {
+        this.categoryIds.clear();
+        this.categoryIds.addAll(categoryIds);
+    }
+
+    public void setCombination(Combination combination) {
+        this.combination = combination;
+    }
+
+    // recipes without any category are combined like one more category
+    public void setUnassigned(boolean unassigned) {
+        this.unassigned = unassigned;
+    }
+
+    public void setFavorites(boolean favorites) {
+        this.favorites = favorites;
+    }
+
+    public void setSeasonal(boolean seasonal) {
+        this.seasonal = seasonal;
+    }
+
+    public void setSeasonalFood(String seasonalFood) {
+        this.seasonalFood = seasonalFood;
+    }
+
+    public void setSearchTerm(String searchTerm) {
+        this.searchTerm = searchTerm;
+    }
+
+    public void setSearchMode(RecipeRepository.SearchMode searchMode) {
+        this.searchMode = searchMode;
+    }
+
+    public void setColumnWeights(ColumnWeights columnWeights) {
+        this.columnWeights = columnWeights;
+    }
+
+}
@@ -0,0 +1,144 @@
+package com.flauschcode.broccoli.recipe;
+
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import androidx.sqlite.db.SupportSQLiteQuery;
+
+import com.flauschcode.broccoli.recipe.search.TrigramIndex;
+import com.flauschcode.broccoli.recipe.search.Trigrams;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// the named parameters of the clauses become positional ones, the number of categories and trigrams is not known in advance
+final class RecipeFilterQuery {
+
+    private static final Pattern PARAMETER = Pattern.compile(":(\\w+)");
+
+    private final StringBuilder sql = new StringBuilder();
+    private final List<Object> args = new ArrayList<>();
+
+    private RecipeFilterQuery() {
+    }
+
+    // the match query is ignored if the search term is empty or searched as a substring
+    static SupportSQLiteQuery compile(RecipeFilter filter, String matchQuery, int currentMonth) {
+        RecipeFilterQuery query = new RecipeFilterQuery();
+        String searchTerm = filter.getSearchTerm() == null ? "" : filter.getSearchTerm();
+        String substring = Trigrams.normalizeTerm(searchTerm);
+        boolean substringSearch = filter.getSearchMode() == RecipeRepository.SearchMode.SUBSTRING && Trigrams.canBeSearched(substring);
+        boolean fullTextSearch = !substringSearch && !"".equals(searchTerm);
+
+        query.append("SELECT " + RecipeDAO.LIST_ITEM_COLUMNS + " FROM recipes", parameters("currentMonth", currentMonth));
+        if (fullTextSearch) {
+            query.append(RecipeDAO.FULL_TEXT_JOIN);
+        }
+
+        List<Runnable> conditions = new ArrayList<>();
+        if (fullTextSearch) {
+            conditions.add(() -> query.append(RecipeDAO.FULL_TEXT_MATCH, parameters("term", matchQuery)));
+        }
+        if (substringSearch) {
+            conditions.add(() -> query.appendSubstringMatch(substring));
+        }
+        if (hasCategoryCondition(filter)) {
+            conditions.add(() -> query.appendCategoryMatch(filter));
+        }
+        if (filter.isFavorites()) {
+            conditions.add(() -> query.append("recipes.favorite"));
+        }
+        if (filter.isSeasonal()) {
+            conditions.add(() -> query.append(RecipeDAO.SEASONAL_MATCH, parameters("currentMonth", currentMonth)));
+        }
+        if (filter.getSeasonalFood() != null) {
+            conditions.add(() -> query.append(RecipeDAO.SEASONAL_FOOD_MATCH, parameters("food", filter.getSeasonalFood())));
+        }
+        query.appendJoined(" WHERE ", " AND ", conditions);
+
+        if (fullTextSearch) {
+            RecipeFilter.ColumnWeights weights = filter.getColumnWeights();
+            query.append(RecipeDAO.ORDER_BY_RANK, parameters("term", matchQuery, "titleWeight", weights.getTitle(), "ingredientsWeight", weights.getIngredients(),
+                    "descriptionWeight", weights.getDescription(), "sourceWeight", weights.getSource()));
+        } else if (substringSearch) {
+            query.append(RecipeDAO.ORDER_BY_SUBSTRING_RANK, parameters("substring", substring));
+        } else {
+            query.append(RecipeDAO.ORDER_BY_TITLE);
+        }
+
+        return new SimpleSQLiteQuery(query.sql.toString(), query.args.toArray());
+    }
+
+    private static boolean hasCategoryCondition(RecipeFilter filter) {
+        return !filter.getCategoryIds().isEmpty() || filter.isUnassigned();
+    }
+
+    private void appendCategoryMatch(RecipeFilter filter) {
+        List<Long> categoryIds = new ArrayList<>(filter.getCategoryIds());
+        List<Runnable> conditions = new ArrayList<>();
+        if (!categoryIds.isEmpty() && filter.getCombination() == RecipeFilter.Combination.ALL) {
+            conditions.add(() -> append("recipes.recipeId IN (SELECT recipeId FROM recipes_with_categories WHERE categoryId IN (:categoryIds) GROUP BY recipeId HAVING COUNT(*) = :categoryCount)",
+                    parameters("categoryIds", categoryIds, "categoryCount", categoryIds.size())));
+        } else if (!categoryIds.isEmpty()) {
+            conditions.add(() -> append("recipes.recipeId IN (SELECT recipeId FROM recipes_with_categories WHERE categoryId IN (:categoryIds))", parameters("categoryIds", categoryIds)));
+        }
+        if (filter.isUnassigned()) {
+            conditions.add(() -> append(RecipeDAO.UNASSIGNED_MATCH));
+        }
+        appendJoined("(", filter.getCombination() == RecipeFilter.Combination.ALL ? " AND " : " OR ", conditions);
+        append(")");
+    }
+
+    private void appendSubstringMatch(String substring) {
+        List<String> trigrams = TrigramIndex.trigramsOfTerm(substring);
+        append(RecipeDAO.SUBSTRING_MATCH, parameters("trigrams", trigrams, "trigramCount", trigrams.size(), "substring", substring));
+    }
+
+    private void appendJoined(String prefix, String separator, List<Runnable> parts) {
+        for (int i = 0; i < parts.size(); i++) {
+            append(i == 0 ? prefix : separator);
+            parts.get(i).run();
+        }
+    }
+
+    private void append(String clause) {
+        append(clause, Collections.emptyMap());
+    }
+
+    // a collection gets one placeholder for every element
+    private void append(String clause, Map<String, Object> parameters) {
+        Matcher matcher = PARAMETER.matcher(clause);
+        int end = 0;
+        while (matcher.find()) {
+            sql.append(clause, end, matcher.start());
+            if (!parameters.containsKey(matcher.group(1))) {
+                throw new IllegalArgumentException("No value for parameter " + matcher.group());
+            }
+
+            Object value = parameters.get(matcher.group(1));
+            if (value instanceof Collection) {
+                Collection<?> values = (Collection<?>) value;
+                sql.append(String.join(", ", Collections.nCopies(values.size(), "?")));
+                args.addAll(values);
+            } else {
+                sql.append('?');
+                args.add(value);
+            }
+            end = matcher.end();
+        }
+        sql.append(clause, end, clause.length());
+    }
+
+    private static Map<String, Object> parameters(Object... namesAndValues) {
+        Map<String, Object> parameters = new HashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            parameters.put((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return parameters;
+    }
+
+}
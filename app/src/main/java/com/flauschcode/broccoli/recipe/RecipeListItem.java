@@ -0,0 +1,90 @@
+package com.flauschcode.broccoli.recipe;
+
+import java.util.Objects;
+
+// only what a row of the recipe list shows, the full recipe is loaded by id when needed
+public class RecipeListItem {
+
+    private long recipeId;
+    private String title = "";
+    private String description = "";
+    private String source = "";
+    private String imageName = "";
+    private boolean favorite;
+    private boolean seasonal;
+
+    public long getRecipeId() {
+        return recipeId;
+    }
+
+    public void setRecipeId(long recipeId) {
+        this.recipeId = recipeId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public String getImageName() {
+        return imageName;
+    }
+
+    public void setImageName(String imageName) {
+        this.imageName = imageName;
+    }
+
+    public boolean isFavorite() {
+        return favorite;
+    }
+
+    public void setFavorite(boolean favorite) {
+        this.favorite = favorite;
+    }
+
+    public boolean isSeasonal() {
+        return seasonal;
+    }
+
+    public void setSeasonal(boolean seasonal) {
+        this.seasonal = seasonal;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RecipeListItem that = (RecipeListItem) o;
+        return recipeId == that.recipeId &&
+                favorite == that.favorite &&
+                seasonal == that.seasonal &&
+                Objects.equals(title, that.title) &&
+                Objects.equals(description, that.description) &&
+                Objects.equals(source, that.source) &&
+                Objects.equals(imageName, that.imageName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(recipeId, title, description, source, imageName, favorite, seasonal);
+    }
+}
@@ -1,19 +1,38 @@
 package com.flauschcode.broccoli.recipe;
 
+import androidx.annotation.NonNull;
 import androidx.lifecycle.LiveData;
-import androidx.room.Transaction;
-
+import androidx.lifecycle.Transformations;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
+import androidx.paging.PagingSource;
+import androidx.room.InvalidationTracker;
+import androidx.sqlite.db.SupportSQLiteQuery;
+
+import com.flauschcode.broccoli.BroccoliDatabase;
 import com.flauschcode.broccoli.category.Category;
 import com.flauschcode.broccoli.category.CategoryRepository;
+import com.flauschcode.broccoli.concurrent.BroccoliExecutors;
 import com.flauschcode.broccoli.recipe.images.RecipeImageService;
-import com.flauschcode.broccoli.seasons.SeasonalCalendar;
-import com.flauschcode.broccoli.seasons.SeasonalCalendarHolder;
-
-import java.util.ArrayList;
-import java.util.Collection;
+import com.flauschcode.broccoli.recipe.ingredients.IngredientTable;
+import com.flauschcode.broccoli.recipe.search.FuzzyVocabulary;
+import com.flauschcode.broccoli.recipe.search.TrigramIndex;
+import com.flauschcode.broccoli.recipe.search.Trigrams;
+import com.flauschcode.broccoli.seasons.SeasonalFoodIndex;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
@@ -22,142 +41,273 @@ import javax.inject.Singleton;
 @Singleton
 public class RecipeRepository {
 
+    private static final int PAGE_SIZE = 30;
+    private static final PagingConfig PAGING_CONFIG = new PagingConfig(PAGE_SIZE, PAGE_SIZE, false);
+    private static final int BATCH_SIZE = 100;
+
+    private final BroccoliDatabase database;
     private final RecipeDAO recipeDAO;
     private final RecipeImageService recipeImageService;
-    private final SeasonalCalendarHolder seasonalCalendarHolder;
+    private final SeasonalFoodIndex seasonalFoodIndex;
     private final CategoryRepository categoryRepository;
+    private final BroccoliExecutors executors;
+    private final TrigramIndex trigramIndex;
+    private final FuzzyVocabulary fuzzyVocabulary;
+    private final IngredientTable ingredientTable;
+    private final ParsedRecipeCache parsedRecipeCache;
+    private final Map<Runnable, CompletableFuture<InvalidationTracker.Observer>> changeObservers = new ConcurrentHashMap<>();
 
     @Inject
-    RecipeRepository(RecipeDAO recipeDAO, RecipeImageService recipeImageService, SeasonalCalendarHolder seasonalCalendarHolder, CategoryRepository categoryRepository) {
+    RecipeRepository(BroccoliDatabase database, RecipeDAO recipeDAO, RecipeImageService recipeImageService, SeasonalFoodIndex seasonalFoodIndex, CategoryRepository categoryRepository, BroccoliExecutors executors, TrigramIndex trigramIndex, FuzzyVocabulary fuzzyVocabulary, IngredientTable ingredientTable, ParsedRecipeCache parsedRecipeCache) {
+        this.database = database;
         this.recipeDAO = recipeDAO;
         this.recipeImageService = recipeImageService;
-        this.seasonalCalendarHolder = seasonalCalendarHolder;
+        this.seasonalFoodIndex = seasonalFoodIndex;
         this.categoryRepository = categoryRepository;
+        this.executors = executors;
+        this.trigramIndex = trigramIndex;
+        this.fuzzyVocabulary = fuzzyVocabulary;
+        this.ingredientTable = ingredientTable;
+        this.parsedRecipeCache = parsedRecipeCache;
+    }
+
+    public LiveData<PagingData<RecipeListItem>> find(SearchCriteria criteria) {
+        Pager<Integer, RecipeListItem> pager = new Pager<>(PAGING_CONFIG, () -> createPagingSource(criteria));
+        return PagingLiveData.getLiveData(pager);
+    }
+
+    // package private for testing purposes
+    PagingSource<Integer, RecipeListItem> createPagingSource(SearchCriteria criteria) {
+        return recipeDAO.filter(compile(filterOf(criteria)));
     }
 
-    public LiveData<List<Recipe>> find(SearchCriteria criteria) {
+    // the seasonal food is chosen from the seasonal calendar regardless of the category
+    // package private for testing purposes
+    RecipeFilter filterOf(SearchCriteria criteria) {
+        RecipeFilter filter = new RecipeFilter();
+        filter.setSearchTerm(criteria.getSearchTerm());
+        filter.setSearchMode(criteria.getSearchMode());
+
         Category category = criteria.getCategory();
+        if (criteria.getSeasonalFood() != null) {
+            filter.setSeasonalFood(criteria.getSeasonalFood());
+        } else if (category.equals(categoryRepository.getFavoritesCategory())) {
+            filter.setFavorites(true);
+        } else if (category.equals(categoryRepository.getUnassignedRecipesCategory())) {
+            filter.setUnassigned(true);
+        } else if (category.equals(categoryRepository.getSeasonalRecipesCategory())) {
+            filter.setSeasonal(true);
+        } else if (!category.equals(categoryRepository.getAllRecipesCategory())) {
+            filter.setCategoryIds(Collections.singletonList(category.getCategoryId()));
+        }
+        return filter;
+    }
+
+    public LiveData<PagingData<RecipeListItem>> find(RecipeFilter filter) {
+        Pager<Integer, RecipeListItem> pager = new Pager<>(PAGING_CONFIG, () -> recipeDAO.filter(compile(filter)));
+        return PagingLiveData.getLiveData(pager);
+    }
+
+    // package private for testing purposes
+    SupportSQLiteQuery compile(RecipeFilter filter) {
+        String searchTerm = filter.getSearchTerm() == null ? "" : filter.getSearchTerm();
+        return RecipeFilterQuery.compile(filter, buildMatchQueryFor(searchTerm, filter.getSearchMode()), SeasonalFoodIndex.bitOf(LocalDate.now().getMonth()));
+    }
+
+    // a single query for all categories, categories without matches are missing
+    public LiveData<Map<Long, Integer>> countByCategory(SearchCriteria criteria) {
+        return Transformations.map(createCountQuery(criteria), categoryCounts -> {
+            Map<Long, Integer> counts = new HashMap<>();
+            categoryCounts.forEach(categoryCount -> counts.put(categoryCount.getCategoryId(), categoryCount.getRecipeCount()));
+            return counts;
+        });
+    }
+
+    private LiveData<List<CategoryCount>> createCountQuery(SearchCriteria criteria) {
         String searchTerm = criteria.getSearchTerm();
+        int currentMonth = SeasonalFoodIndex.bitOf(LocalDate.now().getMonth());
 
-        if (!criteria.getSeasonalTerms().isEmpty()) {
-            String wildcardQuery = String.format("%s*", searchTerm);
-            String seasonalTerm = buildQueryFor(criteria.getSeasonalTerms());
-            return "".equals(searchTerm)? recipeDAO.findSeasonal(seasonalTerm) : recipeDAO.searchForSeasonal(seasonalTerm, wildcardQuery);
+        if ("".equals(searchTerm)) {
+            return recipeDAO.countByCategory(currentMonth);
         }
 
-        if (category.equals(categoryRepository.getAllRecipesCategory()) || category.equals(categoryRepository.getFavoritesCategory())) {
-            List<Boolean> favoriteStates = getChosenFavoriteStates(category);
-            return "".equals(searchTerm)? findAll(favoriteStates) : searchFor(searchTerm, favoriteStates);
+        String substring = Trigrams.normalizeTerm(searchTerm);
+        if (criteria.getSearchMode() == SearchMode.SUBSTRING && Trigrams.canBeSearched(substring)) {
+            List<String> trigrams = TrigramIndex.trigramsOfTerm(substring);
+            return recipeDAO.countSubstringSearchResultsByCategory(trigrams, trigrams.size(), substring, currentMonth);
         }
 
-        if (category.equals(categoryRepository.getUnassignedRecipesCategory())) {
-            return "".equals(searchTerm)? findUnassigned() : searchForUnassigned(searchTerm);
+        return recipeDAO.countSearchResultsByCategory(buildMatchQueryFor(searchTerm, criteria.getSearchMode()), currentMonth);
+    }
+
+    // only looks at the search indexes, which is much cheaper than the ranked search
+    public CompletableFuture<Boolean> hasMatches(String searchTerm, SearchMode searchMode) {
+        String substring = Trigrams.normalizeTerm(searchTerm);
+        if (searchMode == SearchMode.SUBSTRING && Trigrams.canBeSearched(substring)) {
+            List<String> trigrams = TrigramIndex.trigramsOfTerm(substring);
+            return CompletableFuture.supplyAsync(() -> recipeDAO.hasSubstringMatches(trigrams, trigrams.size(), substring), executors.io());
         }
 
-        if (category.equals(categoryRepository.getSeasonalRecipesCategory())) {
-            return "".equals(searchTerm)? findSeasonal() : searchForSeasonal(searchTerm);
+        if (searchMode == SearchMode.FUZZY) {
+            return CompletableFuture.supplyAsync(() -> {
+                fuzzyVocabulary.load();
+                return recipeDAO.hasMatches(fuzzyVocabulary.expand(searchTerm));
+            }, executors.io());
         }
 
-        return "".equals(searchTerm)? filterBy(category) : filterByAndSearchFor(category, searchTerm);
+        String wildcardQuery = String.format("%s*", searchTerm);
+        return CompletableFuture.supplyAsync(() -> recipeDAO.hasMatches(wildcardQuery), executors.io());
     }
 
-    private LiveData<List<Recipe>> findAll(List<Boolean> favoritesList) {
-        return recipeDAO.findAll(favoritesList);
+    // the vocabulary is loaded by hasMatches, which the search view asks before it searches, so this does not block
+    private String buildMatchQueryFor(String searchTerm, SearchMode searchMode) {
+        if (searchMode == SearchMode.FUZZY && !"".equals(searchTerm)) {
+            return fuzzyVocabulary.expand(searchTerm);
+        }
+        return String.format("%s*", searchTerm);
     }
 
-    private LiveData<List<Recipe>> filterBy(Category category) {
-        return recipeDAO.filterBy(category.getCategoryId());
+    // the invalidation tracker may query the database while registering, so this happens in the background as well
+    public void addChangeListener(Runnable listener) {
+        InvalidationTracker.Observer observer = new InvalidationTracker.Observer("recipes") {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                listener.run();
+            }
+        };
+        changeObservers.put(listener, CompletableFuture.supplyAsync(() -> {
+            database.getInvalidationTracker().addObserver(observer);
+            return observer;
+        }, executors.io()));
     }
 
-    private LiveData<List<Recipe>> searchFor(String term, List<Boolean> favoritesList) {
-        String wildcardQuery = String.format("%s*", term);
-        return recipeDAO.searchFor(wildcardQuery, favoritesList);
+    public void removeChangeListener(Runnable listener) {
+        CompletableFuture<InvalidationTracker.Observer> registration = changeObservers.remove(listener);
+        if (registration != null) {
+            // an observer still being registered is removed right after
+            registration.thenAcceptAsync(observer -> database.getInvalidationTracker().removeObserver(observer), executors.io());
+        }
     }
 
-    private LiveData<List<Recipe>> filterByAndSearchFor(Category category, String term) {
-        String wildcardQuery = String.format("%s*", term);
-        return recipeDAO.filterByAndSearchFor(category.getCategoryId(), wildcardQuery);
+    public CompletableFuture<Optional<Recipe>> findById(long recipeId) {
+        return CompletableFuture.supplyAsync(() -> Optional.ofNullable(recipeDAO.findById(recipeId)), executors.io());
     }
 
-    private LiveData<List<Recipe>> findUnassigned() {
-        return recipeDAO.findUnassigned();
+    public CompletableFuture<Long> insertOrUpdate(Recipe recipe) {
+        return CompletableFuture.supplyAsync(() -> {
+            seasonalFoodIndex.awaitCalendar();
+            long recipeId = database.runInTransaction(() -> write(recipe));
+            addToVocabulary(recipe);
+            return recipeId;
+        }, executors.databaseWriter());
     }
 
-    private LiveData<List<Recipe>> searchForUnassigned(String term) {
-        String wildcardQuery = String.format("%s*", term);
-        return recipeDAO.searchForUnassigned(wildcardQuery);
+    // one transaction per chunk, every chunk is queued on its own so that other writes do not wait for the whole import
+    public CompletableFuture<Void> insertOrUpdateAll(List<Recipe> recipes) {
+        CompletableFuture<Void> written = CompletableFuture.completedFuture(null);
+        for (int start = 0; start < recipes.size(); start += BATCH_SIZE) {
+            List<Recipe> chunk = recipes.subList(start, Math.min(start + BATCH_SIZE, recipes.size()));
+            written = written.thenRunAsync(() -> {
+                seasonalFoodIndex.awaitCalendar();
+                database.runInTransaction(() -> chunk.forEach(this::write));
+                chunk.forEach(this::addToVocabulary);
+            }, executors.databaseWriter());
+        }
+        return written;
     }
 
-    private LiveData<List<Recipe>> findSeasonal() {
-        String seasonalSearchTerm = getSeasonalSearchTerm();
-        return recipeDAO.findSeasonal(seasonalSearchTerm);
+    // the trigrams, the parsed ingredients and the seasonal food are derived from the recipe and written in its transaction,
+    // all recipes are indexed by the static rebuild methods, which migrations can call without a DAO
+    private long write(Recipe recipe) {
+        if (recipe.getRecipeId() == 0) {
+            long recipeId = recipeDAO.insert(recipe.getCoreRecipe());
+            recipe.getCategories().forEach(category -> recipeDAO.insert(new RecipeCategoryAssociation(recipeId, category.getCategoryId())));
+            trigramIndex.index(recipeId, recipe.getTitle(), recipe.getIngredients());
+            ingredientTable.write(recipeId, recipe.getIngredients());
+            seasonalFoodIndex.index(recipeId, recipe.getIngredients());
+            return recipeId;
+        } else {
+            recipeDAO.update(recipe.getCoreRecipe());
+            syncCategories(recipe);
+            trigramIndex.index(recipe.getRecipeId(), recipe.getTitle(), recipe.getIngredients());
+            ingredientTable.write(recipe.getRecipeId(), recipe.getIngredients());
+            seasonalFoodIndex.index(recipe.getRecipeId(), recipe.getIngredients());
+            parsedRecipeCache.invalidate(recipe.getRecipeId());
+            return recipe.getRecipeId();
+        }
     }
 
-    private LiveData<List<Recipe>> searchForSeasonal(String term) {
-        String wildcardQuery = String.format("%s*", term);
-        String seasonalSearchTerm = getSeasonalSearchTerm();
-        return recipeDAO.searchForSeasonal(seasonalSearchTerm, wildcardQuery);
+    // the vocabulary is only updated after the commit, it must never be locked while the transaction is open
+    private void addToVocabulary(Recipe recipe) {
+        fuzzyVocabulary.add(recipe.getTitle(), recipe.getDescription(), recipe.getSource(), recipe.getIngredients());
     }
 
-    private String getSeasonalSearchTerm() {
-        Optional<SeasonalCalendar> seasonalCalendarOptional = seasonalCalendarHolder.get();
-        if (seasonalCalendarOptional.isPresent()) {
-            SeasonalCalendar seasonalCalendar = seasonalCalendarOptional.get();
-            return buildQueryFor(seasonalCalendar.getSearchTermsForCurrentMonth());
-        }
-        return "";
+    public CompletableFuture<Void> updateFavorite(Recipe recipe) {
+        return CompletableFuture.runAsync(() -> recipeDAO.updateFavorite(recipe.getRecipeId(), recipe.isFavorite()), executors.databaseWriter());
     }
 
-    private String buildQueryFor(Collection<String> seasonalTerms) {
-        return seasonalTerms.stream().map(term -> "\"" + term + "\"").collect(Collectors.joining(" OR "));
+    public CompletableFuture<Void> updateImageName(Recipe recipe) {
+        return CompletableFuture.runAsync(() -> recipeDAO.updateImageName(recipe.getRecipeId(), recipe.getImageName()), executors.databaseWriter());
     }
 
-    private List<Boolean> getChosenFavoriteStates(Category category) {
-        List<Boolean> favoriteStates = new ArrayList<>();
-        favoriteStates.add(Boolean.TRUE);
-        if (!category.equals(categoryRepository.getFavoritesCategory())) {
-            favoriteStates.add(Boolean.FALSE);
-        }
-        return favoriteStates;
+    public CompletableFuture<Void> updateCategories(Recipe recipe) {
+        return CompletableFuture.runAsync(() -> database.runInTransaction(() -> syncCategories(recipe)), executors.databaseWriter());
     }
 
-    @Transaction
-    public CompletableFuture<Long> insertOrUpdate(Recipe recipe) {
-        return CompletableFuture.supplyAsync(() -> {
-            if (recipe.getRecipeId() == 0) {
-                long recipeId = recipeDAO.insert(recipe.getCoreRecipe());
-                recipe.getCategories().forEach(category -> recipeDAO.insert(new RecipeCategoryAssociation(recipeId, category.getCategoryId())));
-                return recipeId;
+    private void syncCategories(Recipe recipe) {
+        Set<Long> chosenCategoryIds = recipe.getCategories().stream().map(Category::getCategoryId).collect(Collectors.toSet());
+        Set<Long> storedCategoryIds = new HashSet<>();
+
+        recipeDAO.getCategoriesFor(recipe.getRecipeId()).forEach(association -> {
+            if (chosenCategoryIds.contains(association.getCategoryId())) {
+                storedCategoryIds.add(association.getCategoryId());
             } else {
-                recipeDAO.update(recipe.getCoreRecipe());
-                List<RecipeCategoryAssociation> recipeCategoryAssociations = recipeDAO.getCategoriesFor(recipe.getRecipeId());
-                recipeCategoryAssociations.forEach(recipeDAO::delete);
-                recipe.getCategories().forEach(category -> recipeDAO.insert(new RecipeCategoryAssociation(recipe.getRecipeId(), category.getCategoryId())));
-                return recipe.getRecipeId();
+                recipeDAO.delete(association);
             }
         });
+
+        chosenCategoryIds.stream()
+                .filter(categoryId -> !storedCategoryIds.contains(categoryId))
+                .forEach(categoryId -> recipeDAO.insert(new RecipeCategoryAssociation(recipe.getRecipeId(), categoryId)));
     }
 
     public CompletableFuture<Void> delete(Recipe recipe) {
+        parsedRecipeCache.invalidate(recipe.getRecipeId());
         return CompletableFuture.allOf(
                 recipeImageService.deleteImage(recipe.getImageName()),
-                CompletableFuture.runAsync(() -> recipeDAO.delete(recipe.getCoreRecipe()))
+                CompletableFuture.runAsync(() -> recipeDAO.delete(recipe.getCoreRecipe()), executors.databaseWriter())
         );
     }
 
-    public CompletableFuture<List<Recipe>> findAll() {
-        return CompletableFuture.supplyAsync(recipeDAO::findAll);
+    public CompletableFuture<List<Recipe>> findPageAfter(long recipeId, int pageSize) {
+        return CompletableFuture.supplyAsync(() -> recipeDAO.findPageAfter(recipeId, pageSize), executors.io());
+    }
+
+    public LiveData<Map<String, Integer>> countRecipesBySeasonalFood() {
+        return seasonalFoodIndex.getRecipeCounts();
+    }
+
+    public CompletableFuture<Integer> count() {
+        return CompletableFuture.supplyAsync(recipeDAO::count, executors.io());
+    }
+
+    public enum SearchMode {
+        PREFIX,
+        SUBSTRING,
+        FUZZY
     }
 
     public static class SearchCriteria {
         private Category category;
         private String searchTerm;
-        private List<String> seasonalTerms;
+        private String seasonalFood;
+        private SearchMode searchMode = SearchMode.PREFIX;
 
-        public SearchCriteria(Category category, String searchTerm, List<String> seasonalTerms) {
+        // the seasonal food is a resource name, or null to not filter by seasonal food
+        public SearchCriteria(Category category, String searchTerm, String seasonalFood) {
             this.category = category;
             this.searchTerm = searchTerm;
-            this.seasonalTerms = seasonalTerms;
+            this.seasonalFood = seasonalFood;
         }
 
         public Category getCategory() {
@@ -168,8 +318,12 @@ public class RecipeRepository {
             return searchTerm;
         }
 
-        public List<String> getSeasonalTerms() {
-            return seasonalTerms;
+        public String getSeasonalFood() {
+            return seasonalFood;
+        }
+
+        public SearchMode getSearchMode() {
+            return searchMode;
         }
 
         public void setCategory(Category category) {
@@ -180,8 +334,28 @@ public class RecipeRepository {
             this.searchTerm = searchTerm;
         }
 
-        public void setSeasonalTerms(List<String> seasonalTerms) {
-            this.seasonalTerms = seasonalTerms;
+        public void setSeasonalFood(String seasonalFood) {
+            this.seasonalFood = seasonalFood;
+        }
+
+        public void setSearchMode(SearchMode searchMode) {
+            this.searchMode = searchMode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            SearchCriteria that = (SearchCriteria) o;
+            return Objects.equals(category, that.category) &&
+                    Objects.equals(searchTerm, that.searchTerm) &&
+                    Objects.equals(seasonalFood, that.seasonalFood) &&
+                    searchMode == that.searchMode;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(category, searchTerm, seasonalFood, searchMode);
         }
     }
 
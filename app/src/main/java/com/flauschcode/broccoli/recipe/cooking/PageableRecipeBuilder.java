@@ -3,12 +3,15 @@ package com.flauschcode.broccoli.recipe.cooking;
 import android.app.Application;
 
 import com.flauschcode.broccoli.R;
+import com.flauschcode.broccoli.recipe.ParsedRecipeCache;
 import com.flauschcode.broccoli.recipe.Recipe;
 import com.flauschcode.broccoli.recipe.directions.Direction;
-import com.flauschcode.broccoli.recipe.directions.DirectionBuilder;
 import com.flauschcode.broccoli.recipe.ingredients.Ingredient;
-import com.flauschcode.broccoli.recipe.ingredients.IngredientBuilder;
+import com.flauschcode.broccoli.recipe.ingredients.Quantity;
+import com.flauschcode.broccoli.recipe.ingredients.Rational;
 import com.flauschcode.broccoli.recipe.ingredients.ScaledQuantityBuilder;
+import com.flauschcode.broccoli.recipe.ingredients.UnitConverter;
+import com.flauschcode.broccoli.recipe.ingredients.UnitConverter.UnitSystem;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -21,13 +24,17 @@ public class PageableRecipeBuilder {
 
     private final Application application;
     private final ScaledQuantityBuilder scaledQuantityBuilder;
+    private final ParsedRecipeCache parsedRecipeCache;
+    private final UnitConverter unitConverter;
 
     private float scaleFactor = MINUS_ONE;
 
     @Inject
-    PageableRecipeBuilder(Application application, ScaledQuantityBuilder scaledQuantityBuilder) {
+    PageableRecipeBuilder(Application application, ScaledQuantityBuilder scaledQuantityBuilder, ParsedRecipeCache parsedRecipeCache, UnitConverter unitConverter) {
         this.application = application;
         this.scaledQuantityBuilder = scaledQuantityBuilder;
+        this.parsedRecipeCache = parsedRecipeCache;
+        this.unitConverter = unitConverter;
     }
 
     public PageableRecipeBuilder scale(float scaleFactor) {
@@ -36,6 +43,12 @@ public class PageableRecipeBuilder {
     }
 
     public PageableRecipe from(Recipe recipe) {
+        float currentScaleFactor = scaleFactor;
+        UnitSystem unitSystem = unitConverter.getPreferredUnitSystem();
+        return parsedRecipeCache.getPages(recipe, currentScaleFactor, unitSystem, () -> build(recipe, currentScaleFactor, unitSystem));
+    }
+
+    private PageableRecipe build(Recipe recipe, float scaleFactor, UnitSystem unitSystem) {
         PageableRecipe pageableRecipe = new PageableRecipe();
 
         if ("".equals(recipe.getIngredients()) && "".equals(recipe.getDirections())) {
@@ -43,17 +56,25 @@ public class PageableRecipeBuilder {
             return pageableRecipe;
         }
 
-        List<Ingredient> ingredients = IngredientBuilder.from(recipe.getIngredients());
-
-        if (scaleFactor != MINUS_ONE) {
-            ingredients.forEach(ingredient -> ingredient.setQuantity(scaledQuantityBuilder.from(ingredient.getQuantity(), scaleFactor)));
+        List<Ingredient> ingredients = parsedRecipeCache.getIngredients(recipe);
+
+        boolean scaled = scaleFactor != MINUS_ONE;
+        if (scaled || unitSystem != UnitSystem.AS_WRITTEN) {
+            Rational exactScaleFactor = scaled ? Rational.valueOf(scaleFactor) : Rational.ONE;
+            List<Quantity> quantities = parsedRecipeCache.getQuantities(recipe);
+            for (int i = 0; i < ingredients.size(); i++) {
+                Ingredient ingredient = ingredients.get(i);
+                if (!unitConverter.convert(ingredient, quantities.get(i), exactScaleFactor, unitSystem) && scaled) {
+                    ingredient.setQuantity(scaledQuantityBuilder.from(quantities.get(i), exactScaleFactor));
+                }
+            }
         }
 
         if (!ingredients.isEmpty()) {
             pageableRecipe.addPage(new PageableRecipe.Page(getIngredientsString(), ingredients.stream().map(ingredient -> ingredient.getQuantity() + ingredient.getText()).collect(Collectors.joining("\n"))));
         }
 
-        List<Direction> directions = DirectionBuilder.from(recipe.getDirections());
+        List<Direction> directions = parsedRecipeCache.getDirections(recipe);
         directions.forEach(direction -> pageableRecipe.addPage(new PageableRecipe.Page(String.valueOf(direction.getPosition()), direction.getText())));
 
         return pageableRecipe;
@@ -7,12 +7,16 @@ import androidx.lifecycle.ViewModel;
 
 import com.flauschcode.broccoli.category.Category;
 import com.flauschcode.broccoli.category.CategoryRepository;
+import com.flauschcode.broccoli.recipe.CoreRecipe;
 import com.flauschcode.broccoli.recipe.images.RecipeImageService;
 import com.flauschcode.broccoli.recipe.Recipe;
 import com.flauschcode.broccoli.recipe.RecipeRepository;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 
 import javax.inject.Inject;
@@ -27,6 +31,8 @@ public class CreateAndEditRecipeViewModel extends ViewModel {
     private boolean isFinishedBySaving = false;
     private String newImageName;
     private String oldImageName;
+    private CoreRecipe storedCoreRecipe;
+    private List<Category> storedCategories;
 
     @Inject
     CreateAndEditRecipeViewModel(RecipeRepository recipeRepository, RecipeImageService recipeImageService, CategoryRepository categoryRepository) {
@@ -50,6 +56,10 @@ public class CreateAndEditRecipeViewModel extends ViewModel {
 
     public void setRecipe(Recipe recipe) {
         this.recipe = recipe;
+        // the first stored recipe that is set is the one loaded from the database, later ones are the restored edits of it
+        if (storedCoreRecipe == null && recipe.getRecipeId() != 0) {
+            rememberStoredState(recipe);
+        }
     }
 
     public void setNewImageName(String newImageName) {
@@ -105,7 +115,53 @@ public class CreateAndEditRecipeViewModel extends ViewModel {
         return CompletableFuture.completedFuture(true)
                 .thenCompose(result -> oldImageName != null? recipeImageService.deleteImage(oldImageName) : CompletableFuture.completedFuture(result))
                 .thenCompose(result -> newImageName != null? recipeImageService.moveImage(newImageName) : CompletableFuture.completedFuture(null))
-                .thenCompose(v -> recipeRepository.insertOrUpdate(recipe));
+                .thenCompose(v -> write(recipe));
+    }
+
+    // a stored recipe whose text has not been edited is not written as a whole, so that it is not reindexed
+    private CompletableFuture<Long> write(Recipe recipe) {
+        if (storedCoreRecipe == null) {
+            return recipeRepository.insertOrUpdate(recipe);
+        }
+
+        CoreRecipe withEditedImageName = copyOf(storedCoreRecipe);
+        withEditedImageName.setImageName(recipe.getImageName());
+        if (!withEditedImageName.equals(recipe.getCoreRecipe())) {
+            return recipeRepository.insertOrUpdate(recipe).thenApply(recipeId -> {
+                rememberStoredState(recipe);
+                return recipeId;
+            });
+        }
+
+        boolean imageNameChanged = !Objects.equals(storedCoreRecipe.getImageName(), recipe.getImageName());
+        boolean categoriesChanged = !new HashSet<>(storedCategories).equals(new HashSet<>(recipe.getCategories()));
+        return CompletableFuture.completedFuture((Void) null)
+                .thenCompose(v -> imageNameChanged ? recipeRepository.updateImageName(recipe) : CompletableFuture.completedFuture(v))
+                .thenCompose(v -> categoriesChanged ? recipeRepository.updateCategories(recipe) : CompletableFuture.completedFuture(v))
+                .thenApply(v -> {
+                    rememberStoredState(recipe);
+                    return recipe.getRecipeId();
+                });
+    }
+
+    private void rememberStoredState(Recipe recipe) {
+        storedCoreRecipe = copyOf(recipe.getCoreRecipe());
+        storedCategories = new ArrayList<>(recipe.getCategories());
+    }
+
+    private CoreRecipe copyOf(CoreRecipe coreRecipe) {
+        CoreRecipe copy = new CoreRecipe();
+        copy.setRecipeId(coreRecipe.getRecipeId());
+        copy.setTitle(coreRecipe.getTitle());
+        copy.setImageName(coreRecipe.getImageName());
+        copy.setDescription(coreRecipe.getDescription());
+        copy.setServings(coreRecipe.getServings());
+        copy.setPreparationTime(coreRecipe.getPreparationTime());
+        copy.setSource(coreRecipe.getSource());
+        copy.setIngredients(coreRecipe.getIngredients());
+        copy.setDirections(coreRecipe.getDirections());
+        copy.setFavorite(coreRecipe.isFavorite());
+        return copy;
     }
 
     void confirmFinishedBySaving() {
@@ -1,7 +1,6 @@
 package com.flauschcode.broccoli.recipe.details;
 
 import android.app.Activity;
-import android.content.Context;
 import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.content.pm.ResolveInfo;
@@ -13,11 +12,9 @@ import android.text.TextPaint;
 import android.text.method.LinkMovementMethod;
 import android.text.style.ClickableSpan;
 import android.util.Log;
-import android.view.LayoutInflater;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.view.View;
-import android.widget.LinearLayout;
 import android.widget.TextView;
 import android.widget.Toast;
 
@@ -37,12 +34,10 @@ import com.flauschcode.broccoli.BroccoliApplication;
 import com.flauschcode.broccoli.R;
 import com.flauschcode.broccoli.category.Category;
 import com.flauschcode.broccoli.databinding.ActivityRecipeDetailsBinding;
-import com.flauschcode.broccoli.databinding.DirectionItemBinding;
 import com.flauschcode.broccoli.recipe.Recipe;
 import com.flauschcode.broccoli.recipe.RecipeRepository;
 import com.flauschcode.broccoli.recipe.cooking.CookingAssistantActivity;
 import com.flauschcode.broccoli.recipe.crud.CreateAndEditRecipeActivity;
-import com.flauschcode.broccoli.recipe.directions.DirectionBuilder;
 import com.flauschcode.broccoli.recipe.sharing.ShareRecipeAsFileService;
 import com.flauschcode.broccoli.recipe.sharing.ShareableRecipe;
 import com.flauschcode.broccoli.recipe.sharing.ShareableRecipeBuilder;
@@ -62,6 +57,9 @@ import dagger.android.AndroidInjection;
 
 public class RecipeDetailsActivity extends AppCompatActivity {
 
+    // the recipe is loaded by its id if it is not passed as a whole
+    public static final String RECIPE_ID = "recipeId";
+
     @Inject
     RecipeRepository recipeRepository;
 
@@ -98,7 +96,13 @@ public class RecipeDetailsActivity extends AppCompatActivity {
         binding.toolbar.setNavigationOnClickListener(v -> finish());
 
         Recipe recipe = (Recipe) getIntent().getSerializableExtra(Recipe.class.getName());
-        binding.setRecipe(recipe);
+        if (recipe != null) {
+            binding.setRecipe(recipe);
+        } else {
+            // bind an empty recipe until the full one is loaded so that the binding adapters never see null
+            binding.setRecipe(new Recipe());
+            loadRecipe(getIntent().getLongExtra(RECIPE_ID, 0));
+        }
 
         binding.fabCookingAssistant.setOnClickListener(view -> this.cook(null));
 
@@ -113,7 +117,7 @@ public class RecipeDetailsActivity extends AppCompatActivity {
                     scrollRange = appBarLayout.getTotalScrollRange();
                 }
                 if (scrollRange + verticalOffset == 0) {
-                    binding.toolbarLayout.setTitle(recipe.getTitle());
+                    binding.toolbarLayout.setTitle(binding.getRecipe().getTitle());
                     isShow = true;
                 } else if(isShow) {
                     binding.toolbarLayout.setTitle(" ");
@@ -127,11 +131,30 @@ public class RecipeDetailsActivity extends AppCompatActivity {
         }
     }
 
+    private void loadRecipe(long recipeId) {
+        recipeRepository.findById(recipeId).thenAccept(optionalRecipe -> runOnUiThread(() -> {
+            if (!optionalRecipe.isPresent()) {
+                finish();
+                return;
+            }
+            binding.setRecipe(optionalRecipe.get());
+            invalidateOptionsMenu();
+        }));
+    }
+
+    private boolean isRecipeLoaded() {
+        return binding.getRecipe().getRecipeId() != 0;
+    }
+
     @Override
     public boolean onCreateOptionsMenu(Menu menu) {
         getMenuInflater().inflate(R.menu.details, menu);
         this.menu = menu;
 
+        if (!isRecipeLoaded()) {
+            return true;
+        }
+
         MenuItem item = binding.getRecipe().isFavorite()? menu.findItem(R.id.action_details_unlike) : menu.findItem(R.id.action_details_like);
         item.setVisible(true);
 
@@ -178,6 +201,10 @@ public class RecipeDetailsActivity extends AppCompatActivity {
             });
 
     public void cook(MenuItem menuItem) {
+        if (!isRecipeLoaded()) {
+            return;
+        }
+
         Intent intent = new Intent(getApplicationContext(), CookingAssistantActivity.class);
         intent.putExtra(Recipe.class.getName(), binding.getRecipe());
         cookingAssistantResultLauncher.launch(intent);
@@ -185,7 +212,7 @@ public class RecipeDetailsActivity extends AppCompatActivity {
 
     public void toggleFavorite(MenuItem item) {
         binding.getRecipe().setFavorite(!binding.getRecipe().isFavorite());
-        recipeRepository.insertOrUpdate(binding.getRecipe()).thenRun(() -> runOnUiThread(() -> {
+        recipeRepository.updateFavorite(binding.getRecipe()).thenRun(() -> runOnUiThread(() -> {
             item.setVisible(false);
             MenuItem newItem = binding.getRecipe().isFavorite()? menu.findItem(R.id.action_details_unlike) : menu.findItem(R.id.action_details_like);
             newItem.setVisible(true);
@@ -276,18 +303,6 @@ public class RecipeDetailsActivity extends AppCompatActivity {
         textView.setText(joinedCategories);
     }
 
-    @BindingAdapter("directions")
-    public static void bindDirections(LinearLayout layout, String directions) {
-        layout.removeAllViews();
-
-        LayoutInflater inflater = getLayoutInflater(layout);
-
-        DirectionBuilder.from(directions).forEach(direction -> {
-            DirectionItemBinding binding = DataBindingUtil.inflate(inflater, R.layout.direction_item, layout, true);
-            binding.setDirection(direction);
-        });
-    }
-
     @BindingAdapter("disableCollapsingScroll")
     public static void bindDisableCollapsingScroll(AppBarLayout appBarLayout, boolean disabled) {
         CoordinatorLayout.LayoutParams params = (CoordinatorLayout.LayoutParams) appBarLayout.getLayoutParams();
@@ -305,9 +320,4 @@ public class RecipeDetailsActivity extends AppCompatActivity {
         });
     }
 
-
-    private static LayoutInflater getLayoutInflater(LinearLayout layout) {
-        return (LayoutInflater) layout.getContext().getSystemService(Context.LAYOUT_INFLATER_SERVICE);
-    }
-
 }
@@ -9,6 +9,7 @@ import java.util.stream.IntStream;
 public class DirectionBuilder {
 
     private static final Pattern newLinePattern = Pattern.compile("\n");
+    private static final Pattern positionPattern = Pattern.compile("^\\s*(\\d+\\.)(?!$)");
 
     private DirectionBuilder() {}
 
@@ -19,7 +20,7 @@ public class DirectionBuilder {
         }
 
         String[] split = newLinePattern.splitAsStream(directions)
-                .map(s -> s.replaceFirst("^\\s*(\\d+\\.)(?!$)", ""))
+                .map(s -> positionPattern.matcher(s).replaceFirst(""))
                 .map(String::trim)
                 .filter(s -> !s.isEmpty())
                 .toArray(String[]::new);
@@ -0,0 +1,42 @@
+package com.flauschcode.broccoli.recipe.directions;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.widget.LinearLayout;
+
+import androidx.databinding.BindingAdapter;
+import androidx.databinding.DataBindingUtil;
+
+import com.flauschcode.broccoli.R;
+import com.flauschcode.broccoli.databinding.DirectionItemBinding;
+import com.flauschcode.broccoli.recipe.ParsedRecipeCache;
+import com.flauschcode.broccoli.recipe.Recipe;
+
+import javax.inject.Inject;
+
+public class DirectionsBindingAdapter {
+
+    private final ParsedRecipeCache parsedRecipeCache;
+
+    @Inject
+    public DirectionsBindingAdapter(ParsedRecipeCache parsedRecipeCache) {
+        this.parsedRecipeCache = parsedRecipeCache;
+    }
+
+    @BindingAdapter("directions")
+    public void bindDirections(LinearLayout layout, Recipe recipe) {
+        layout.removeAllViews();
+
+        LayoutInflater inflater = getLayoutInflater(layout);
+
+        parsedRecipeCache.getDirections(recipe).forEach(direction -> {
+            DirectionItemBinding binding = DataBindingUtil.inflate(inflater, R.layout.direction_item, layout, true);
+            binding.setDirection(direction);
+        });
+    }
+
+    private LayoutInflater getLayoutInflater(LinearLayout layout) {
+        return (LayoutInflater) layout.getContext().getSystemService(Context.LAYOUT_INFLATER_SERVICE);
+    }
+
+}
@@ -22,8 +22,8 @@ public class ImageBindingAdapter {
         this.recipeImageService = recipeImageService;
     }
 
-    @BindingAdapter(value = {"imageName", "placeholder"}, requireAll = false)
-    public void bind(ImageView imageView, String imageName, Drawable placeholder) {
+    @BindingAdapter(value = {"imageName", "placeholder", "imageRendition"}, requireAll = false)
+    public void bind(ImageView imageView, String imageName, Drawable placeholder, ImageRendition rendition) {
         if (isEmpty(imageName) && placeholder == null) {
             Glide.with(imageView)
                     .clear(imageView);
@@ -36,7 +36,7 @@ public class ImageBindingAdapter {
         }
 
         Glide.with(imageView)
-                .load(recipeImageService.findImage(imageName))
+                .load(recipeImageService.findImage(imageName, rendition == null? ImageRendition.ORIGINAL : rendition))
                 .error(R.drawable.placeholder)
                 .centerCrop()
                 .into(imageView);
@@ -0,0 +1,26 @@
+package com.flauschcode.broccoli.recipe.images;
+
+// the bounds refer to the longer side, originals are already compressed to at most 816 pixels
+public enum ImageRendition {
+
+    // list rows are 120dp high on phones and 190dp on tablets, which is 360px on xxhdpi phones and 380px on xhdpi tablets
+    THUMBNAIL("thumbnails", 384),
+    ORIGINAL("", 0);
+
+    private final String directoryName;
+    private final int maxSize;
+
+    ImageRendition(String directoryName, int maxSize) {
+        this.directoryName = directoryName;
+        this.maxSize = maxSize;
+    }
+
+    String getDirectoryName() {
+        return directoryName;
+    }
+
+    int getMaxSize() {
+        return maxSize;
+    }
+
+}
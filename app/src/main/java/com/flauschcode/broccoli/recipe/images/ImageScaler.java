@@ -0,0 +1,61 @@
+package com.flauschcode.broccoli.recipe.images;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+
+import com.flauschcode.broccoli.FileUtils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import javax.inject.Inject;
+
+class ImageScaler {
+
+    private static final int QUALITY = 80;
+
+    @Inject
+    ImageScaler() {}
+
+    // images that are already small enough are copied as they are
+    void scale(File source, File target, int maxSize) throws IOException {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(source.getAbsolutePath(), options);
+        int longerSide = Math.max(options.outWidth, options.outHeight);
+        if (longerSide <= 0) {
+            throw new IOException("Could not decode image " + source.getName());
+        }
+
+        if (longerSide <= maxSize) {
+            FileUtils.copy(source, target);
+            return;
+        }
+
+        // decoding a power of two smaller keeps memory low, the exact size is reached by scaling afterwards
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = 1;
+        while (longerSide / (options.inSampleSize * 2) >= maxSize) {
+            options.inSampleSize *= 2;
+        }
+
+        Bitmap sampled = BitmapFactory.decodeFile(source.getAbsolutePath(), options);
+        if (sampled == null) {
+            throw new IOException("Could not decode image " + source.getName());
+        }
+
+        float factor = (float) maxSize / Math.max(sampled.getWidth(), sampled.getHeight());
+        Bitmap scaled = Bitmap.createScaledBitmap(sampled, Math.max(1, Math.round(sampled.getWidth() * factor)), Math.max(1, Math.round(sampled.getHeight() * factor)), true);
+
+        try (FileOutputStream fos = new FileOutputStream(target)) {
+            scaled.compress(Bitmap.CompressFormat.JPEG, QUALITY, fos);
+        } finally {
+            if (scaled != sampled) {
+                scaled.recycle();
+            }
+            sampled.recycle();
+        }
+    }
+
+}
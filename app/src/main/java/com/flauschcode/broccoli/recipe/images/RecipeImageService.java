@@ -3,10 +3,12 @@ package com.flauschcode.broccoli.recipe.images;
 import android.app.Application;
 import android.net.Uri;
 import android.os.Environment;
+import android.util.Log;
 
 import androidx.core.content.FileProvider;
 
 import com.flauschcode.broccoli.FileUtils;
+import com.flauschcode.broccoli.concurrent.BroccoliExecutors;
 
 import java.io.File;
 import java.io.IOException;
@@ -15,8 +17,10 @@ import java.net.URL;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Locale;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.inject.Inject;
 
@@ -25,14 +29,24 @@ import id.zelory.compressor.Compressor;
 public class RecipeImageService {
 
     private static final String AUTHORITY = "com.flauschcode.broccoli.fileprovider";
+    private static final String STAGING_DIRECTORY = "staged";
+
+    // images compressed by this app stay well below this, so anything larger did not come from here and is compressed again
+    static final long IMAGE_SIZE_BUDGET = 512 * 1024;
 
     private Application application;
     private Compressor compressor;
+    private ImageScaler imageScaler;
+    private BroccoliExecutors executors;
+
+    private final Set<String> pendingRenditions = ConcurrentHashMap.newKeySet();
 
     @Inject
-    public RecipeImageService(Application application, Compressor compressor) {
+    public RecipeImageService(Application application, Compressor compressor, ImageScaler imageScaler, BroccoliExecutors executors) {
         this.application = application;
         this.compressor = compressor;
+        this.imageScaler = imageScaler;
+        this.executors = executors;
     }
 
     public Uri createTemporaryImage() throws IOException {
@@ -53,7 +67,81 @@ public class RecipeImageService {
             } catch (IOException e) {
                 throw new CompletionException(e);
             }
-        });
+
+            createRenditions(savedImage);
+        }, executors.cpu());
+    }
+
+    // renamed if the cache is on the same file system, only compressed again if it exceeds the size budget
+    public CompletableFuture<Void> moveCompressedImage(String imageName) {
+        return CompletableFuture.runAsync(() -> {
+            File savedImage = getSavedImage(imageName);
+            File temporaryImage = getTemporaryImage(imageName);
+
+            try {
+                if (temporaryImage.length() > IMAGE_SIZE_BUDGET) {
+                    File compressedTemporaryFile = compressor.compressToFile(temporaryImage);
+                    FileUtils.copy(compressedTemporaryFile, savedImage);
+                    temporaryImage.delete();
+                    compressedTemporaryFile.delete();
+                } else if (!temporaryImage.renameTo(savedImage)) {
+                    FileUtils.copy(temporaryImage, savedImage);
+                    temporaryImage.delete();
+                }
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+
+            createRenditions(savedImage);
+        }, executors.cpu());
+    }
+
+    // the staged image is moved into the pictures by moveStagedImage or dropped by deleteStagedImage
+    public String stageCompressedImage(InputStream inputStream) throws IOException {
+        File stagingDirectory = getStagingDirectory();
+        if (!stagingDirectory.exists() && !stagingDirectory.mkdirs()) {
+            throw new IOException("Could not create the staging directory.");
+        }
+        File stagedImage = File.createTempFile(createImageFileNamePrefix(), ".jpg", stagingDirectory);
+
+        try {
+            FileUtils.copy(inputStream, stagedImage);
+            if (stagedImage.length() > IMAGE_SIZE_BUDGET) {
+                File compressedTemporaryFile = compressor.compressToFile(stagedImage);
+                FileUtils.copy(compressedTemporaryFile, stagedImage);
+                compressedTemporaryFile.delete();
+            }
+        } catch (IOException e) {
+            stagedImage.delete();
+            throw e;
+        }
+
+        return stagedImage.getName();
+    }
+
+    public CompletableFuture<Void> moveStagedImage(String imageName) {
+        return CompletableFuture.runAsync(() -> {
+            File savedImage = getSavedImage(imageName);
+            File stagedImage = getStagedImage(imageName);
+
+            try {
+                if (!stagedImage.renameTo(savedImage)) {
+                    FileUtils.copy(stagedImage, savedImage);
+                    stagedImage.delete();
+                }
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+
+            createRenditions(savedImage);
+        }, executors.cpu());
+    }
+
+    public CompletableFuture<Boolean> deleteStagedImage(String imageName) {
+        return CompletableFuture.supplyAsync(() -> {
+            File image = getStagedImage(imageName);
+            return image.delete();
+        }, executors.io());
     }
 
     public CompletableFuture<String> copyImage(Uri pickedImage) {
@@ -66,21 +154,26 @@ public class RecipeImageService {
             } catch (IOException e) {
                 throw new CompletionException(e);
             }
-        });
+        }, executors.io());
     }
 
     public CompletableFuture<Boolean> deleteTemporaryImage(String imageName) {
         return CompletableFuture.supplyAsync(() -> {
             File image = getTemporaryImage(imageName);
             return image.delete();
-        });
+        }, executors.io());
     }
 
     public CompletableFuture<Boolean> deleteImage(String imageName) {
         return CompletableFuture.supplyAsync(() -> {
+            for (ImageRendition rendition : ImageRendition.values()) {
+                if (rendition != ImageRendition.ORIGINAL) {
+                    getRendition(imageName, rendition).delete();
+                }
+            }
             File image = findImage(imageName);
             return image.delete();
-        });
+        }, executors.io());
     }
 
     public Uri getUri(String imageName) {
@@ -104,11 +197,34 @@ public class RecipeImageService {
         return getTemporaryImage(imageName);
     }
 
+    // images saved before there were renditions get them in the background, until then the original is returned
+    public File findImage(String imageName, ImageRendition rendition) {
+        if (rendition == ImageRendition.ORIGINAL) {
+            return findImage(imageName);
+        }
+
+        File renditionFile = getRendition(imageName, rendition);
+        if (renditionFile.exists()) {
+            return renditionFile;
+        }
+
+        File savedImage = getSavedImage(imageName);
+        if (savedImage.exists() && pendingRenditions.add(renditionFile.getPath())) {
+            CompletableFuture.runAsync(() -> createRendition(savedImage, rendition), executors.cpu())
+                    .whenComplete((result, throwable) -> pendingRenditions.remove(renditionFile.getPath()));
+        }
+
+        return findImage(imageName);
+    }
+
     public File createTemporaryImageFileInCache() throws IOException {
-        String timeStamp = new SimpleDateFormat("yyyyMMdd_HHmmss", Locale.US).format(new Date());
-        String imageFileName = "JPEG_" + timeStamp + "_";
         File cacheDirectory = getCacheDirectory();
-        return File.createTempFile(imageFileName, ".jpg", cacheDirectory);
+        return File.createTempFile(createImageFileNamePrefix(), ".jpg", cacheDirectory);
+    }
+
+    private String createImageFileNamePrefix() {
+        String timeStamp = new SimpleDateFormat("yyyyMMdd_HHmmss", Locale.US).format(new Date());
+        return "JPEG_" + timeStamp + "_";
     }
 
     private File getSavedImage(String imageName) {
@@ -116,11 +232,54 @@ public class RecipeImageService {
         return new File(imageDirectory.getAbsolutePath() + File.separator + imageName);
     }
 
+    private File getRendition(String imageName, ImageRendition rendition) {
+        File renditionDirectory = new File(getImageDirectory(), rendition.getDirectoryName());
+        return new File(renditionDirectory, imageName);
+    }
+
+    private void createRenditions(File savedImage) {
+        for (ImageRendition rendition : ImageRendition.values()) {
+            if (rendition != ImageRendition.ORIGINAL) {
+                createRendition(savedImage, rendition);
+            }
+        }
+    }
+
+    // a missing rendition only means the original is shown, so failures are logged instead of failing the save
+    private void createRendition(File savedImage, ImageRendition rendition) {
+        File renditionFile = getRendition(savedImage.getName(), rendition);
+        File renditionDirectory = renditionFile.getParentFile();
+        if (!renditionDirectory.exists() && !renditionDirectory.mkdirs()) {
+            Log.w(getClass().getName(), "Could not create the directory for " + rendition + " renditions.");
+            return;
+        }
+
+        // scaled into a temporary file first so that a half written rendition is never found
+        File temporaryRendition = new File(renditionDirectory, savedImage.getName() + ".tmp");
+        try {
+            imageScaler.scale(savedImage, temporaryRendition, rendition.getMaxSize());
+            if (temporaryRendition.exists() && !temporaryRendition.renameTo(renditionFile)) {
+                throw new IOException("Could not rename " + temporaryRendition.getName());
+            }
+        } catch (IOException e) {
+            Log.w(getClass().getName(), "Could not create the " + rendition + " rendition of " + savedImage.getName() + ": " + e.getMessage());
+            temporaryRendition.delete();
+        }
+    }
+
     private File getTemporaryImage(String imageName) {
         File cacheDirectory = getCacheDirectory();
         return new File(cacheDirectory.getAbsolutePath() + File.separator + imageName);
     }
 
+    private File getStagedImage(String imageName) {
+        return new File(getStagingDirectory(), imageName);
+    }
+
+    private File getStagingDirectory() {
+        return new File(getImageDirectory(), STAGING_DIRECTORY);
+    }
+
     private File getImageDirectory() {
         return application.getExternalFilesDir(Environment.DIRECTORY_PICTURES);
     }
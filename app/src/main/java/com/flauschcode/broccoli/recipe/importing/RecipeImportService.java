@@ -2,6 +2,7 @@ package com.flauschcode.broccoli.recipe.importing;
 
 import android.util.Log;
 
+import com.flauschcode.broccoli.concurrent.BroccoliExecutors;
 import com.flauschcode.broccoli.recipe.Recipe;
 import com.flauschcode.broccoli.recipe.images.RecipeImageService;
 import org.json.JSONArray;
@@ -27,10 +28,12 @@ public class RecipeImportService {
     private static final String TYPE_RECIPE = "Recipe";
 
     private RecipeImageService recipeImageService;
+    private BroccoliExecutors executors;
 
     @Inject
-    public RecipeImportService(RecipeImageService recipeImageService) {
+    public RecipeImportService(RecipeImageService recipeImageService, BroccoliExecutors executors) {
         this.recipeImageService = recipeImageService;
+        this.executors = executors;
     }
 
     public CompletableFuture<Optional<Recipe>> importFrom(String url) {
@@ -50,7 +53,7 @@ public class RecipeImportService {
             }
 
             return Optional.empty();
-        });
+        }, executors.io());
     }
 
     private Optional<JSONObject> findRecipeIn(Elements jsonLds) {
@@ -0,0 +1,18 @@
+package com.flauschcode.broccoli.recipe.ingredients;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public interface IngredientDAO {
+
+    @Insert
+    void insert(List<RecipeIngredient> recipeIngredients);
+
+    @Query("DELETE FROM recipe_ingredients WHERE recipeId = :recipeId")
+    void deleteFor(long recipeId);
+
+}
@@ -0,0 +1,87 @@
+package com.flauschcode.broccoli.recipe.ingredients;
+
+import android.database.Cursor;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteStatement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import javax.inject.Inject;
+
+public class IngredientTable {
+
+    // the names of the units are recognized in every language, so any table will do
+    private static final UnitTable UNITS = UnitTable.forLocale(Locale.ROOT);
+
+    private final IngredientDAO ingredientDAO;
+
+    @Inject
+    public IngredientTable(IngredientDAO ingredientDAO) {
+        this.ingredientDAO = ingredientDAO;
+    }
+
+    public void write(long recipeId, String ingredients) {
+        ingredientDAO.deleteFor(recipeId);
+        List<RecipeIngredient> recipeIngredients = parse(recipeId, ingredients);
+        if (!recipeIngredients.isEmpty()) {
+            ingredientDAO.insert(recipeIngredients);
+        }
+    }
+
+    public static void rebuild(SupportSQLiteDatabase database) {
+        database.execSQL("DELETE FROM `recipe_ingredients`");
+
+        SupportSQLiteStatement insert = database.compileStatement("INSERT INTO `recipe_ingredients` (`recipeId`, `position`, `quantity`, `unit`, `text`, `value`) VALUES (?, ?, ?, ?, ?, ?)");
+        try (Cursor cursor = database.query("SELECT `recipeId`, `ingredients` FROM `recipes`")) {
+            while (cursor.moveToNext()) {
+                for (RecipeIngredient recipeIngredient : parse(cursor.getLong(0), cursor.getString(1))) {
+                    insert.bindLong(1, recipeIngredient.getRecipeId());
+                    insert.bindLong(2, recipeIngredient.getPosition());
+                    insert.bindString(3, recipeIngredient.getQuantity());
+                    insert.bindString(4, recipeIngredient.getUnit());
+                    insert.bindString(5, recipeIngredient.getText());
+                    if (recipeIngredient.getValue() == null) {
+                        insert.bindNull(6);
+                    } else {
+                        insert.bindDouble(6, recipeIngredient.getValue());
+                    }
+                    insert.executeInsert();
+                }
+            }
+        }
+    }
+
+    public static List<RecipeIngredient> parse(long recipeId, String ingredients) {
+        List<RecipeIngredient> recipeIngredients = new ArrayList<>();
+        List<Ingredient> parsedIngredients = IngredientBuilder.from(ingredients);
+        for (int position = 0; position < parsedIngredients.size(); position++) {
+            Ingredient ingredient = parsedIngredients.get(position);
+            recipeIngredients.add(new RecipeIngredient(recipeId, position, ingredient.getQuantity(), unitOf(ingredient.getText()), ingredient.getText(), valueOf(ingredient.getQuantity())));
+        }
+        return recipeIngredients;
+    }
+
+    // lower cased, empty if the text does not start with a known unit
+    // package private for testing purposes
+    static String unitOf(String text) {
+        String trimmed = text.trim();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+
+        String unit = trimmed.substring(0, end);
+        return UNITS.find(unit) != null ? unit.toLowerCase(Locale.ROOT) : "";
+    }
+
+    // the lower bound for a range, null if the quantity is no number
+    // package private for testing purposes
+    static Double valueOf(String quantity) {
+        Rational from = Quantity.parse(quantity).getFrom();
+        return from == null ? null : from.doubleValue();
+    }
+
+}
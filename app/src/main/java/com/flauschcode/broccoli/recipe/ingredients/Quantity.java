@@ -0,0 +1,302 @@
+package com.flauschcode.broccoli.recipe.ingredients;
+
+import java.util.Objects;
+
+// text that is not a quantity, like "je 1" or "", is kept as it is and is not scalable
+public final class Quantity {
+
+    private static final String VULGAR_FRACTIONS = "¼½¾⅐⅑⅒⅓⅔⅕⅖⅗⅘⅙⅚⅛⅜⅝⅞";
+    private static final int[][] VULGAR_FRACTION_VALUES = {
+            {1, 4}, {1, 2}, {3, 4}, {1, 7}, {1, 9}, {1, 10}, {1, 3}, {2, 3}, {1, 5}, {2, 5}, {3, 5}, {4, 5}, {1, 6}, {5, 6}, {1, 8}, {3, 8}, {5, 8}, {7, 8}
+    };
+
+    // the fractions found in measuring cups and spoons, see format()
+    private static final int[] KITCHEN_DENOMINATORS = {2, 3, 4, 8};
+    private static final long KITCHEN_FRACTION_TOLERANCE = 50; // 1/50, i.e. 2 percent
+    private static final long MAX_KITCHEN_FRACTION_WHOLE_PART = 10;
+    private static final long MIN_WHOLE_NUMBER = 100;
+
+    private final String text;
+    private final Rational from;
+    private final Rational to;
+
+    private Quantity(String text, Rational from, Rational to) {
+        this.text = text;
+        this.from = from;
+        this.to = to;
+    }
+
+    public static Quantity parse(String text) {
+        String trimmed = text.trim();
+        Parser parser = new Parser(trimmed);
+        try {
+            Rational from = parser.amount();
+            Rational to = null;
+            if (from != null && parser.dash()) {
+                to = parser.amount();
+                if (to == null) {
+                    from = null;
+                }
+            }
+            if (from == null || !parser.isAtEnd()) {
+                return new Quantity(trimmed, null, null);
+            }
+            return new Quantity(trimmed, from, to);
+        } catch (ArithmeticException e) {
+            return new Quantity(trimmed, null, null);
+        }
+    }
+
+    public boolean isScalable() {
+        return from != null;
+    }
+
+    public boolean isRange() {
+        return to != null;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    // null if the quantity is not scalable
+    public Rational getFrom() {
+        return from;
+    }
+
+    // null if the quantity is not a range
+    public Rational getTo() {
+        return to;
+    }
+
+    public Quantity scale(Rational scaleFactor) {
+        if (!isScalable()) {
+            return this;
+        }
+        return new Quantity(text, from.multiply(scaleFactor), to == null ? null : to.multiply(scaleFactor));
+    }
+
+    // like a cook would write it down: a near half, third, quarter or eighth below ten, whole numbers from a hundred on
+    public String format(char decimalSeparator) {
+        if (!isScalable()) {
+            return text;
+        }
+        StringBuilder builder = new StringBuilder();
+        format(from, decimalSeparator, builder);
+        if (to != null) {
+            builder.append('-');
+            format(to, decimalSeparator, builder);
+        }
+        return builder.toString();
+    }
+
+    private static void format(Rational amount, char decimalSeparator, StringBuilder builder) {
+        if (amount.isInteger()) {
+            builder.append(amount.getNumerator());
+            return;
+        }
+
+        if (amount.wholePart() < MAX_KITCHEN_FRACTION_WHOLE_PART) {
+            Rational kitchenFraction = nearestKitchenFraction(amount);
+            if (Math.abs(amount.subtract(kitchenFraction).doubleValue()) * KITCHEN_FRACTION_TOLERANCE <= amount.doubleValue()) {
+                long wholePart = kitchenFraction.wholePart();
+                Rational fraction = kitchenFraction.subtract(Rational.of(wholePart));
+                if (wholePart > 0 || fraction.getNumerator() == 0) {
+                    builder.append(wholePart);
+                }
+                if (fraction.getNumerator() != 0) {
+                    builder.append(vulgarFractionOf(fraction));
+                }
+                return;
+            }
+        }
+
+        if (amount.wholePart() >= MIN_WHOLE_NUMBER) {
+            builder.append(amount.roundTo(0));
+            return;
+        }
+
+        long hundredths = amount.roundTo(2);
+        builder.append(hundredths / 100);
+        long decimals = hundredths % 100;
+        if (decimals != 0) {
+            builder.append(decimalSeparator);
+            builder.append(decimals / 10);
+            if (decimals % 10 != 0) {
+                builder.append(decimals % 10);
+            }
+        }
+    }
+
+    private static Rational nearestKitchenFraction(Rational amount) {
+        Rational nearest = null;
+        double nearestDistance = Double.MAX_VALUE;
+        for (int denominator : KITCHEN_DENOMINATORS) {
+            long numerator = Math.round(amount.doubleValue() * denominator);
+            Rational candidate = Rational.of(numerator, denominator);
+            double distance = Math.abs(amount.doubleValue() - candidate.doubleValue());
+            if (distance < nearestDistance) {
+                nearest = candidate;
+                nearestDistance = distance;
+            }
+        }
+        return nearest;
+    }
+
+    private static char vulgarFractionOf(Rational fraction) {
+        for (int i = 0; i < VULGAR_FRACTION_VALUES.length; i++) {
+            if (VULGAR_FRACTION_VALUES[i][0] == fraction.getNumerator() && VULGAR_FRACTION_VALUES[i][1] == fraction.getDenominator()) {
+                return VULGAR_FRACTIONS.charAt(i);
+            }
+        }
+        throw new IllegalArgumentException("No vulgar fraction for " + fraction);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Quantity quantity = (Quantity) o;
+        return text.equals(quantity.text) &&
+                Objects.equals(from, quantity.from) &&
+                Objects.equals(to, quantity.to);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(text, from, to);
+    }
+
+    @Override
+    public String toString() {
+        return "Quantity{" +
+                "text='" + text + '\'' +
+                ", from=" + from +
+                ", to=" + to +
+                '}';
+    }
+
+    private static final class Parser {
+
+        private final String text;
+        private int position = 0;
+
+        private Parser(String text) {
+            this.text = text;
+        }
+
+        private Rational amount() {
+            skipWhitespace();
+            int vulgarFraction = vulgarFractionAt(position);
+            if (vulgarFraction >= 0) {
+                position++;
+                return vulgarFractionValue(vulgarFraction);
+            }
+
+            int start = position;
+            long integer = digits();
+            if (position == start) {
+                return null;
+            }
+
+            if (position < text.length() && (text.charAt(position) == '.' || text.charAt(position) == ',')) {
+                return decimal(integer);
+            }
+
+            int afterInteger = position;
+            skipWhitespace();
+            if (position < text.length() && text.charAt(position) == '/') {
+                position++;
+                return fraction(integer);
+            }
+
+            vulgarFraction = vulgarFractionAt(position);
+            if (vulgarFraction >= 0) {
+                position++;
+                return Rational.of(integer).add(vulgarFractionValue(vulgarFraction));
+            }
+
+            if (position > afterInteger) {
+                // a mixed number like 1 1/2, anything else after the whitespace is left to the caller
+                int numeratorStart = position;
+                long numerator = digits();
+                skipWhitespace();
+                if (position > numeratorStart && position < text.length() && text.charAt(position) == '/') {
+                    position++;
+                    Rational fraction = fraction(numerator);
+                    return fraction == null ? null : Rational.of(integer).add(fraction);
+                }
+                position = afterInteger;
+            }
+            return Rational.of(integer);
+        }
+
+        private Rational decimal(long integer) {
+            position++;
+            int start = position;
+            long decimals = 0;
+            long scale = 1;
+            while (position < text.length() && isDigit(text.charAt(position))) {
+                decimals = Math.addExact(Math.multiplyExact(decimals, 10), text.charAt(position) - '0');
+                scale = Math.multiplyExact(scale, 10);
+                position++;
+            }
+            if (position == start) {
+                return null;
+            }
+            return Rational.of(integer).add(Rational.of(decimals, scale));
+        }
+
+        private Rational fraction(long numerator) {
+            skipWhitespace();
+            int start = position;
+            long denominator = digits();
+            if (position == start || denominator == 0) {
+                return null;
+            }
+            return Rational.of(numerator, denominator);
+        }
+
+        private boolean dash() {
+            skipWhitespace();
+            if (position < text.length() && (text.charAt(position) == '-' || text.charAt(position) == '–')) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean isAtEnd() {
+            skipWhitespace();
+            return position == text.length();
+        }
+
+        private long digits() {
+            long value = 0;
+            while (position < text.length() && isDigit(text.charAt(position))) {
+                value = Math.addExact(Math.multiplyExact(value, 10), text.charAt(position) - '0');
+                position++;
+            }
+            return value;
+        }
+
+        private void skipWhitespace() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        private int vulgarFractionAt(int index) {
+            return index < text.length() ? VULGAR_FRACTIONS.indexOf(text.charAt(index)) : -1;
+        }
+
+        private static Rational vulgarFractionValue(int index) {
+            return Rational.of(VULGAR_FRACTION_VALUES[index][0], VULGAR_FRACTION_VALUES[index][1]);
+        }
+
+        private static boolean isDigit(char c) {
+            return c >= '0' && c <= '9';
+        }
+    }
+
+}
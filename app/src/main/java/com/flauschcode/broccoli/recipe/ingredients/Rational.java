@@ -0,0 +1,147 @@
+package com.flauschcode.broccoli.recipe.ingredients;
+
+// exact, so that scaling ⅓ by 3 gives 1 and not 0.99
+public final class Rational implements Comparable<Rational> {
+
+    public static final Rational ZERO = new Rational(0, 1);
+    public static final Rational ONE = new Rational(1, 1);
+
+    private static final int MAX_CONTINUED_FRACTION_TERMS = 20;
+
+    private final long numerator;
+    private final long denominator;
+
+    private Rational(long numerator, long denominator) {
+        this.numerator = numerator;
+        this.denominator = denominator;
+    }
+
+    public static Rational of(long numerator, long denominator) {
+        if (denominator == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        if (denominator < 0) {
+            numerator = Math.negateExact(numerator);
+            denominator = Math.negateExact(denominator);
+        }
+        long gcd = gcd(Math.abs(numerator), denominator);
+        return new Rational(numerator / gcd, denominator / gcd);
+    }
+
+    public static Rational of(long integer) {
+        return new Rational(integer, 1);
+    }
+
+    // the simplest fraction the float could have been rounded from, e.g. 2/3 for the 0.6666667 of scaling 2 servings to 3
+    public static Rational valueOf(float value) {
+        if (Float.isNaN(value) || Float.isInfinite(value)) {
+            throw new ArithmeticException("Not a number: " + value);
+        }
+
+        double tolerance = Math.ulp(value);
+        double remainder = value;
+        long previousNumerator = 1;
+        long numerator = (long) Math.floor(remainder);
+        long previousDenominator = 0;
+        long denominator = 1;
+
+        for (int i = 0; i < MAX_CONTINUED_FRACTION_TERMS && Math.abs(value - (double) numerator / denominator) > tolerance; i++) {
+            remainder = 1 / (remainder - Math.floor(remainder));
+            long term = (long) Math.floor(remainder);
+
+            long nextNumerator = Math.addExact(Math.multiplyExact(term, numerator), previousNumerator);
+            long nextDenominator = Math.addExact(Math.multiplyExact(term, denominator), previousDenominator);
+            previousNumerator = numerator;
+            previousDenominator = denominator;
+            numerator = nextNumerator;
+            denominator = nextDenominator;
+        }
+
+        return of(numerator, denominator);
+    }
+
+    public Rational add(Rational other) {
+        long gcd = gcd(denominator, other.denominator);
+        long denominatorFactor = other.denominator / gcd;
+        return of(Math.addExact(Math.multiplyExact(numerator, denominatorFactor), Math.multiplyExact(other.numerator, denominator / gcd)),
+                Math.multiplyExact(denominator, denominatorFactor));
+    }
+
+    public Rational subtract(Rational other) {
+        return add(new Rational(Math.negateExact(other.numerator), other.denominator));
+    }
+
+    public Rational multiply(Rational other) {
+        // cross reduce first, so that the products stay as small as possible
+        long gcd1 = gcd(Math.abs(numerator), other.denominator);
+        long gcd2 = gcd(Math.abs(other.numerator), denominator);
+        return of(Math.multiplyExact(numerator / gcd1, other.numerator / gcd2), Math.multiplyExact(denominator / gcd2, other.denominator / gcd1));
+    }
+
+    public Rational divide(Rational other) {
+        return multiply(of(other.denominator, other.numerator));
+    }
+
+    public long getNumerator() {
+        return numerator;
+    }
+
+    public long getDenominator() {
+        return denominator;
+    }
+
+    public boolean isInteger() {
+        return denominator == 1;
+    }
+
+    public long wholePart() {
+        return Math.floorDiv(numerator, denominator);
+    }
+
+    // this value times 10^digits, rounded half up
+    public long roundTo(int digits) {
+        long scale = 1;
+        for (int i = 0; i < digits; i++) {
+            scale = Math.multiplyExact(scale, 10);
+        }
+        return Math.floorDiv(Math.addExact(Math.multiplyExact(Math.multiplyExact(numerator, scale), 2), denominator), Math.multiplyExact(denominator, 2));
+    }
+
+    public double doubleValue() {
+        return (double) numerator / denominator;
+    }
+
+    @Override
+    public int compareTo(Rational other) {
+        return Long.signum(subtract(other).numerator);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Rational rational = (Rational) o;
+        return numerator == rational.numerator &&
+                denominator == rational.denominator;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(numerator) + Long.hashCode(denominator);
+    }
+
+    @Override
+    public String toString() {
+        return isInteger() ? String.valueOf(numerator) : numerator + "/" + denominator;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a == 0 ? 1 : a;
+    }
+
+}
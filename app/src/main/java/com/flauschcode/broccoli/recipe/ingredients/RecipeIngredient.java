@@ -0,0 +1,134 @@
+package com.flauschcode.broccoli.recipe.ingredients;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+
+import com.flauschcode.broccoli.recipe.CoreRecipe;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import static androidx.room.ForeignKey.CASCADE;
+
+// quantity and text are exactly what the IngredientBuilder yields, the unit and the value are extracted to be queried
+@Entity(
+        tableName = "recipe_ingredients",
+        primaryKeys = {
+                "recipeId", "position"
+        },
+        foreignKeys = {
+                @ForeignKey(
+                        entity = CoreRecipe.class,
+                        parentColumns = "recipeId",
+                        childColumns = "recipeId",
+                        onDelete = CASCADE)
+        })
+public class RecipeIngredient implements Serializable {
+    private long recipeId;
+    private int position;
+    @NonNull
+    private String quantity;
+    @NonNull
+    private String unit;
+    @NonNull
+    private String text;
+    @Nullable
+    private Double value;
+
+    public RecipeIngredient(long recipeId, int position, @NonNull String quantity, @NonNull String unit, @NonNull String text, @Nullable Double value) {
+        this.recipeId = recipeId;
+        this.position = position;
+        this.quantity = quantity;
+        this.unit = unit;
+        this.text = text;
+        this.value = value;
+    }
+
+    public Ingredient toIngredient() {
+        return new Ingredient(quantity, text);
+    }
+
+    public long getRecipeId() {
+        return recipeId;
+    }
+
+    public void setRecipeId(long recipeId) {
+        this.recipeId = recipeId;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public void setPosition(int position) {
+        this.position = position;
+    }
+
+    @NonNull
+    public String getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(@NonNull String quantity) {
+        this.quantity = quantity;
+    }
+
+    @NonNull
+    public String getUnit() {
+        return unit;
+    }
+
+    public void setUnit(@NonNull String unit) {
+        this.unit = unit;
+    }
+
+    @NonNull
+    public String getText() {
+        return text;
+    }
+
+    public void setText(@NonNull String text) {
+        this.text = text;
+    }
+
+    @Nullable
+    public Double getValue() {
+        return value;
+    }
+
+    public void setValue(@Nullable Double value) {
+        this.value = value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RecipeIngredient that = (RecipeIngredient) o;
+        return recipeId == that.recipeId &&
+                position == that.position &&
+                quantity.equals(that.quantity) &&
+                unit.equals(that.unit) &&
+                text.equals(that.text) &&
+                Objects.equals(value, that.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(recipeId, position, quantity, unit, text, value);
+    }
+
+    @Override
+    public String toString() {
+        return "RecipeIngredient{" +
+                "recipeId=" + recipeId +
+                ", position=" + position +
+                ", quantity='" + quantity + '\'' +
+                ", unit='" + unit + '\'' +
+                ", text='" + text + '\'' +
+                ", value=" + value +
+                '}';
+    }
+}
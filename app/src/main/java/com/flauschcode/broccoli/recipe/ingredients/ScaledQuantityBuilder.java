@@ -4,8 +4,7 @@ import android.app.Application;
 
 import com.flauschcode.broccoli.R;
 
-import java.text.DecimalFormat;
-import java.text.Normalizer;
+import java.text.DecimalFormatSymbols;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -13,6 +12,8 @@ import javax.inject.Singleton;
 @Singleton
 public class ScaledQuantityBuilder {
 
+    private static final char decimalSeparator = DecimalFormatSymbols.getInstance().getDecimalSeparator();
+
     private final Application application;
 
     @Inject
@@ -20,87 +21,24 @@ public class ScaledQuantityBuilder {
         this.application = application;
     }
 
-    private static final DecimalFormat decimalFormat = new DecimalFormat("0.##");
-
     public String from(String quantity, float scaleFactor) {
-        quantity = quantity.trim();
-
-        try {
-            if (isRange(quantity)) {
-                String[] ranges = quantity.replace(" ", "").split("-");
-                String first = scale(ranges[0], scaleFactor);
-                String second = scale(ranges[1], scaleFactor);
-                return first + "-" + second;
-            }
-
-            return scale(quantity, scaleFactor);
-        } catch (NumberFormatException e) {
-            return "(" + getNotScaledString() + ") " + quantity;
-        }
+        return from(Quantity.parse(quantity), Rational.valueOf(scaleFactor));
     }
 
-    private String scale(String quantity, float scaleFactor) {
-        if (isMixedInteger(quantity)) {
-            return scaleMixedInteger(quantity, scaleFactor);
-        }
-
-        if (isFraction(quantity)) {
-            return scaleFraction(quantity, scaleFactor);
-        }
-
-        if (isVulgarFraction(quantity)) {
-            return scaleVulgarFraction(quantity, scaleFactor);
+    public String from(Quantity quantity, Rational scaleFactor) {
+        if (!quantity.isScalable()) {
+            return notScaled(quantity);
         }
 
-        float q = Float.parseFloat(quantity);
-        return prettyPrint(q * scaleFactor);
-    }
-
-    private boolean isRange(String quantity) {
-        return quantity.contains("-");
-    }
-
-    private boolean isMixedInteger(String quantity) {
-        return quantity.matches("\\d+ \\d+/\\d+");
-    }
-
-    private String scaleMixedInteger(String quantity, float scaleFactor) {
-        String[] mixedParts = quantity.split(" ");
-
-        String[] rat = mixedParts[1].split("/");
-        float fractionPart = Float.parseFloat(rat[0]) / Float.parseFloat(rat[1]);
-        float f = Float.parseFloat(mixedParts[0]) + fractionPart;
-
-        return prettyPrint(f * scaleFactor);
-    }
-
-    private boolean isFraction(String quantity) {
-        return quantity.contains("/");
-    }
-
-    private String scaleFraction(String quantity, float scaleFactor) {
-        String[] rat = quantity.split("/");
-        float f = Float.parseFloat(rat[0]) / Float.parseFloat(rat[1]);
-        return prettyPrint(f * scaleFactor);
-    }
-
-    // https://stackoverflow.com/a/26039424/5369519
-    private boolean isVulgarFraction(String quantity) {
-        return quantity.matches("[¼½¾⅐⅑⅒⅓⅔⅕⅖⅗⅘⅙⅚⅛⅜⅝⅞]");
-    }
-
-    private String scaleVulgarFraction(String quantity, float scaleFactor) {
-        String[] fraction = Normalizer.normalize(quantity, Normalizer.Form.NFKD).split("\u2044");
-        if (fraction.length == 2) {
-            float f = (float) Integer.parseInt(fraction[0]) / Integer.parseInt(fraction[1]);
-            return prettyPrint(f * scaleFactor);
+        try {
+            return quantity.scale(scaleFactor).format(decimalSeparator);
+        } catch (ArithmeticException e) {
+            return notScaled(quantity);
         }
-        throw new NumberFormatException();
     }
 
-    private String prettyPrint(float f) {
-        int i = (int) f;
-        return f == i ? String.valueOf(i) : decimalFormat.format(f);
+    private String notScaled(Quantity quantity) {
+        return "(" + getNotScaledString() + ") " + quantity.getText();
     }
 
     private String getNotScaledString() {
@@ -0,0 +1,44 @@
+package com.flauschcode.broccoli.recipe.ingredients;
+
+// spoons and cups use the metric sizes of 5, 15 and 240 ml, so that 3 tsp are 1 tbsp and 16 tbsp are 1 cup
+public enum Unit {
+
+    GRAM(Dimension.MASS, Rational.ONE, Rational.ZERO),
+    KILOGRAM(Dimension.MASS, Rational.of(1000), Rational.ONE),
+    OUNCE(Dimension.MASS, Rational.of(28349523125L, 1000000000L), Rational.ZERO),
+    POUND(Dimension.MASS, Rational.of(45359237L, 100000L), Rational.ONE),
+    MILLILITER(Dimension.VOLUME, Rational.ONE, Rational.ZERO),
+    LITER(Dimension.VOLUME, Rational.of(1000), Rational.ONE),
+    TEASPOON(Dimension.VOLUME, Rational.of(5), Rational.ZERO),
+    TABLESPOON(Dimension.VOLUME, Rational.of(15), Rational.ONE),
+    CUP(Dimension.VOLUME, Rational.of(240), Rational.of(1, 4));
+
+    public enum Dimension {
+        MASS, VOLUME
+    }
+
+    private final Dimension dimension;
+    private final Rational baseUnits;
+    private final Rational minimum;
+
+    Unit(Dimension dimension, Rational baseUnits, Rational minimum) {
+        this.dimension = dimension;
+        this.baseUnits = baseUnits;
+        this.minimum = minimum;
+    }
+
+    public Dimension getDimension() {
+        return dimension;
+    }
+
+    // in grams or millilitres
+    public Rational getBaseUnits() {
+        return baseUnits;
+    }
+
+    // the smallest amount still written in this unit, e.g. 1 for kilograms so that 0.5 kg become 500 g, but ¼ for cups
+    public Rational getMinimum() {
+        return minimum;
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.flauschcode.broccoli.recipe.ingredients;
+
+import android.app.Application;
+
+import androidx.preference.PreferenceManager;
+
+import com.flauschcode.broccoli.R;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+@Singleton
+public class UnitConverter {
+
+    public enum UnitSystem {
+        AS_WRITTEN, METRIC, IMPERIAL
+    }
+
+    private static final String UNIT_SYSTEM_KEY = "unit-system";
+    private static final char decimalSeparator = DecimalFormatSymbols.getInstance().getDecimalSeparator();
+
+    private final Application application;
+
+    @Inject
+    public UnitConverter(Application application) {
+        this.application = application;
+    }
+
+    public UnitSystem getPreferredUnitSystem() {
+        String preferredUnitSystem = PreferenceManager.getDefaultSharedPreferences(application)
+                .getString(UNIT_SYSTEM_KEY, application.getString(R.string.UNIT_SYSTEM_AS_WRITTEN));
+        try {
+            return UnitSystem.valueOf(preferredUnitSystem);
+        } catch (IllegalArgumentException e) {
+            return UnitSystem.AS_WRITTEN;
+        }
+    }
+
+    // false if the text does not start with a known unit or the quantity can not be scaled, the caller scales it alone then
+    public boolean convert(Ingredient ingredient, Quantity quantity, Rational scaleFactor, UnitSystem unitSystem) {
+        return convert(ingredient, quantity, scaleFactor, unitSystem, Locale.getDefault());
+    }
+
+    // package private for testing purposes
+    boolean convert(Ingredient ingredient, Quantity quantity, Rational scaleFactor, UnitSystem unitSystem, Locale locale) {
+        if (!quantity.isScalable()) {
+            return false;
+        }
+
+        String text = ingredient.getText();
+        int unitStart = 0;
+        while (unitStart < text.length() && Character.isWhitespace(text.charAt(unitStart))) {
+            unitStart++;
+        }
+        int unitEnd = unitStart;
+        while (unitEnd < text.length() && Character.isLetter(text.charAt(unitEnd))) {
+            unitEnd++;
+        }
+        if (unitEnd == unitStart) {
+            return false;
+        }
+
+        UnitTable unitTable = UnitTable.forLocale(locale);
+        Unit unit = unitTable.find(text.substring(unitStart, unitEnd));
+        if (unit == null) {
+            return false;
+        }
+
+        try {
+            Quantity scaledQuantity = quantity.scale(scaleFactor);
+            Unit bestUnit = bestUnitFor(scaledQuantity.getFrom().multiply(unit.getBaseUnits()), unitTable.conversionsOf(unit, unitSystem));
+            if (bestUnit == unit) {
+                // keep the unit the way the recipe spells it
+                ingredient.setQuantity(scaledQuantity.format(decimalSeparator));
+                return true;
+            }
+
+            Quantity convertedQuantity = scaledQuantity.scale(unit.getBaseUnits().divide(bestUnit.getBaseUnits()));
+            Rational largestAmount = convertedQuantity.isRange() ? convertedQuantity.getTo() : convertedQuantity.getFrom();
+            int textStart = unitEnd < text.length() && text.charAt(unitEnd) == '.' ? unitEnd + 1 : unitEnd;
+
+            ingredient.setQuantity(convertedQuantity.format(decimalSeparator));
+            ingredient.setText(text.substring(0, unitStart) + unitTable.nameOf(bestUnit, largestAmount) + text.substring(textStart));
+            return true;
+        } catch (ArithmeticException e) {
+            return false;
+        }
+    }
+
+    private Unit bestUnitFor(Rational baseUnits, Unit[] units) {
+        for (int i = units.length - 1; i > 0; i--) {
+            if (baseUnits.divide(units[i].getBaseUnits()).compareTo(units[i].getMinimum()) >= 0) {
+                return units[i];
+            }
+        }
+        return units[0];
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.flauschcode.broccoli.recipe.ingredients;
+
+import com.flauschcode.broccoli.recipe.ingredients.UnitConverter.UnitSystem;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// everything is computed once, so that scaling an ingredient only takes a few map lookups
+final class UnitTable {
+
+    private static final Map<String, UnitTable> tables = new ConcurrentHashMap<>();
+
+    // recipes are not always written in the language of the device, so every name is recognized everywhere
+    private static final Map<String, Unit> units = new HashMap<>();
+    private static final Map<UnitSystem, Map<Unit, Unit[]>> conversions = new EnumMap<>(UnitSystem.class);
+
+    static {
+        addNames(Unit.GRAM, "g", "gr", "gram", "grams", "gramm");
+        addNames(Unit.KILOGRAM, "kg", "kilo", "kilogram", "kilograms", "kilogramm");
+        addNames(Unit.OUNCE, "oz", "ounce", "ounces", "unze", "unzen");
+        addNames(Unit.POUND, "lb", "lbs", "pound", "pounds");
+        addNames(Unit.MILLILITER, "ml", "milliliter", "milliliters", "millilitre", "millilitres");
+        addNames(Unit.LITER, "l", "liter", "liters", "litre", "litres");
+        addNames(Unit.TEASPOON, "tsp", "teaspoon", "teaspoons", "tl", "teelöffel");
+        addNames(Unit.TABLESPOON, "tbsp", "tablespoon", "tablespoons", "el", "esslöffel");
+        addNames(Unit.CUP, "cup", "cups", "tasse", "tassen");
+
+        Unit[] metricMass = {Unit.GRAM, Unit.KILOGRAM};
+        Unit[] metricVolume = {Unit.MILLILITER, Unit.LITER};
+        Unit[] imperialMass = {Unit.OUNCE, Unit.POUND};
+        Unit[] imperialVolume = {Unit.TEASPOON, Unit.TABLESPOON, Unit.CUP};
+        Unit[] spoons = {Unit.TEASPOON, Unit.TABLESPOON};
+
+        addConversions(UnitSystem.AS_WRITTEN, metricMass, metricMass);
+        addConversions(UnitSystem.AS_WRITTEN, metricVolume, metricVolume);
+        addConversions(UnitSystem.AS_WRITTEN, imperialMass, imperialMass);
+        addConversions(UnitSystem.AS_WRITTEN, imperialVolume, imperialVolume);
+
+        addConversions(UnitSystem.METRIC, metricMass, metricMass);
+        addConversions(UnitSystem.METRIC, imperialMass, metricMass);
+        addConversions(UnitSystem.METRIC, metricVolume, metricVolume);
+        addConversions(UnitSystem.METRIC, new Unit[]{Unit.CUP}, metricVolume);
+        // spoons are as common in metric recipes as they are in imperial ones
+        addConversions(UnitSystem.METRIC, spoons, spoons);
+
+        addConversions(UnitSystem.IMPERIAL, metricMass, imperialMass);
+        addConversions(UnitSystem.IMPERIAL, imperialMass, imperialMass);
+        addConversions(UnitSystem.IMPERIAL, metricVolume, imperialVolume);
+        addConversions(UnitSystem.IMPERIAL, imperialVolume, imperialVolume);
+    }
+
+    private final Map<Unit, String> singularNames = new EnumMap<>(Unit.class);
+    private final Map<Unit, String> pluralNames = new EnumMap<>(Unit.class);
+
+    private UnitTable(String language) {
+        addName(Unit.GRAM, "g");
+        addName(Unit.KILOGRAM, "kg");
+        addName(Unit.OUNCE, "oz");
+        addName(Unit.POUND, "lb");
+        addName(Unit.MILLILITER, "ml");
+        addName(Unit.LITER, "l");
+        if ("de".equals(language)) {
+            addName(Unit.TEASPOON, "TL");
+            addName(Unit.TABLESPOON, "EL");
+            addName(Unit.CUP, "Tasse", "Tassen");
+        } else {
+            addName(Unit.TEASPOON, "tsp");
+            addName(Unit.TABLESPOON, "tbsp");
+            addName(Unit.CUP, "cup", "cups");
+        }
+    }
+
+    static UnitTable forLocale(Locale locale) {
+        return tables.computeIfAbsent(locale.getLanguage(), UnitTable::new);
+    }
+
+    // in any language, null if it is not a unit
+    Unit find(String name) {
+        return units.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    // smallest first
+    Unit[] conversionsOf(Unit unit, UnitSystem unitSystem) {
+        return conversions.get(unitSystem).get(unit);
+    }
+
+    String nameOf(Unit unit, Rational amount) {
+        return amount.compareTo(Rational.ONE) > 0 ? pluralNames.get(unit) : singularNames.get(unit);
+    }
+
+    private void addName(Unit unit, String name) {
+        addName(unit, name, name);
+    }
+
+    private void addName(Unit unit, String singularName, String pluralName) {
+        singularNames.put(unit, singularName);
+        pluralNames.put(unit, pluralName);
+    }
+
+    private static void addNames(Unit unit, String... names) {
+        for (String name : names) {
+            units.put(name, unit);
+        }
+    }
+
+    private static void addConversions(UnitSystem unitSystem, Unit[] from, Unit[] to) {
+        Map<Unit, Unit[]> conversionsOfSystem = conversions.computeIfAbsent(unitSystem, system -> new EnumMap<>(Unit.class));
+        for (Unit unit : from) {
+            conversionsOfSystem.put(unit, to);
+        }
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.flauschcode.broccoli.recipe.list;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ArrayAdapter;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+
+import com.flauschcode.broccoli.R;
+import com.flauschcode.broccoli.category.Category;
+
+import java.util.Map;
+
+// only the names are shown until the counts are known
+class CategoryAdapter extends ArrayAdapter<Category> {
+
+    private Map<Long, Integer> recipeCounts;
+
+    CategoryAdapter(@NonNull Context context) {
+        super(context, android.R.layout.simple_spinner_item);
+        setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+    }
+
+    void setRecipeCounts(Map<Long, Integer> recipeCounts) {
+        this.recipeCounts = recipeCounts;
+        notifyDataSetChanged();
+    }
+
+    @NonNull
+    @Override
+    public View getView(int position, View convertView, @NonNull ViewGroup parent) {
+        return withRecipeCount(super.getView(position, convertView, parent), position);
+    }
+
+    @Override
+    public View getDropDownView(int position, View convertView, @NonNull ViewGroup parent) {
+        return withRecipeCount(super.getDropDownView(position, convertView, parent), position);
+    }
+
+    private View withRecipeCount(View view, int position) {
+        Category category = getItem(position);
+        if (recipeCounts != null && category != null && view instanceof TextView) {
+            int recipeCount = recipeCounts.getOrDefault(category.getCategoryId(), 0);
+            ((TextView) view).setText(getContext().getString(R.string.category_with_recipe_count, category.getName(), recipeCount));
+        }
+        return view;
+    }
+
+}
@@ -9,7 +9,6 @@ import android.view.MenuItem;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.AdapterView;
-import android.widget.ArrayAdapter;
 import android.widget.Spinner;
 
 import androidx.activity.OnBackPressedCallback;
@@ -24,14 +23,15 @@ import androidx.navigation.NavController;
 import androidx.navigation.Navigation;
 import androidx.preference.PreferenceManager;
 import androidx.recyclerview.widget.LinearLayoutManager;
-import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.flauschcode.broccoli.BR;
+import com.flauschcode.broccoli.PagingRecyclerViewAdapter;
 import com.flauschcode.broccoli.R;
-import com.flauschcode.broccoli.RecyclerViewAdapter;
 import com.flauschcode.broccoli.category.Category;
 import com.flauschcode.broccoli.recipe.Recipe;
+import com.flauschcode.broccoli.recipe.RecipeListItem;
+import com.flauschcode.broccoli.recipe.RecipeRepository;
 import com.flauschcode.broccoli.recipe.crud.CreateAndEditRecipeActivity;
 import com.flauschcode.broccoli.recipe.details.RecipeDetailsActivity;
 import com.flauschcode.broccoli.seasons.SeasonalFood;
@@ -68,7 +68,7 @@ public class RecipeFragment extends Fragment implements AdapterView.OnItemSelect
         recyclerView.setHasFixedSize(true);
 
         View emptyMessageLayout = root.findViewById(R.id.recipes_empty);
-        ListAdapter<Recipe, RecyclerViewAdapter<Recipe>.Holder> adapter = new RecyclerViewAdapter<Recipe>() {
+        PagingRecyclerViewAdapter<RecipeListItem> adapter = new PagingRecyclerViewAdapter<RecipeListItem>() {
             @Override
             protected int getLayoutResourceId() {
                 return R.layout.recipe_item;
@@ -80,8 +80,8 @@ public class RecipeFragment extends Fragment implements AdapterView.OnItemSelect
             }
 
             @Override
-            protected void onItemClick(Recipe item) {
-                onListInteraction(item);
+            protected void onItemClick(RecipeListItem item) {
+                onListInteraction(item.getRecipeId());
             }
 
             @Override
@@ -95,7 +95,8 @@ public class RecipeFragment extends Fragment implements AdapterView.OnItemSelect
         setUpFloatingActionButton(fab);
 
         viewModel = new ViewModelProvider(this, viewModelFactory).get(RecipeViewModel.class);
-        viewModel.getRecipes().observe(getViewLifecycleOwner(), adapter::submitList);
+        viewModel.setSearchMode(getPreferredSearchMode());
+        viewModel.getRecipes().observe(getViewLifecycleOwner(), recipes -> adapter.submitData(getViewLifecycleOwner().getLifecycle(), recipes));
 
         Toolbar toolbar = root.findViewById(R.id.toolbar_recipes);
         setUpMenu(toolbar);
@@ -117,7 +118,7 @@ public class RecipeFragment extends Fragment implements AdapterView.OnItemSelect
             });
 
             spinner.post(() -> {
-                viewModel.setSeasonalTerms(seasonalFood.getTerms());
+                viewModel.setSeasonalFood(seasonalFood.getResourceName());
                 viewModel.setFilterName(seasonalFood.getName());
             });
         });
@@ -195,6 +196,12 @@ public class RecipeFragment extends Fragment implements AdapterView.OnItemSelect
                 }
             });
 
+    private void onListInteraction(long recipeId) {
+        Intent intent = new Intent(getContext(), RecipeDetailsActivity.class);
+        intent.putExtra(RecipeDetailsActivity.RECIPE_ID, recipeId);
+        detailsResultLauncher.launch(intent);
+    }
+
     private void onListInteraction(Recipe recipe) {
         Intent intent = new Intent(getContext(), RecipeDetailsActivity.class);
         intent.putExtra(Recipe.class.getName(), recipe);
@@ -244,13 +251,13 @@ public class RecipeFragment extends Fragment implements AdapterView.OnItemSelect
     }
 
     private void setUpSpinner() {
-        ArrayAdapter<Category> arrayAdapter = new ArrayAdapter<>(getActivity(), android.R.layout.simple_spinner_item);
+        CategoryAdapter arrayAdapter = new CategoryAdapter(requireActivity());
         arrayAdapter.add(viewModel.getCategoryAll());
         arrayAdapter.add(viewModel.getCategorySeasonal());
         arrayAdapter.add(viewModel.getCategoryUnassigned());
         arrayAdapter.add(viewModel.getCategoryFavorites());
         viewModel.getCategories().observe(getViewLifecycleOwner(), categories -> categories.forEach(arrayAdapter::add));
-        arrayAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        viewModel.getRecipeCounts().observe(getViewLifecycleOwner(), arrayAdapter::setRecipeCounts);
 
         spinner.setAdapter(arrayAdapter);
         spinner.setOnItemSelectedListener(this);
@@ -274,6 +281,16 @@ public class RecipeFragment extends Fragment implements AdapterView.OnItemSelect
         }
     }
 
+    private RecipeRepository.SearchMode getPreferredSearchMode() {
+        SharedPreferences sharedPreferences = PreferenceManager.getDefaultSharedPreferences(requireActivity());
+        String preferredSearchMode = sharedPreferences.getString("search-mode", getString(R.string.SEARCH_MODE_PREFIX));
+        try {
+            return RecipeRepository.SearchMode.valueOf(preferredSearchMode);
+        } catch (IllegalArgumentException e) {
+            return RecipeRepository.SearchMode.PREFIX;
+        }
+    }
+
     private Optional<SeasonalFood> getSeasonalFoodArgument() {
         return Optional.ofNullable(RecipeFragmentArgs.fromBundle(getArguments()).getSeasonalFood());
     }
@@ -1,43 +1,88 @@
 package com.flauschcode.broccoli.recipe.list;
 
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.Transformations;
 import androidx.lifecycle.ViewModel;
+import androidx.lifecycle.ViewModelKt;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 
 import com.flauschcode.broccoli.category.Category;
 import com.flauschcode.broccoli.category.CategoryRepository;
-import com.flauschcode.broccoli.recipe.Recipe;
+import com.flauschcode.broccoli.concurrent.BroccoliExecutors;
+import com.flauschcode.broccoli.recipe.RecipeListItem;
 import com.flauschcode.broccoli.recipe.RecipeRepository;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import javax.inject.Inject;
 
 public class RecipeViewModel extends ViewModel {
 
-    private final LiveData<List<Recipe>> recipes;
-    private final MutableLiveData<RecipeRepository.SearchCriteria> criteriaLiveData = new MutableLiveData<>();
+    private final LiveData<PagingData<RecipeListItem>> recipes;
+    private final LiveData<Map<Long, Integer>> recipeCounts;
+    private final MediatorLiveData<RecipeRepository.SearchCriteria> criteriaLiveData = new MediatorLiveData<>();
     private final MutableLiveData<String> filterName = new MutableLiveData<>();
 
+    private final RecipeRepository recipeRepository;
     private final CategoryRepository categoryRepository;
+    private final SearchPipeline searchPipeline;
+    private final Runnable recipesChanged = this::onRecipesChanged;
+    private RecipeRepository.SearchMode searchMode = RecipeRepository.SearchMode.PREFIX;
 
     @Inject
-    RecipeViewModel(RecipeRepository recipeRepository, CategoryRepository categoryRepository) {
+    RecipeViewModel(RecipeRepository recipeRepository, CategoryRepository categoryRepository, BroccoliExecutors executors) {
+        this(recipeRepository, categoryRepository, executors, SearchPipeline.DEFAULT_DEBOUNCE_MILLIS);
+    }
+
+    // package private for testing purposes
+    RecipeViewModel(RecipeRepository recipeRepository, CategoryRepository categoryRepository, BroccoliExecutors executors, long debounceMillis) {
+        this.recipeRepository = recipeRepository;
         this.categoryRepository = categoryRepository;
+        this.searchPipeline = new SearchPipeline(recipeRepository, executors.scheduler(), debounceMillis);
 
         criteriaLiveData.setValue(createDefaultSearchCriteria());
+        criteriaLiveData.addSource(searchPipeline.getSearchTerm(), this::applySearchTerm);
         filterName.setValue("");
 
-        recipes = Transformations.switchMap(criteriaLiveData, recipeRepository::find);
+        recipes = PagingLiveData.cachedIn(Transformations.switchMap(criteriaLiveData, this::find), ViewModelKt.getViewModelScope(this));
+        recipeCounts = Transformations.switchMap(Transformations.distinctUntilChanged(Transformations.map(criteriaLiveData, this::countCriteriaOf)), recipeRepository::countByCategory);
+        recipeRepository.addChangeListener(recipesChanged);
+    }
+
+    @Override
+    protected void onCleared() {
+        recipeRepository.removeChangeListener(recipesChanged);
+        searchPipeline.cancel();
+    }
+
+    private LiveData<PagingData<RecipeListItem>> find(RecipeRepository.SearchCriteria criteria) {
+        if (searchPipeline.isKnownToHaveNoMatches(criteria.getSearchTerm())) {
+            return new MutableLiveData<>(PagingData.empty());
+        }
+        return recipeRepository.find(criteria);
+    }
+
+    // which terms have no matches is only known until the recipes change, a search that was answered from it has to run again
+    private void onRecipesChanged() {
+        RecipeRepository.SearchCriteria criteria = criteriaLiveData.getValue();
+        boolean answeredWithoutQuery = criteria != null && searchPipeline.isKnownToHaveNoMatches(criteria.getSearchTerm());
+        searchPipeline.forgetMatches();
+        if (answeredWithoutQuery) {
+            criteriaLiveData.postValue(copyOf(criteria));
+        }
     }
 
     LiveData<List<Category>> getCategories() {
         return categoryRepository.findAll();
     }
 
-    LiveData<List<Recipe>> getRecipes() { return recipes; }
+    LiveData<PagingData<RecipeListItem>> getRecipes() { return recipes; }
+
+    LiveData<Map<Long, Integer>> getRecipeCounts() { return recipeCounts; }
 
     void setFilterCategory(Category filterCategory) {
         RecipeRepository.SearchCriteria searchCriteria = createDefaultSearchCriteria();
@@ -47,16 +92,34 @@ public class RecipeViewModel extends ViewModel {
     }
 
     void setSearchTerm(String searchTerm) {
-        RecipeRepository.SearchCriteria searchCriteria = createDefaultSearchCriteria();
-        searchCriteria.setCategory(criteriaLiveData.getValue().getCategory());
-        searchCriteria.setSeasonalTerms(criteriaLiveData.getValue().getSeasonalTerms());
+        searchPipeline.submit(searchTerm.trim());
+    }
+
+    private void applySearchTerm(String searchTerm) {
+        if (searchTerm.equals(criteriaLiveData.getValue().getSearchTerm())) {
+            return;
+        }
+
+        RecipeRepository.SearchCriteria searchCriteria = copyOf(criteriaLiveData.getValue());
         searchCriteria.setSearchTerm(searchTerm);
         this.criteriaLiveData.setValue(searchCriteria);
     }
 
-    void setSeasonalTerms(List<String> seasonalTerms) {
+    void setSearchMode(RecipeRepository.SearchMode searchMode) {
+        if (this.searchMode == searchMode) {
+            return;
+        }
+
+        this.searchMode = searchMode;
+        searchPipeline.setSearchMode(searchMode);
+        RecipeRepository.SearchCriteria searchCriteria = copyOf(criteriaLiveData.getValue());
+        searchCriteria.setSearchMode(searchMode);
+        this.criteriaLiveData.setValue(searchCriteria);
+    }
+
+    void setSeasonalFood(String seasonalFood) {
         RecipeRepository.SearchCriteria searchCriteria = createDefaultSearchCriteria();
-        searchCriteria.setSeasonalTerms(seasonalTerms);
+        searchCriteria.setSeasonalFood(seasonalFood);
         this.criteriaLiveData.setValue(searchCriteria);
     }
 
@@ -84,8 +147,23 @@ public class RecipeViewModel extends ViewModel {
         return categoryRepository.getSeasonalRecipesCategory();
     }
 
+    private RecipeRepository.SearchCriteria copyOf(RecipeRepository.SearchCriteria criteria) {
+        RecipeRepository.SearchCriteria copy = new RecipeRepository.SearchCriteria(criteria.getCategory(), criteria.getSearchTerm(), criteria.getSeasonalFood());
+        copy.setSearchMode(criteria.getSearchMode());
+        return copy;
+    }
+
+    // the counts of all categories only depend on the search, so choosing another category does not count again
+    private RecipeRepository.SearchCriteria countCriteriaOf(RecipeRepository.SearchCriteria criteria) {
+        RecipeRepository.SearchCriteria countCriteria = new RecipeRepository.SearchCriteria(categoryRepository.getAllRecipesCategory(), criteria.getSearchTerm(), null);
+        countCriteria.setSearchMode(criteria.getSearchMode());
+        return countCriteria;
+    }
+
     private RecipeRepository.SearchCriteria createDefaultSearchCriteria() {
-        return new RecipeRepository.SearchCriteria(categoryRepository.getAllRecipesCategory(), "", new ArrayList<>());
+        RecipeRepository.SearchCriteria searchCriteria = new RecipeRepository.SearchCriteria(categoryRepository.getAllRecipesCategory(), "", null);
+        searchCriteria.setSearchMode(searchMode);
+        return searchCriteria;
     }
 
 }
\ No newline at end of file
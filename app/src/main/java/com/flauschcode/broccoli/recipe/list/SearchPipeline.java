@@ -0,0 +1,126 @@
+package com.flauschcode.broccoli.recipe.list;
+
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.flauschcode.broccoli.recipe.RecipeRepository;
+import com.flauschcode.broccoli.recipe.search.Trigrams;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// a term that extends a term without matches cannot match either, unless searched fuzzily or as a substring too short
+// for the trigrams
+class SearchPipeline {
+
+    static final long DEFAULT_DEBOUNCE_MILLIS = 300;
+
+    private final RecipeRepository recipeRepository;
+    private final long debounceMillis;
+    private final ScheduledExecutorService scheduler;
+
+    private final MutableLiveData<String> searchTerm = new MutableLiveData<>("");
+    private final AtomicLong generation = new AtomicLong();
+    private ScheduledFuture<?> pending;
+    private volatile RecipeRepository.SearchMode searchMode = RecipeRepository.SearchMode.PREFIX;
+    private volatile String termWithoutMatches;
+
+    SearchPipeline(RecipeRepository recipeRepository, ScheduledExecutorService scheduler, long debounceMillis) {
+        this.recipeRepository = recipeRepository;
+        this.scheduler = scheduler;
+        this.debounceMillis = debounceMillis;
+    }
+
+    LiveData<String> getSearchTerm() {
+        return searchTerm;
+    }
+
+    synchronized void submit(String term) {
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+
+        long currentGeneration = generation.incrementAndGet();
+        // clearing the search should show all recipes right away
+        if (term.isEmpty() || debounceMillis <= 0) {
+            resolve(term, currentGeneration);
+        } else {
+            pending = scheduler.schedule(() -> resolve(term, currentGeneration), debounceMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    boolean isKnownToHaveNoMatches(String term) {
+        String knownTerm = termWithoutMatches;
+        return knownTerm != null && narrowsWhenExtended(knownTerm) && !term.isEmpty() && term.startsWith(knownTerm) && onlyLettersOrDigits(term.substring(knownTerm.length()));
+    }
+
+    // substrings that are too short for the trigram index are searched by prefix, a longer substring may match anyway
+    private boolean narrowsWhenExtended(String term) {
+        switch (searchMode) {
+            case FUZZY:
+                return false;
+            case SUBSTRING:
+                return Trigrams.canBeSearched(Trigrams.normalizeTerm(term));
+            default:
+                return true;
+        }
+    }
+
+    void setSearchMode(RecipeRepository.SearchMode searchMode) {
+        if (this.searchMode != searchMode) {
+            this.searchMode = searchMode;
+            // terms without matches in one mode may well match in another
+            forgetMatches();
+        }
+    }
+
+    void forgetMatches() {
+        termWithoutMatches = null;
+    }
+
+    // the scheduler is shared and keeps running
+    synchronized void cancel() {
+        generation.incrementAndGet();
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+
+    private void resolve(String term, long resolvedGeneration) {
+        if (term.isEmpty() || isKnownToHaveNoMatches(term)) {
+            publish(term, resolvedGeneration);
+            return;
+        }
+
+        recipeRepository.hasMatches(term, searchMode)
+                .thenAccept(hasMatches -> {
+                    if (!hasMatches && narrowsWhenExtended(term)) {
+                        termWithoutMatches = term;
+                    }
+                    publish(term, resolvedGeneration);
+                })
+                .exceptionally(e -> {
+                    Log.e(getClass().getName(), e.getMessage());
+                    publish(term, resolvedGeneration);
+                    return null;
+                });
+    }
+
+    private void publish(String term, long resolvedGeneration) {
+        if (resolvedGeneration == generation.get()) {
+            searchTerm.postValue(term);
+        }
+    }
+
+    // anything else, like a space followed by OR, could widen a full-text query instead of narrowing it
+    private boolean onlyLettersOrDigits(String text) {
+        return text.codePoints().allMatch(Character::isLetterOrDigit);
+    }
+
+}
@@ -0,0 +1,240 @@
+package com.flauschcode.broccoli.recipe.search;
+
+import android.database.Cursor;
+
+import com.flauschcode.broccoli.BroccoliDatabase;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+// only terms sharing enough trigrams with a word are compared by edit distance,
+// terms of deleted recipes stay in the vocabulary but simply match nothing
+@Singleton
+public class FuzzyVocabulary {
+
+    static final int MAX_EXPANSIONS = 5;
+
+    // words shorter than this are too ambiguous to be corrected
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int LONG_WORD_LENGTH = 8;
+    private static final String BOUNDARY = " ";
+
+    private final BroccoliDatabase database;
+    private final Object loadLock = new Object();
+
+    // replaced as a whole when the vocabulary has been read, so that searching never waits for the full-text index
+    private volatile Terms terms = new Terms(false);
+
+    @Inject
+    public FuzzyVocabulary(BroccoliDatabase database) {
+        this.database = database;
+    }
+
+    // no lock is held that writers need, so saving a recipe never waits for the vocabulary to be read
+    public void load() {
+        synchronized (loadLock) {
+            if (terms.loaded) {
+                return;
+            }
+
+            Terms loadedTerms = new Terms(true);
+            try (Cursor cursor = database.query("SELECT `term`, `documents` FROM `recipes_fts_terms` WHERE `col` = '*'", null)) {
+                while (cursor.moveToNext()) {
+                    loadedTerms.add(cursor.getString(0), cursor.getInt(1));
+                }
+            }
+
+            synchronized (this) {
+                // terms of recipes written while reading are added again, those already read keep their count
+                terms.documentCounts.keySet().forEach(term -> loadedTerms.add(term, 1));
+                terms = loadedTerms;
+            }
+        }
+    }
+
+    // called after the commit, terms that are already known keep their document count
+    public synchronized void add(String... texts) {
+        Set<String> newTerms = new LinkedHashSet<>();
+        for (String text : texts) {
+            newTerms.addAll(tokenize(text));
+        }
+        newTerms.forEach(term -> terms.add(term, 1));
+    }
+
+    // the last word is matched as a prefix, just like the prefix search does
+    public String expand(String searchTerm) {
+        List<String> words = tokenize(searchTerm);
+        if (words.isEmpty()) {
+            return String.format("%s*", searchTerm);
+        }
+
+        // in the standard query syntax OR binds tighter than the implicit AND between the words
+        List<String> clauses = new ArrayList<>();
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            Set<String> alternatives = new LinkedHashSet<>();
+            alternatives.add(i == words.size() - 1 ? word + "*" : word);
+            alternatives.addAll(findSimilar(word));
+            clauses.add(String.join(" OR ", alternatives));
+        }
+        return String.join(" ", clauses);
+    }
+
+    // package private for testing purposes
+    List<String> findSimilar(String word) {
+        Terms terms = this.terms;
+        int maxDistance = maxDistanceFor(word);
+        if (maxDistance == 0) {
+            return new ArrayList<>();
+        }
+
+        int wordLength = length(word);
+        Set<String> trigrams = trigramsOf(word);
+        Map<String, Integer> sharedTrigrams = new HashMap<>();
+        for (String trigram : trigrams) {
+            for (String term : terms.termsByTrigram.getOrDefault(trigram, Collections.emptyList())) {
+                sharedTrigrams.merge(term, 1, Integer::sum);
+            }
+        }
+
+        Map<String, Integer> distances = new HashMap<>();
+        sharedTrigrams.forEach((term, shared) -> {
+            int termLength = length(term);
+            // every edit destroys at most four trigrams of the padded word, a transposition being the worst case
+            boolean enoughShared = shared >= Math.max(wordLength, termLength) - (Trigrams.LENGTH + 1) * maxDistance;
+            if (term.equals(word) || Math.abs(termLength - wordLength) > maxDistance || !enoughShared) {
+                return;
+            }
+
+            int distance = distance(word, term, maxDistance);
+            if (distance <= maxDistance) {
+                distances.put(term, distance);
+            }
+        });
+
+        return distances.keySet().stream()
+                .sorted(Comparator.<String>comparingInt(distances::get)
+                        .thenComparing(term -> -terms.documentCounts.getOrDefault(term, 0))
+                        .thenComparing(Comparator.naturalOrder()))
+                .limit(MAX_EXPANSIONS)
+                .collect(Collectors.toList());
+    }
+
+    // a swap of adjacent characters counts as one edit, maxDistance + 1 as soon as the distance is known to be larger
+    // package private for testing purposes
+    static int distance(String a, String b, int maxDistance) {
+        int[] s = a.codePoints().toArray();
+        int[] t = b.codePoints().toArray();
+        if (Math.abs(s.length - t.length) > maxDistance) {
+            return maxDistance + 1;
+        }
+
+        int[] beforePrevious = new int[t.length + 1];
+        int[] previous = new int[t.length + 1];
+        int[] current = new int[t.length + 1];
+        for (int j = 0; j <= t.length; j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= s.length; i++) {
+            current[0] = i;
+            int rowMinimum = current[0];
+            for (int j = 1; j <= t.length; j++) {
+                int cost = s[i - 1] == t[j - 1] ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && s[i - 1] == t[j - 2] && s[i - 2] == t[j - 1]) {
+                    current[j] = Math.min(current[j], beforePrevious[j - 2] + 1);
+                }
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            if (rowMinimum > maxDistance) {
+                return maxDistance + 1;
+            }
+
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+
+        return Math.min(previous[t.length], maxDistance + 1);
+    }
+
+    // like the full-text index: lower cased, without diacritics, split at anything but letters, digits and hash signs
+    // package private for testing purposes
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+
+        String folded = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+        StringBuilder term = new StringBuilder();
+        folded.codePoints().forEach(codePoint -> {
+            if (Character.isLetterOrDigit(codePoint) || codePoint == '#') {
+                term.appendCodePoint(codePoint);
+            } else if (term.length() > 0) {
+                terms.add(term.toString());
+                term.setLength(0);
+            }
+        });
+        if (term.length() > 0) {
+            terms.add(term.toString());
+        }
+        return terms;
+    }
+
+    private static Set<String> trigramsOf(String term) {
+        return Trigrams.of(BOUNDARY + term + BOUNDARY);
+    }
+
+    private static int maxDistanceFor(String word) {
+        int length = length(word);
+        if (length < MIN_FUZZY_LENGTH) {
+            return 0;
+        }
+        return length < LONG_WORD_LENGTH ? 1 : 2;
+    }
+
+    private static int length(String term) {
+        return term.codePointCount(0, term.length());
+    }
+
+    // searches read the terms while they are added, so the maps are concurrent and the lists are replaced instead of changed
+    private static final class Terms {
+
+        private final boolean loaded;
+        private final Map<String, Integer> documentCounts = new ConcurrentHashMap<>();
+        private final Map<String, List<String>> termsByTrigram = new ConcurrentHashMap<>();
+
+        Terms(boolean loaded) {
+            this.loaded = loaded;
+        }
+
+        void add(String term, int documents) {
+            if (documentCounts.putIfAbsent(term, documents) != null) {
+                return;
+            }
+
+            trigramsOf(term).forEach(trigram -> termsByTrigram.merge(trigram, Collections.singletonList(term), (known, added) -> {
+                List<String> merged = new ArrayList<>(known);
+                merged.addAll(added);
+                return merged;
+            }));
+        }
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.flauschcode.broccoli.recipe.search;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.PrimaryKey;
+
+import com.flauschcode.broccoli.recipe.CoreRecipe;
+
+import static androidx.room.ForeignKey.CASCADE;
+
+// a recipe can contain all trigrams of a term without containing the term, so the candidates are checked against this
+@Entity(
+        tableName = "recipe_search_texts",
+        foreignKeys = {
+                @ForeignKey(
+                        entity = CoreRecipe.class,
+                        parentColumns = "recipeId",
+                        childColumns = "recipeId",
+                        onDelete = CASCADE)
+        })
+public class RecipeSearchText {
+    @PrimaryKey
+    private long recipeId;
+    @NonNull
+    private String title;
+    @NonNull
+    private String ingredients;
+
+    public RecipeSearchText(long recipeId, @NonNull String title, @NonNull String ingredients) {
+        this.recipeId = recipeId;
+        this.title = title;
+        this.ingredients = ingredients;
+    }
+
+    public long getRecipeId() {
+        return recipeId;
+    }
+
+    public void setRecipeId(long recipeId) {
+        this.recipeId = recipeId;
+    }
+
+    @NonNull
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(@NonNull String title) {
+        this.title = title;
+    }
+
+    @NonNull
+    public String getIngredients() {
+        return ingredients;
+    }
+
+    public void setIngredients(@NonNull String ingredients) {
+        this.ingredients = ingredients;
+    }
+}
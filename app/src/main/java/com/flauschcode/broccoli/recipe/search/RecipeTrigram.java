@@ -0,0 +1,53 @@
+package com.flauschcode.broccoli.recipe.search;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+
+import com.flauschcode.broccoli.recipe.CoreRecipe;
+
+import static androidx.room.ForeignKey.CASCADE;
+
+@Entity(
+        tableName = "recipe_trigrams",
+        primaryKeys = {
+                "trigram", "recipeId"
+        },
+        foreignKeys = {
+                @ForeignKey(
+                        entity = CoreRecipe.class,
+                        parentColumns = "recipeId",
+                        childColumns = "recipeId",
+                        onDelete = CASCADE)
+        },
+        indices = {
+                @Index("recipeId")
+        })
+public class RecipeTrigram {
+    @NonNull
+    private String trigram;
+    private long recipeId;
+
+    public RecipeTrigram(@NonNull String trigram, long recipeId) {
+        this.trigram = trigram;
+        this.recipeId = recipeId;
+    }
+
+    @NonNull
+    public String getTrigram() {
+        return trigram;
+    }
+
+    public void setTrigram(@NonNull String trigram) {
+        this.trigram = trigram;
+    }
+
+    public long getRecipeId() {
+        return recipeId;
+    }
+
+    public void setRecipeId(long recipeId) {
+        this.recipeId = recipeId;
+    }
+}
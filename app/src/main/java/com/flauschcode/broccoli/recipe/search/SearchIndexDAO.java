@@ -0,0 +1,26 @@
+package com.flauschcode.broccoli.recipe.search;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+@Dao
+public interface SearchIndexDAO {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insert(RecipeSearchText recipeSearchText);
+
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    void insert(List<RecipeTrigram> recipeTrigrams);
+
+    @Query("SELECT trigram FROM recipe_trigrams WHERE recipeId = :recipeId")
+    List<String> findTrigrams(long recipeId);
+
+    @Query("DELETE FROM recipe_trigrams WHERE recipeId = :recipeId AND trigram IN (:trigrams)")
+    void deleteTrigrams(long recipeId, Collection<String> trigrams);
+
+}
@@ -0,0 +1,92 @@
+package com.flauschcode.broccoli.recipe.search;
+
+import android.database.Cursor;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteStatement;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+
+public class TrigramIndex {
+
+    // SQLite allows at most 999 parameters per statement
+    private static final int MAX_PARAMETERS = 900;
+
+    private final SearchIndexDAO searchIndexDAO;
+
+    @Inject
+    public TrigramIndex(SearchIndexDAO searchIndexDAO) {
+        this.searchIndexDAO = searchIndexDAO;
+    }
+
+    public void index(long recipeId, String title, String ingredients) {
+        RecipeSearchText searchText = searchTextOf(recipeId, title, ingredients);
+        Set<String> trigrams = trigramsOf(searchText);
+        // only the trigrams that changed are written
+        Set<String> storedTrigrams = new HashSet<>(searchIndexDAO.findTrigrams(recipeId));
+
+        List<String> removedTrigrams = storedTrigrams.stream()
+                .filter(trigram -> !trigrams.contains(trigram))
+                .collect(Collectors.toList());
+        for (int start = 0; start < removedTrigrams.size(); start += MAX_PARAMETERS) {
+            searchIndexDAO.deleteTrigrams(recipeId, removedTrigrams.subList(start, Math.min(start + MAX_PARAMETERS, removedTrigrams.size())));
+        }
+
+        List<RecipeTrigram> addedTrigrams = trigrams.stream()
+                .filter(trigram -> !storedTrigrams.contains(trigram))
+                .map(trigram -> new RecipeTrigram(trigram, recipeId))
+                .collect(Collectors.toList());
+        if (!addedTrigrams.isEmpty()) {
+            searchIndexDAO.insert(addedTrigrams);
+        }
+
+        searchIndexDAO.insert(searchText);
+    }
+
+    public static void rebuild(SupportSQLiteDatabase database) {
+        database.execSQL("DELETE FROM `recipe_trigrams`");
+        database.execSQL("DELETE FROM `recipe_search_texts`");
+
+        SupportSQLiteStatement insertTrigram = database.compileStatement("INSERT OR IGNORE INTO `recipe_trigrams` (`trigram`, `recipeId`) VALUES (?, ?)");
+        SupportSQLiteStatement insertSearchText = database.compileStatement("INSERT OR REPLACE INTO `recipe_search_texts` (`recipeId`, `title`, `ingredients`) VALUES (?, ?, ?)");
+
+        try (Cursor cursor = database.query("SELECT `recipeId`, `title`, `ingredients` FROM `recipes`")) {
+            while (cursor.moveToNext()) {
+                RecipeSearchText searchText = searchTextOf(cursor.getLong(0), cursor.getString(1), cursor.getString(2));
+
+                for (String trigram : trigramsOf(searchText)) {
+                    insertTrigram.bindString(1, trigram);
+                    insertTrigram.bindLong(2, searchText.getRecipeId());
+                    insertTrigram.executeInsert();
+                }
+
+                insertSearchText.bindLong(1, searchText.getRecipeId());
+                insertSearchText.bindString(2, searchText.getTitle());
+                insertSearchText.bindString(3, searchText.getIngredients());
+                insertSearchText.executeInsert();
+            }
+        }
+    }
+
+    public static List<String> trigramsOfTerm(String normalizedTerm) {
+        return new ArrayList<>(Trigrams.of(normalizedTerm));
+    }
+
+    private static RecipeSearchText searchTextOf(long recipeId, String title, String ingredients) {
+        return new RecipeSearchText(recipeId, Trigrams.normalize(title), Trigrams.normalize(ingredients));
+    }
+
+    private static Set<String> trigramsOf(RecipeSearchText searchText) {
+        Set<String> trigrams = new LinkedHashSet<>(Trigrams.of(searchText.getTitle()));
+        trigrams.addAll(Trigrams.of(searchText.getIngredients()));
+        return trigrams;
+    }
+
+}
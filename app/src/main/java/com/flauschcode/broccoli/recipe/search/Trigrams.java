@@ -0,0 +1,45 @@
+package com.flauschcode.broccoli.recipe.search;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+// a text can only contain a substring if it contains all trigrams of that substring
+public final class Trigrams {
+
+    public static final int LENGTH = 3;
+
+    private Trigrams() {}
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        // line breaks are kept, so that no trigram spans two ingredients
+        return text.toLowerCase(Locale.ROOT)
+                .replaceAll("[\\t\\x0B\\f ]+", " ")
+                .replaceAll("\\s*[\\r\\n]+\\s*", "\n")
+                .trim();
+    }
+
+    public static String normalizeTerm(String term) {
+        return normalize(term).replaceAll("\\s+", " ");
+    }
+
+    public static Set<String> of(String normalizedText) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        int[] codePoints = normalizedText.codePoints().toArray();
+        for (int i = 0; i + LENGTH <= codePoints.length; i++) {
+            if (codePoints[i] == '\n' || codePoints[i + 1] == '\n' || codePoints[i + 2] == '\n') {
+                continue;
+            }
+            trigrams.add(new String(codePoints, i, LENGTH));
+        }
+        return trigrams;
+    }
+
+    public static boolean canBeSearched(String normalizedTerm) {
+        return normalizedTerm.codePointCount(0, normalizedTerm.length()) >= LENGTH;
+    }
+
+}
@@ -3,10 +3,8 @@ package com.flauschcode.broccoli.recipe.sharing;
 import android.app.Application;
 import android.net.Uri;
 
-import com.flauschcode.broccoli.recipe.directions.DirectionBuilder;
-import com.flauschcode.broccoli.recipe.ingredients.IngredientBuilder;
-
 import com.flauschcode.broccoli.R;
+import com.flauschcode.broccoli.recipe.ParsedRecipeCache;
 import com.flauschcode.broccoli.recipe.Recipe;
 import com.flauschcode.broccoli.recipe.images.RecipeImageService;
 
@@ -18,11 +16,13 @@ public class ShareableRecipeBuilder {
 
     private Application application;
     private RecipeImageService recipeImageService;
+    private ParsedRecipeCache parsedRecipeCache;
 
     @Inject
-    ShareableRecipeBuilder(Application application, RecipeImageService recipeImageService) {
+    ShareableRecipeBuilder(Application application, RecipeImageService recipeImageService, ParsedRecipeCache parsedRecipeCache) {
         this.application = application;
         this.recipeImageService = recipeImageService;
+        this.parsedRecipeCache = parsedRecipeCache;
     }
 
     public ShareableRecipe from(Recipe recipe) {
@@ -59,13 +59,13 @@ public class ShareableRecipeBuilder {
 
         if(!"".equals(recipe.getIngredients())) {
             stringBuilder.append(getIngredientsString()).append(":\n");
-            IngredientBuilder.from(recipe.getIngredients()).forEach(ingredient -> stringBuilder.append("- ").append(ingredient.getQuantity()).append(ingredient.getText()).append("\n"));
+            parsedRecipeCache.getIngredients(recipe).forEach(ingredient -> stringBuilder.append("- ").append(ingredient.getQuantity()).append(ingredient.getText()).append("\n"));
             stringBuilder.append("\n");
         }
 
         if(!"".equals(recipe.getDirections())) {
             stringBuilder.append(getDirectionsString()).append(":\n");
-            DirectionBuilder.from(recipe.getDirections()).forEach(direction -> stringBuilder.append(direction.getPosition()).append(". ").append(direction.getText()).append("\n"));
+            parsedRecipeCache.getDirections(recipe).forEach(direction -> stringBuilder.append(direction.getPosition()).append(". ").append(direction.getText()).append("\n"));
             stringBuilder.append("\n");
         }
 
@@ -20,12 +20,15 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.flauschcode.broccoli.BR;
 import com.flauschcode.broccoli.R;
 import com.flauschcode.broccoli.RecyclerViewAdapter;
+import com.flauschcode.broccoli.recipe.RecipeRepository;
 
 import java.time.Month;
 import java.time.format.TextStyle;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
@@ -37,7 +40,12 @@ public class MonthFragment extends Fragment {
     @Inject
     SeasonalCalendarHolder seasonalCalendarHolder;
 
+    @Inject
+    RecipeRepository recipeRepository;
+
     private final Month month;
+    private SeasonalCalendar seasonalCalendar;
+    private Map<String, Integer> recipeCounts = Collections.emptyMap();
 
     public MonthFragment() {
         super();
@@ -63,7 +71,7 @@ public class MonthFragment extends Fragment {
         recyclerView.setLayoutManager(new LinearLayoutManager(getActivity()));
         recyclerView.addItemDecoration(new DividerItemDecoration(getContext(), DividerItemDecoration.VERTICAL));
 
-        ListAdapter<SeasonalFood, RecyclerViewAdapter<SeasonalFood>.Holder> adapter = new RecyclerViewAdapter<SeasonalFood>() {
+        ListAdapter<SeasonalFoodItem, RecyclerViewAdapter<SeasonalFoodItem>.Holder> adapter = new RecyclerViewAdapter<SeasonalFoodItem>() {
             @Override
             protected int getLayoutResourceId() {
                 return R.layout.seasonal_food_item;
@@ -71,12 +79,12 @@ public class MonthFragment extends Fragment {
 
             @Override
             protected int getBindingVariableId() {
-                return BR.seasonalFood;
+                return BR.seasonalFoodItem;
             }
 
             @Override
-            protected void onItemClick(SeasonalFood seasonalFood) {
-                SeasonsFragmentDirections.ActionSearchForSeasonalFood actionSearchForSeasonalFood = SeasonsFragmentDirections.actionSearchForSeasonalFood(seasonalFood);
+            protected void onItemClick(SeasonalFoodItem seasonalFoodItem) {
+                SeasonsFragmentDirections.ActionSearchForSeasonalFood actionSearchForSeasonalFood = SeasonsFragmentDirections.actionSearchForSeasonalFood(seasonalFoodItem.getSeasonalFood());
                 navController.navigate(actionSearchForSeasonalFood);
             }
 
@@ -88,11 +96,35 @@ public class MonthFragment extends Fragment {
         recyclerView.setAdapter(adapter);
 
         Collator collator = Collator.getInstance(getResources().getConfiguration().getLocales().get(0));
-        seasonalCalendarHolder.get().ifPresent(seasonalCalendar -> adapter.submitList(seasonalCalendar.getSeasonalFoodFor(month).stream().sorted(Comparator.comparing(SeasonalFood::getName, collator)).collect(Collectors.toList())));
+        seasonalCalendarHolder.getSeasonalCalendar().observe(getViewLifecycleOwner(), seasonalCalendarOptional -> seasonalCalendarOptional.ifPresent(seasonalCalendar -> {
+            this.seasonalCalendar = seasonalCalendar;
+            submitSeasonalFood(adapter, collator);
+        }));
+        recipeRepository.countRecipesBySeasonalFood().observe(getViewLifecycleOwner(), recipeCounts -> {
+            this.recipeCounts = recipeCounts;
+            submitSeasonalFood(adapter, collator);
+        });
 
         return root;
     }
 
+    private void submitSeasonalFood(ListAdapter<SeasonalFoodItem, RecyclerViewAdapter<SeasonalFoodItem>.Holder> adapter, Collator collator) {
+        if (seasonalCalendar == null) {
+            return;
+        }
+
+        adapter.submitList(seasonalCalendar.getSeasonalFoodFor(month).stream()
+                .sorted(Comparator.comparing(SeasonalFood::getName, collator))
+                .map(seasonalFood -> new SeasonalFoodItem(seasonalFood, recipeCounts.getOrDefault(seasonalFood.getResourceName(), 0)))
+                .collect(Collectors.toList()));
+    }
+
+    @BindingAdapter("recipeCount")
+    public static void bind(TextView textView, int recipeCount) {
+        Resources resources = textView.getContext().getResources();
+        textView.setText(recipeCount == 0 ? resources.getString(R.string.seasonal_food_no_recipes) : resources.getQuantityString(R.plurals.seasonal_food_recipes, recipeCount, recipeCount));
+    }
+
     @BindingAdapter("months")
     public static void bind(TextView textView, List<Month> months) {
         Month first = months.get(0);
@@ -0,0 +1,90 @@
+package com.flauschcode.broccoli.seasons;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+
+import com.flauschcode.broccoli.recipe.CoreRecipe;
+
+import java.util.Objects;
+
+import static androidx.room.ForeignKey.CASCADE;
+
+// the months are a bit mask of SeasonalFoodIndex.bitOf, so that the recipes of a month are found without the calendar
+@Entity(
+        tableName = "recipe_seasonal_food",
+        primaryKeys = {
+                "recipeId", "food"
+        },
+        foreignKeys = {
+                @ForeignKey(
+                        entity = CoreRecipe.class,
+                        parentColumns = "recipeId",
+                        childColumns = "recipeId",
+                        onDelete = CASCADE)
+        },
+        indices = {
+                @Index("food")
+        })
+public class RecipeSeasonalFood {
+    private long recipeId;
+    @NonNull
+    private String food;
+    private int months;
+
+    public RecipeSeasonalFood(long recipeId, @NonNull String food, int months) {
+        this.recipeId = recipeId;
+        this.food = food;
+        this.months = months;
+    }
+
+    public long getRecipeId() {
+        return recipeId;
+    }
+
+    public void setRecipeId(long recipeId) {
+        this.recipeId = recipeId;
+    }
+
+    @NonNull
+    public String getFood() {
+        return food;
+    }
+
+    public void setFood(@NonNull String food) {
+        this.food = food;
+    }
+
+    public int getMonths() {
+        return months;
+    }
+
+    public void setMonths(int months) {
+        this.months = months;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RecipeSeasonalFood that = (RecipeSeasonalFood) o;
+        return recipeId == that.recipeId &&
+                months == that.months &&
+                food.equals(that.food);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(recipeId, food, months);
+    }
+
+    @Override
+    public String toString() {
+        return "RecipeSeasonalFood{" +
+                "recipeId=" + recipeId +
+                ", food='" + food + '\'' +
+                ", months=" + months +
+                '}';
+    }
+}
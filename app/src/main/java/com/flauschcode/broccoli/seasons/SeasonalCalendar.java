@@ -13,6 +13,7 @@ import java.util.Set;
 public class SeasonalCalendar {
 
     private final Map<Month, List<SeasonalFood>> calendar;
+    private final Map<Month, SeasonalMatcher> matchers = new EnumMap<>(Month.class);
 
     public SeasonalCalendar() {
         this.calendar = new EnumMap<>(Month.class);
@@ -33,8 +34,17 @@ public class SeasonalCalendar {
         return searchTerms;
     }
 
-    public void add(SeasonalFood seasonalFood, Month month) {
+    public SeasonalMatcher getMatcherForCurrentMonth() {
+        return getMatcherFor(LocalDate.now().getMonth());
+    }
+
+    public synchronized SeasonalMatcher getMatcherFor(Month month) {
+        return matchers.computeIfAbsent(month, m -> new SeasonalMatcher(getSearchTermsFor(m)));
+    }
+
+    public synchronized void add(SeasonalFood seasonalFood, Month month) {
         calendar.get(month).add(seasonalFood);
+        matchers.remove(month);
     }
 
 }
@@ -2,118 +2,138 @@ package com.flauschcode.broccoli.seasons;
 
 import android.app.Application;
 import android.content.SharedPreferences;
-import android.content.res.Configuration;
-import android.content.res.Resources;
+import android.content.res.AssetFileDescriptor;
+import android.content.res.AssetManager;
 import android.util.Log;
 
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
 import androidx.preference.PreferenceManager;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flauschcode.broccoli.concurrent.BroccoliExecutors;
 
+import org.apache.commons.io.IOUtils;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.HashSet;
-import java.util.List;
-import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
+import java.util.concurrent.CopyOnWriteArraySet;
 
+// readers never wait for the calendar, they get the latest snapshot or are told when a new one has been published
 public class SeasonalCalendarHolder implements SharedPreferences.OnSharedPreferenceChangeListener {
 
     private final Application application;
+    private final BroccoliExecutors executors;
+    private final MutableLiveData<Optional<SeasonalCalendar>> liveSeasonalCalendar = new MutableLiveData<>();
+    private final Set<Runnable> changeListeners = new CopyOnWriteArraySet<>();
+
+    private volatile Optional<SeasonalCalendar> seasonalCalendar = Optional.empty();
+    private CompletableFuture<Optional<SeasonalCalendar>> loading;
 
-    private SeasonalCalendar seasonalCalendar;
-    
-    public SeasonalCalendarHolder(Application application) {
+    public SeasonalCalendarHolder(Application application, BroccoliExecutors executors) {
         this.application = application;
+        this.executors = executors;
         PreferenceManager.getDefaultSharedPreferences(application).registerOnSharedPreferenceChangeListener(this);
     }
 
-    // TODO work with LiveData
-    public Optional<SeasonalCalendar> get() {
-        if (seasonalCalendar == null) {
-            Log.d(getClass().getName(), "Try to build seasonal calendar because it is still null.");
-            tryToBuildSeasonalCalendar();
+    public void preload() {
+        load();
+    }
+
+    // later calls get the same future until the region or the languages change
+    public synchronized CompletableFuture<Optional<SeasonalCalendar>> load() {
+        if (loading == null) {
+            reload();
         }
-        
-        return Optional.ofNullable(seasonalCalendar);
+        return loading;
+    }
+
+    // empty if no region has been chosen or the calendar is still loading
+    public Optional<SeasonalCalendar> get() {
+        load();
+        return seasonalCalendar;
+    }
+
+    public LiveData<Optional<SeasonalCalendar>> getSeasonalCalendar() {
+        load();
+        return liveSeasonalCalendar;
+    }
+
+    // the listener is called on a background thread
+    public void addChangeListener(Runnable listener) {
+        changeListeners.add(listener);
+    }
+
+    public void removeChangeListener(Runnable listener) {
+        changeListeners.remove(listener);
+    }
+
+    private synchronized void reload() {
+        CompletableFuture<Optional<SeasonalCalendar>> future = CompletableFuture.supplyAsync(this::buildSeasonalCalendar, executors.io());
+        loading = future;
+        future.thenAccept(builtSeasonalCalendar -> publish(future, builtSeasonalCalendar));
     }
 
-    private synchronized void tryToBuildSeasonalCalendar() {
-        if (seasonalCalendar != null) {
-            return;
+    private void publish(CompletableFuture<Optional<SeasonalCalendar>> future, Optional<SeasonalCalendar> builtSeasonalCalendar) {
+        synchronized (this) {
+            if (future != loading) {
+                // the preferences have changed while this calendar was built, the newer one will be published instead
+                return;
+            }
+            seasonalCalendar = builtSeasonalCalendar;
         }
+        liveSeasonalCalendar.postValue(builtSeasonalCalendar);
+        changeListeners.forEach(Runnable::run);
+    }
 
+    private Optional<SeasonalCalendar> buildSeasonalCalendar() {
         SharedPreferences sharedPreferences = PreferenceManager.getDefaultSharedPreferences(application);
         String resourceName = sharedPreferences.getString("seasonal-calendar-region", null);
         if (resourceName == null) {
             Log.d(getClass().getName(), "No region has been selected yet.");
-            return;
+            return Optional.empty();
         }
 
         Set<String> languages = sharedPreferences.getStringSet("seasonal-calendar-languages", new HashSet<>());
         if (languages.isEmpty()) {
             Log.d(getClass().getName(), "No languages have been selected yet.");
-            return;
+            return Optional.empty();
         }
 
-        List<Resources> resources = new ArrayList<>();
-        languages.forEach(language -> {
-            Configuration configuration = new Configuration(application.getResources().getConfiguration());
-            configuration.setLocale(Locale.forLanguageTag(language));
-            resources.add(application.createConfigurationContext(configuration).getResources());
-        });
-
-        SeasonalCalendarJson seasonalCalendarJson;
-        int resourceId = application.getResources().getIdentifier(resourceName, "raw", application.getPackageName());
-        try (InputStream inputStream = application.getResources().openRawResource(resourceId)) {
-            ObjectMapper objectMapper = new ObjectMapper();
-            seasonalCalendarJson = objectMapper.readValue(inputStream, SeasonalCalendarJson.class);
+        try {
+            SeasonalCalendarIndex seasonalCalendarIndex = SeasonalCalendarIndex.read(mapSeasonalCalendarIndex(resourceName));
+            return Optional.of(seasonalCalendarIndex.toSeasonalCalendar(languages, application.getResources().getConfiguration().getLocales().get(0)));
         } catch (IOException e) {
             Log.e(getClass().getName(), e.getMessage());
-            return;
+            return Optional.empty();
         }
-
-        seasonalCalendar = new SeasonalCalendar();
-        seasonalCalendarJson.getFood().forEach(seasonalFoodJson -> {
-            SeasonalFood seasonalFood = new SeasonalFood(getLocalizedNameFor(seasonalFoodJson.getName()), getSearchTermsFor(seasonalFoodJson.getName(), resources), seasonalFoodJson.getMonths());
-            seasonalFoodJson.getMonths().forEach(month -> seasonalCalendar.add(seasonalFood, month));
-        });
     }
 
-    private String getLocalizedNameFor(String seasonalFoodName) {
-        return getLocalizedResource(seasonalFoodName, seasonalFoodName);
-    }
-
-    private String getSearchTermsFor(String seasonalFoodName, List<Resources> resources) {
-        return resources.stream()
-                .map(resource -> getLocalizedResource(resource, seasonalFoodName + "_terms", seasonalFoodName))
-                .collect(Collectors.joining(", "));
-    }
-
-    private String getLocalizedResource(String resourceName, String fallback) {
-        return getLocalizedResource(application.getResources(), resourceName, fallback);
-    }
-
-    private String getLocalizedResource(Resources resources, String resourceName, String fallback) {
-        int resourceId = resources.getIdentifier(resourceName, "string", application.getPackageName());
-        try {
-            return resources.getString(resourceId);
-        } catch (Resources.NotFoundException e) {
-            Log.e(getClass().getName(), "Could not get localized resource for '" + resourceName + "'.");
+    private ByteBuffer mapSeasonalCalendarIndex(String region) throws IOException {
+        String path = SeasonalCalendarIndex.DIRECTORY + "/" + region + ".bin";
+        AssetManager assets = application.getAssets();
+        try (AssetFileDescriptor descriptor = assets.openFd(path); FileInputStream inputStream = descriptor.createInputStream()) {
+            return inputStream.getChannel().map(FileChannel.MapMode.READ_ONLY, descriptor.getStartOffset(), descriptor.getLength());
+        } catch (FileNotFoundException e) {
+            // only uncompressed assets can be mapped, see noCompress in build.gradle
+            try (InputStream inputStream = assets.open(path)) {
+                return ByteBuffer.wrap(IOUtils.toByteArray(inputStream));
+            }
         }
-        return fallback;
     }
 
     @Override
     public void onSharedPreferenceChanged(SharedPreferences sharedPreferences, String s) {
         if (s.equals("seasonal-calendar-region") || s.equals("seasonal-calendar-languages")) {
             Log.d(getClass().getName(), "Reloading seasonal calendar...");
-            seasonalCalendar = null;
-            CompletableFuture.runAsync(this::tryToBuildSeasonalCalendar);
+            reload();
         }
     }
 }
@@ -0,0 +1,174 @@
+package com.flauschcode.broccoli.seasons;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A seasonal calendar as compiled at build time by the compileSeasonalCalendars task in build.gradle: the months of
+ * every food together with its name and search terms in every language, so that loading a calendar needs neither a
+ * JSON parser nor a reflective resource lookup per food and language.
+ * <p>
+ * Numbers are big endian, strings are UTF-8 prefixed with their length in bytes as an unsigned short.
+ * <pre>
+ * int     magic, "BRSC"
+ * short   version
+ * short   number of languages, followed by their tags, "" being the default resources
+ * short   number of food, each with
+ *         string  resource name
+ *         byte    number of months, followed by the months, 0 being January
+ *         string  name and string search terms per language, "" if there is no translation
+ * </pre>
+ */
+class SeasonalCalendarIndex {
+
+    static final String DIRECTORY = "seasons";
+
+    private static final int MAGIC = 0x42525343;
+    private static final int VERSION = 1;
+    private static final String DEFAULT_LANGUAGE = "";
+
+    private final Map<String, Integer> languages;
+    private final List<Food> food;
+
+    private SeasonalCalendarIndex(Map<String, Integer> languages, List<Food> food) {
+        this.languages = languages;
+        this.food = food;
+    }
+
+    static SeasonalCalendarIndex read(ByteBuffer buffer) throws IOException {
+        try {
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+                throw new IOException("Not a seasonal calendar index of version " + VERSION + ".");
+            }
+
+            int languageCount = Short.toUnsignedInt(buffer.getShort());
+            Map<String, Integer> languages = new HashMap<>();
+            for (int i = 0; i < languageCount; i++) {
+                languages.put(readString(buffer), i);
+            }
+
+            int foodCount = Short.toUnsignedInt(buffer.getShort());
+            List<Food> food = new ArrayList<>(foodCount);
+            for (int i = 0; i < foodCount; i++) {
+                String resourceName = readString(buffer);
+                int monthCount = Byte.toUnsignedInt(buffer.get());
+                List<Month> months = new ArrayList<>(monthCount);
+                for (int j = 0; j < monthCount; j++) {
+                    months.add(Month.of(buffer.get() + 1));
+                }
+
+                String[] names = new String[languageCount];
+                String[] terms = new String[languageCount];
+                for (int j = 0; j < languageCount; j++) {
+                    names[j] = readString(buffer);
+                    terms[j] = readString(buffer);
+                }
+                food.add(new Food(resourceName, Collections.unmodifiableList(months), names, terms));
+            }
+
+            return new SeasonalCalendarIndex(languages, food);
+        } catch (BufferUnderflowException | DateTimeException e) {
+            throw new IOException("Corrupt seasonal calendar index.", e);
+        }
+    }
+
+    // like Android resources, a missing translation falls back to the default language
+    SeasonalCalendar toSeasonalCalendar(Collection<String> searchLanguages, Locale locale) {
+        List<Integer> nameLanguages = languagesFor(locale);
+        List<List<Integer>> termLanguages = searchLanguages.stream()
+                .map(searchLanguage -> languagesFor(Locale.forLanguageTag(searchLanguage)))
+                .collect(Collectors.toList());
+
+        SeasonalCalendar seasonalCalendar = new SeasonalCalendar();
+        food.forEach(entry -> {
+            String name = entry.resolve(entry.names, nameLanguages);
+            String terms = termLanguages.stream()
+                    .map(languages -> entry.resolve(entry.terms, languages))
+                    .collect(Collectors.joining(", "));
+            SeasonalFood seasonalFood = new SeasonalFood(entry.resourceName, name, terms, new ArrayList<>(entry.months));
+            entry.months.forEach(month -> seasonalCalendar.add(seasonalFood, month));
+        });
+        return seasonalCalendar;
+    }
+
+    // the indices of the languages matching the locale, most specific first, ending with the default language
+    private List<Integer> languagesFor(Locale locale) {
+        Set<String> languageTags = new LinkedHashSet<>();
+        for (String language : new String[]{locale.getLanguage(), legacyCodeOf(locale.getLanguage())}) {
+            if (!locale.getScript().isEmpty()) {
+                languageTags.add(language + "-" + locale.getScript());
+            }
+            if (!locale.getCountry().isEmpty()) {
+                languageTags.add(language + "-" + locale.getCountry());
+            }
+            languageTags.add(language);
+        }
+        languageTags.add(DEFAULT_LANGUAGE);
+
+        return languageTags.stream()
+                .map(languages::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    // Android resources still use the codes that were replaced in ISO 639, e.g. values-iw for Hebrew
+    private static String legacyCodeOf(String language) {
+        switch (language) {
+            case "he":
+                return "iw";
+            case "id":
+                return "in";
+            case "yi":
+                return "ji";
+            default:
+                return language;
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class Food {
+        private final String resourceName;
+        private final List<Month> months;
+        private final String[] names;
+        private final String[] terms;
+
+        private Food(String resourceName, List<Month> months, String[] names, String[] terms) {
+            this.resourceName = resourceName;
+            this.months = months;
+            this.names = names;
+            this.terms = terms;
+        }
+
+        private String resolve(String[] translations, List<Integer> languages) {
+            for (int language : languages) {
+                if (!translations[language].isEmpty()) {
+                    return translations[language];
+                }
+            }
+            return resourceName;
+        }
+    }
+
+}
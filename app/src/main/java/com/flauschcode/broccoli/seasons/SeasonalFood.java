@@ -9,16 +9,27 @@ import java.util.Objects;
 
 public class SeasonalFood implements Serializable {
 
+    // identifies the food regardless of the language its name and terms are in
+    private final String resourceName;
     private final String name;
     private final List<String> terms;
     private final List<Month> months;
 
     public SeasonalFood(String name, String terms, List<Month> months) {
+        this(name, name, terms, months);
+    }
+
+    public SeasonalFood(String resourceName, String name, String terms, List<Month> months) {
+        this.resourceName = resourceName;
         this.name = name;
         this.terms = new ArrayList<>(Arrays.asList(terms.split("\\s*,\\s*")));
         this.months = months;
     }
 
+    public String getResourceName() {
+        return resourceName;
+    }
+
     public String getName() {
         return name;
     }
@@ -36,13 +47,14 @@ public class SeasonalFood implements Serializable {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         SeasonalFood that = (SeasonalFood) o;
-        return Objects.equals(name, that.name) &&
+        return Objects.equals(resourceName, that.resourceName) &&
+                Objects.equals(name, that.name) &&
                 Objects.equals(terms, that.terms) &&
                 Objects.equals(months, that.months);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(name, terms, months);
+        return Objects.hash(resourceName, name, terms, months);
     }
 }
@@ -0,0 +1,23 @@
+package com.flauschcode.broccoli.seasons;
+
+import androidx.annotation.NonNull;
+
+public class SeasonalFoodCount {
+    @NonNull
+    private final String food;
+    private final int recipeCount;
+
+    public SeasonalFoodCount(@NonNull String food, int recipeCount) {
+        this.food = food;
+        this.recipeCount = recipeCount;
+    }
+
+    @NonNull
+    public String getFood() {
+        return food;
+    }
+
+    public int getRecipeCount() {
+        return recipeCount;
+    }
+}
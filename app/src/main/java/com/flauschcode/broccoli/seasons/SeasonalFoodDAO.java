@@ -0,0 +1,26 @@
+package com.flauschcode.broccoli.seasons;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public interface SeasonalFoodDAO {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insert(List<RecipeSeasonalFood> recipeSeasonalFood);
+
+    @Query("DELETE FROM recipe_seasonal_food WHERE recipeId = :recipeId")
+    void deleteFor(long recipeId);
+
+    @Query("SELECT * FROM recipe_seasonal_food WHERE recipeId = :recipeId ORDER BY food")
+    List<RecipeSeasonalFood> findFor(long recipeId);
+
+    @Query("SELECT food, COUNT(*) AS recipeCount FROM recipe_seasonal_food GROUP BY food")
+    LiveData<List<SeasonalFoodCount>> countRecipes();
+
+}
@@ -0,0 +1,190 @@
+package com.flauschcode.broccoli.seasons;
+
+import android.app.Application;
+import android.content.SharedPreferences;
+import android.database.Cursor;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Transformations;
+import androidx.preference.PreferenceManager;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteStatement;
+
+import com.flauschcode.broccoli.BroccoliDatabase;
+import com.flauschcode.broccoli.concurrent.BroccoliExecutors;
+
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+// the food is stored by its resource name, which does not change with the language of the calendar
+@Singleton
+public class SeasonalFoodIndex {
+
+    // the calendar the table has been built for, so that it is not rebuilt on every start
+    private static final String CALENDAR_KEY = "seasonal-food-index-calendar";
+
+    private final Application application;
+    private final BroccoliDatabase database;
+    private final SeasonalFoodDAO seasonalFoodDAO;
+    private final SeasonalCalendarHolder seasonalCalendarHolder;
+    private final BroccoliExecutors executors;
+
+    private volatile Terms terms = new Terms(null);
+    private LiveData<Map<String, Integer>> recipeCounts;
+
+    @Inject
+    public SeasonalFoodIndex(Application application, BroccoliDatabase database, SeasonalFoodDAO seasonalFoodDAO, SeasonalCalendarHolder seasonalCalendarHolder, BroccoliExecutors executors) {
+        this.application = application;
+        this.database = database;
+        this.seasonalFoodDAO = seasonalFoodDAO;
+        this.seasonalCalendarHolder = seasonalCalendarHolder;
+        this.executors = executors;
+        seasonalCalendarHolder.addChangeListener(this::rebuildIfCalendarChanged);
+        seasonalCalendarHolder.load().thenRun(this::rebuildIfCalendarChanged);
+    }
+
+    public static int bitOf(Month month) {
+        return 1 << (month.getValue() - 1);
+    }
+
+    // food without recipes is missing, Room runs the query again whenever recipes have been indexed
+    public synchronized LiveData<Map<String, Integer>> getRecipeCounts() {
+        if (recipeCounts == null) {
+            recipeCounts = Transformations.map(seasonalFoodDAO.countRecipes(), seasonalFoodCounts -> {
+                Map<String, Integer> counts = new HashMap<>();
+                seasonalFoodCounts.forEach(seasonalFoodCount -> counts.put(seasonalFoodCount.getFood(), seasonalFoodCount.getRecipeCount()));
+                return counts;
+            });
+        }
+        return recipeCounts;
+    }
+
+    // called before the transaction that indexes recipes, so that it is not held open while the calendar is read
+    public void awaitCalendar() {
+        termsOf(seasonalCalendarHolder.load().join());
+    }
+
+    // a calendar loaded since awaitCalendar causes a rebuild of the whole table anyway
+    public void index(long recipeId, String ingredients) {
+        List<RecipeSeasonalFood> recipeSeasonalFood = terms.find(recipeId, ingredients);
+        seasonalFoodDAO.deleteFor(recipeId);
+        if (!recipeSeasonalFood.isEmpty()) {
+            seasonalFoodDAO.insert(recipeSeasonalFood);
+        }
+    }
+
+    private void rebuildIfCalendarChanged() {
+        CompletableFuture.runAsync(() -> {
+            Terms currentTerms = termsOf(seasonalCalendarHolder.load().join());
+            SharedPreferences sharedPreferences = PreferenceManager.getDefaultSharedPreferences(application);
+            if (currentTerms.getFingerprint().equals(sharedPreferences.getString(CALENDAR_KEY, null))) {
+                return;
+            }
+
+            database.runInTransaction(() -> rebuild(database.getOpenHelper().getWritableDatabase(), currentTerms));
+            sharedPreferences.edit().putString(CALENDAR_KEY, currentTerms.getFingerprint()).apply();
+        }, executors.databaseWriter());
+    }
+
+    private Terms termsOf(Optional<SeasonalCalendar> seasonalCalendar) {
+        Terms currentTerms = terms;
+        if (currentTerms.seasonalCalendar != seasonalCalendar.orElse(null)) {
+            currentTerms = new Terms(seasonalCalendar.orElse(null));
+            terms = currentTerms;
+        }
+        return currentTerms;
+    }
+
+    private static void rebuild(SupportSQLiteDatabase database, Terms terms) {
+        database.execSQL("DELETE FROM `recipe_seasonal_food`");
+        if (terms.isEmpty()) {
+            return;
+        }
+
+        SupportSQLiteStatement insert = database.compileStatement("INSERT OR REPLACE INTO `recipe_seasonal_food` (`recipeId`, `food`, `months`) VALUES (?, ?, ?)");
+        try (Cursor cursor = database.query("SELECT `recipeId`, `ingredients` FROM `recipes`")) {
+            while (cursor.moveToNext()) {
+                for (RecipeSeasonalFood recipeSeasonalFood : terms.find(cursor.getLong(0), cursor.getString(1))) {
+                    insert.bindLong(1, recipeSeasonalFood.getRecipeId());
+                    insert.bindString(2, recipeSeasonalFood.getFood());
+                    insert.bindLong(3, recipeSeasonalFood.getMonths());
+                    insert.executeInsert();
+                }
+            }
+        }
+    }
+
+    // the terms are matched as whole words regardless of case, so that "Knoblauch" is not taken for "Lauch"
+    // package private for testing purposes
+    static final class Terms {
+
+        private final SeasonalCalendar seasonalCalendar;
+        private final SeasonalMatcher matcher;
+        private final Map<String, List<SeasonalFood>> foodByTerm = new HashMap<>();
+        private final String fingerprint;
+
+        Terms(SeasonalCalendar seasonalCalendar) {
+            this.seasonalCalendar = seasonalCalendar;
+
+            Map<String, SeasonalFood> food = new TreeMap<>();
+            if (seasonalCalendar != null) {
+                Arrays.stream(Month.values())
+                        .flatMap(month -> seasonalCalendar.getSeasonalFoodFor(month).stream())
+                        .forEach(seasonalFood -> food.putIfAbsent(seasonalFood.getResourceName(), seasonalFood));
+            }
+
+            food.values().forEach(seasonalFood -> seasonalFood.getTerms().stream()
+                    .filter(term -> !term.isEmpty())
+                    .forEach(term -> foodByTerm.computeIfAbsent(term.toLowerCase(Locale.ROOT), t -> new ArrayList<>()).add(seasonalFood)));
+            this.matcher = SeasonalMatcher.forWholeWords(foodByTerm.keySet());
+            this.fingerprint = Integer.toHexString(new ArrayList<>(food.values()).hashCode());
+        }
+
+        boolean isEmpty() {
+            return foodByTerm.isEmpty();
+        }
+
+        // covers the resource names, terms and months of the food, which is all that the table depends on
+        String getFingerprint() {
+            return fingerprint;
+        }
+
+        List<RecipeSeasonalFood> find(long recipeId, String ingredients) {
+            if (isEmpty() || ingredients == null) {
+                return new ArrayList<>();
+            }
+
+            Set<SeasonalFood> food = new LinkedHashSet<>();
+            matcher.findAll(ingredients.toLowerCase(Locale.ROOT)).forEach(term -> food.addAll(foodByTerm.get(term)));
+
+            List<RecipeSeasonalFood> recipeSeasonalFood = new ArrayList<>();
+            food.stream()
+                    .sorted(Comparator.comparing(SeasonalFood::getResourceName))
+                    .forEach(seasonalFood -> recipeSeasonalFood.add(new RecipeSeasonalFood(recipeId, seasonalFood.getResourceName(), monthsOf(seasonalFood))));
+            return recipeSeasonalFood;
+        }
+
+        private static int monthsOf(SeasonalFood seasonalFood) {
+            int months = 0;
+            for (Month month : seasonalFood.getMonths()) {
+                months |= bitOf(month);
+            }
+            return months;
+        }
+    }
+
+}
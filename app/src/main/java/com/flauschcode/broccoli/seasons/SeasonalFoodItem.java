@@ -0,0 +1,36 @@
+package com.flauschcode.broccoli.seasons;
+
+import java.util.Objects;
+
+public class SeasonalFoodItem {
+
+    private final SeasonalFood seasonalFood;
+    private final int recipeCount;
+
+    public SeasonalFoodItem(SeasonalFood seasonalFood, int recipeCount) {
+        this.seasonalFood = seasonalFood;
+        this.recipeCount = recipeCount;
+    }
+
+    public SeasonalFood getSeasonalFood() {
+        return seasonalFood;
+    }
+
+    public int getRecipeCount() {
+        return recipeCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SeasonalFoodItem that = (SeasonalFoodItem) o;
+        return recipeCount == that.recipeCount &&
+                Objects.equals(seasonalFood, that.seasonalFood);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(seasonalFood, recipeCount);
+    }
+}
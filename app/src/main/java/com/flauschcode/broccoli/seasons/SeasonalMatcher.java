@@ -0,0 +1,153 @@
+package com.flauschcode.broccoli.seasons;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Finds seasonal search terms in a text in a single pass, no matter how many terms there are.
+ * The terms are compiled once into an Aho-Corasick automaton. Like the regular expression it replaced, it matches
+ * case-sensitively and a term has to end at a word boundary ("Apfel" matches "1 Apfel, 2 Birnen" but not "Apfelessig").
+ * The start of a word is not checked at all, a term may start anywhere: "Auberginen" matches "GrillAuberginen",
+ * and it does not match "Grillauberginen" only because of the case. On lowercased text a term therefore also
+ * matches the end of a longer word. A matcher built by {@link #forWholeWords(Collection)} only matches whole words,
+ * with the letters and digits of any script as word characters, like the tokenizer of the full-text index.
+ * Instances are immutable once built and can be shared between threads.
+ */
+public class SeasonalMatcher {
+
+    private final Node root = new Node();
+    private final boolean wholeWords;
+
+    public SeasonalMatcher(Collection<String> terms) {
+        this(terms, false);
+    }
+
+    private SeasonalMatcher(Collection<String> terms, boolean wholeWords) {
+        this.wholeWords = wholeWords;
+        terms.stream()
+                .filter(term -> !term.isEmpty())
+                .forEach(this::addTerm);
+        buildFailureLinks();
+    }
+
+    public static SeasonalMatcher forWholeWords(Collection<String> terms) {
+        return new SeasonalMatcher(terms, true);
+    }
+
+    public boolean matches(String text) {
+        if (text == null) {
+            return false;
+        }
+
+        Node node = root;
+        for (int i = 0; i < text.length(); i++) {
+            node = next(node, text.charAt(i));
+            if (node.output && endsWord(text, i + 1) && startsWord(node, text, i + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Set<String> findAll(String text) {
+        Set<String> terms = new HashSet<>();
+        if (text == null) {
+            return terms;
+        }
+
+        Node node = root;
+        for (int i = 0; i < text.length(); i++) {
+            node = next(node, text.charAt(i));
+            if (node.output && endsWord(text, i + 1)) {
+                for (Node suffix = node; suffix != root; suffix = suffix.failure) {
+                    if (suffix.term != null && startsWord(text, i + 1 - suffix.term.length())) {
+                        terms.add(suffix.term);
+                    }
+                }
+            }
+        }
+        return terms;
+    }
+
+    private void addTerm(String term) {
+        Node node = root;
+        for (int i = 0; i < term.length(); i++) {
+            node = node.children.computeIfAbsent(term.charAt(i), c -> new Node());
+        }
+        node.output = true;
+        node.term = term;
+    }
+
+    private void buildFailureLinks() {
+        Queue<Node> queue = new ArrayDeque<>();
+        root.failure = root;
+        root.children.values().forEach(child -> {
+            child.failure = root;
+            queue.add(child);
+        });
+
+        while (!queue.isEmpty()) {
+            Node node = queue.remove();
+            node.children.forEach((c, child) -> {
+                child.failure = next(node.failure, c);
+                child.output |= child.failure.output;
+                queue.add(child);
+            });
+        }
+    }
+
+    private Node next(Node node, char c) {
+        while (true) {
+            Node child = node.children.get(c);
+            if (child != null) {
+                return child;
+            }
+            if (node == root) {
+                return root;
+            }
+            node = node.failure;
+        }
+    }
+
+    private boolean endsWord(String text, int end) {
+        return end == text.length() || !isWordCharacter(text.charAt(end));
+    }
+
+    // whether any of the terms that end with the node starts a word
+    private boolean startsWord(Node node, String text, int end) {
+        if (!wholeWords) {
+            return true;
+        }
+        for (Node suffix = node; suffix != root; suffix = suffix.failure) {
+            if (suffix.term != null && startsWord(text, end - suffix.term.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean startsWord(String text, int start) {
+        return !wholeWords || start == 0 || !isWordCharacter(text.charAt(start - 1));
+    }
+
+    private boolean isWordCharacter(char c) {
+        if (wholeWords) {
+            return Character.isLetterOrDigit(c);
+        }
+        // same as \w of java.util.regex without UNICODE_CHARACTER_CLASS
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private Node failure;
+        private boolean output;
+        private String term;
+    }
+
+}
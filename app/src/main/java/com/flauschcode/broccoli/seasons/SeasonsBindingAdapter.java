@@ -2,8 +2,6 @@ package com.flauschcode.broccoli.seasons;
 
 import android.content.Context;
 import android.view.LayoutInflater;
-import android.view.View;
-import android.widget.ImageView;
 import android.widget.LinearLayout;
 
 import androidx.databinding.BindingAdapter;
@@ -11,36 +9,47 @@ import androidx.databinding.DataBindingUtil;
 
 import com.flauschcode.broccoli.R;
 import com.flauschcode.broccoli.databinding.IngredientItemBinding;
-import com.flauschcode.broccoli.recipe.ingredients.IngredientBuilder;
+import com.flauschcode.broccoli.recipe.ParsedRecipeCache;
+import com.flauschcode.broccoli.recipe.Recipe;
+import com.flauschcode.broccoli.recipe.ingredients.Ingredient;
+import com.flauschcode.broccoli.recipe.ingredients.Quantity;
+import com.flauschcode.broccoli.recipe.ingredients.Rational;
+import com.flauschcode.broccoli.recipe.ingredients.UnitConverter;
+import com.flauschcode.broccoli.recipe.ingredients.UnitConverter.UnitSystem;
 
-import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.List;
 
 import javax.inject.Inject;
 
 public class SeasonsBindingAdapter {
 
     private SeasonalCalendarHolder seasonalCalendarHolder;
+    private ParsedRecipeCache parsedRecipeCache;
+    private UnitConverter unitConverter;
 
     @Inject
-    public SeasonsBindingAdapter(SeasonalCalendarHolder seasonalCalendarHolder) {
+    public SeasonsBindingAdapter(SeasonalCalendarHolder seasonalCalendarHolder, ParsedRecipeCache parsedRecipeCache, UnitConverter unitConverter) {
         this.seasonalCalendarHolder = seasonalCalendarHolder;
-    }
-
-    @BindingAdapter(value = {"ingredients"}, requireAll = false)
-    public void bind(ImageView imageView, String ingredients) {
-        imageView.setVisibility(isSeasonal(ingredients)? View.VISIBLE : View.GONE);
+        this.parsedRecipeCache = parsedRecipeCache;
+        this.unitConverter = unitConverter;
     }
 
     @BindingAdapter("ingredients")
-    public void bindIngredients(LinearLayout layout, String ingredients) {
+    public void bindIngredients(LinearLayout layout, Recipe recipe) {
         layout.removeAllViews();
 
         LayoutInflater inflater = getLayoutInflater(layout);
 
-        IngredientBuilder.from(ingredients).forEach(ingredient -> {
+        List<Ingredient> ingredients = parsedRecipeCache.getIngredients(recipe);
+        UnitSystem unitSystem = unitConverter.getPreferredUnitSystem();
+        if (unitSystem != UnitSystem.AS_WRITTEN) {
+            List<Quantity> quantities = parsedRecipeCache.getQuantities(recipe);
+            for (int i = 0; i < ingredients.size(); i++) {
+                unitConverter.convert(ingredients.get(i), quantities.get(i), Rational.ONE, unitSystem);
+            }
+        }
+
+        ingredients.forEach(ingredient -> {
             ingredient.setSeasonal(isSeasonal(ingredient.getText()));
             IngredientItemBinding binding = DataBindingUtil.inflate(inflater, R.layout.ingredient_item, layout, true);
             binding.setIngredient(ingredient);
@@ -52,22 +61,9 @@ public class SeasonsBindingAdapter {
     }
 
     protected boolean isSeasonal(String ingredientText) {
-        Optional<SeasonalCalendar> seasonalCalendarOptional = seasonalCalendarHolder.get();
-
-        if (!seasonalCalendarOptional.isPresent()) {
-            return false;
-        }
-
-        SeasonalCalendar seasonalCalendar = seasonalCalendarOptional.get();
-
-        String regex = seasonalCalendar.getSearchTermsForCurrentMonth().stream().map(searchTerm -> searchTerm + "(\\W|$)").collect(Collectors.joining("|"));
-        if ("".equals(regex)) {
-            return false;
-        }
-
-        Pattern pattern = Pattern.compile(regex);
-        Matcher matcher = pattern.matcher(ingredientText);
-        return matcher.find();
+        return seasonalCalendarHolder.get()
+                .map(seasonalCalendar -> seasonalCalendar.getMatcherForCurrentMonth().matches(ingredientText))
+                .orElse(false);
     }
 
 }
@@ -2,6 +2,8 @@ package com.flauschcode.broccoli.seasons;
 
 import android.app.Application;
 
+import com.flauschcode.broccoli.concurrent.BroccoliExecutors;
+
 import javax.inject.Singleton;
 
 import dagger.Module;
@@ -12,7 +14,7 @@ public class SeasonsModule {
 
     @Provides
     @Singleton
-    SeasonalCalendarHolder seasonalCalendarHolder(Application application) {
-        return new SeasonalCalendarHolder(application);
+    SeasonalCalendarHolder seasonalCalendarHolder(Application application, BroccoliExecutors executors) {
+        return new SeasonalCalendarHolder(application, executors);
     }
 }
@@ -0,0 +1,79 @@
+package com.flauschcode.broccoli.backup;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+
+@RunWith(JUnit4.class)
+public class BackupArchiveTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void read_version_2_comment() throws IOException {
+        File archive = createArchive(BackupArchive.commentFor(42));
+
+        assertThat(readComment(archive), is(Optional.of("broccoli-archive-v2 42")));
+        assertThat(BackupArchive.versionOf(readComment(archive).get()), is(2));
+    }
+
+    @Test
+    public void read_version_1_comment() throws IOException {
+        File archive = createArchive("42");
+
+        assertThat(BackupArchive.versionOf(readComment(archive).get()), is(1));
+    }
+
+    @Test
+    public void archive_without_comment_is_version_1() throws IOException {
+        File archive = createArchive(null);
+
+        assertThat(readComment(archive), is(Optional.of("")));
+        assertThat(BackupArchive.versionOf(""), is(1));
+    }
+
+    @Test
+    public void no_comment_in_file_that_is_no_zip() throws IOException {
+        File file = temporaryFolder.newFile();
+        try (FileOutputStream fos = new FileOutputStream(file)) {
+            fos.write(new byte[100]);
+        }
+
+        assertThat(readComment(file), is(Optional.empty()));
+    }
+
+    private File createArchive(String comment) throws IOException {
+        File archive = temporaryFolder.newFile();
+        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(archive))) {
+            if (comment != null) {
+                zos.setComment(comment);
+            }
+            zos.putNextEntry(new ZipEntry(BackupArchive.MANIFEST));
+            zos.write("{}".getBytes());
+            zos.closeEntry();
+        }
+        return archive;
+    }
+
+    private Optional<String> readComment(File file) throws IOException {
+        try (FileInputStream fis = new FileInputStream(file); FileChannel channel = fis.getChannel()) {
+            return BackupArchive.readComment(channel);
+        }
+    }
+
+}
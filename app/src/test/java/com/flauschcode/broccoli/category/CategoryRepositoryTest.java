@@ -3,6 +3,7 @@ package com.flauschcode.broccoli.category;
 import com.flauschcode.broccoli.category.Category;
 import com.flauschcode.broccoli.category.CategoryDAO;
 import com.flauschcode.broccoli.category.CategoryRepository;
+import com.flauschcode.broccoli.concurrent.BroccoliExecutors;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -34,7 +35,7 @@ public class CategoryRepositoryTest {
 
     @Before
     public void setUp() {
-        categoryRepository = new CategoryRepository(application, categoryDAO);
+        categoryRepository = new CategoryRepository(application, categoryDAO, new BroccoliExecutors());
     }
 
     @Test
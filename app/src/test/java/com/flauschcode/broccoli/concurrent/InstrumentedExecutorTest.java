@@ -0,0 +1,69 @@
+package com.flauschcode.broccoli.concurrent;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.core.Is.is;
+
+public class InstrumentedExecutorTest {
+
+    @Test
+    public void count_queued_tasks() throws InterruptedException, ExecutionException {
+        InstrumentedExecutor executor = new InstrumentedExecutor("test", 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Void> blocking = CompletableFuture.runAsync(() -> {
+            started.countDown();
+            awaitQuietly(release);
+        }, executor);
+        started.await();
+        CompletableFuture<Void> queued = CompletableFuture.runAsync(() -> {}, executor);
+
+        assertThat(executor.getQueueDepth(), is(1));
+
+        release.countDown();
+        CompletableFuture.allOf(blocking, queued).get();
+
+        assertThat(executor.getQueueDepth(), is(0));
+    }
+
+    @Test
+    public void measure_latency() throws InterruptedException, ExecutionException {
+        InstrumentedExecutor executor = new InstrumentedExecutor("test", 1);
+
+        CompletableFuture.runAsync(() -> sleepQuietly(20), executor).get();
+        CompletableFuture.runAsync(() -> {}, executor).get();
+
+        // the metrics are recorded after the task itself has completed the future
+        while (executor.getCompletedTasks() < 2) {
+            Thread.sleep(1);
+        }
+
+        assertThat(executor.getCompletedTasks(), is(2L));
+        assertThat(executor.getMaxLatencyMillis(), greaterThanOrEqualTo(20L));
+        assertThat(executor.getAverageLatencyMillis(), greaterThanOrEqualTo(10L));
+    }
+
+    private void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.flauschcode.broccoli.recipe;
+
+import com.flauschcode.broccoli.recipe.directions.Direction;
+import com.flauschcode.broccoli.recipe.ingredients.Ingredient;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+@RunWith(JUnit4.class)
+public class ParsedRecipeCacheTest {
+
+    private ParsedRecipeCache parsedRecipeCache;
+    private Recipe recipe;
+
+    @Before
+    public void setUp() {
+        parsedRecipeCache = new ParsedRecipeCache(2);
+
+        recipe = new Recipe();
+        recipe.setRecipeId(12L);
+        recipe.setIngredients("500g Mehl\n8g Hefe");
+        recipe.setDirections("1. Erst dies.\n2. Dann das.");
+    }
+
+    @Test
+    public void parse_once() {
+        parsedRecipeCache.getIngredients(recipe);
+        List<Ingredient> ingredients = parsedRecipeCache.getIngredients(recipe);
+
+        assertThat(ingredients, contains(new Ingredient("500", "g Mehl"), new Ingredient("8", "g Hefe")));
+        assertThat(parsedRecipeCache.getMissCount(), is(1L));
+        assertThat(parsedRecipeCache.getHitCount(), is(1L));
+    }
+
+    @Test
+    public void ingredients_are_copied() {
+        List<Ingredient> ingredients = parsedRecipeCache.getIngredients(recipe);
+        ingredients.get(0).setQuantity("1000");
+
+        assertThat(parsedRecipeCache.getIngredients(recipe).get(0).getQuantity(), is("500"));
+    }
+
+    @Test
+    public void directions_are_shared() {
+        List<Direction> directions = parsedRecipeCache.getDirections(recipe);
+
+        assertThat(directions, hasSize(2));
+        assertThat(parsedRecipeCache.getDirections(recipe), is(sameInstance(directions)));
+    }
+
+    @Test
+    public void changed_text_is_parsed_again() {
+        parsedRecipeCache.getIngredients(recipe);
+        recipe.setIngredients("250g Mehl");
+
+        assertThat(parsedRecipeCache.getIngredients(recipe), contains(new Ingredient("250", "g Mehl")));
+        assertThat(parsedRecipeCache.getMissCount(), is(2L));
+    }
+
+    @Test
+    public void invalidate_recipe() {
+        List<Direction> directions = parsedRecipeCache.getDirections(recipe);
+        parsedRecipeCache.invalidate(12L);
+
+        assertThat(parsedRecipeCache.getDirections(recipe), is(not(sameInstance(directions))));
+        assertThat(parsedRecipeCache.getMissCount(), is(2L));
+    }
+
+    @Test
+    public void evict_least_recently_used() {
+        Recipe otherRecipe = new Recipe();
+        otherRecipe.setRecipeId(13L);
+        otherRecipe.setDirections("1. Nur das.");
+
+        List<Direction> directions = parsedRecipeCache.getDirections(recipe);
+        parsedRecipeCache.getIngredients(recipe);
+        parsedRecipeCache.getDirections(recipe);
+        parsedRecipeCache.getDirections(otherRecipe);
+
+        assertThat(parsedRecipeCache.getDirections(recipe), is(sameInstance(directions)));
+        assertThat(parsedRecipeCache.getMissCount(), is(3L));
+
+        parsedRecipeCache.getIngredients(recipe);
+        assertThat(parsedRecipeCache.getMissCount(), is(4L));
+    }
+
+}
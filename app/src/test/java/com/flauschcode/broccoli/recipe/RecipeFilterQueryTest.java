@@ -0,0 +1,127 @@
+package com.flauschcode.broccoli.recipe;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.Mockito.inOrder;
+
+import androidx.sqlite.db.SupportSQLiteProgram;
+import androidx.sqlite.db.SupportSQLiteQuery;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RecipeFilterQueryTest {
+
+    @Mock
+    private SupportSQLiteProgram program;
+
+    private final int currentMonth = 1 << 9;
+
+    @Test
+    public void list_all_recipes() {
+        SupportSQLiteQuery query = RecipeFilterQuery.compile(new RecipeFilter(), "*", currentMonth);
+
+        assertThat(query.getSql(), not(containsString("WHERE")));
+        assertThat(query.getSql(), containsString("ORDER BY recipes.title COLLATE NOCASE"));
+        assertThat(query.getArgCount(), is(1));
+    }
+
+    @Test
+    public void match_all_categories() {
+        RecipeFilter filter = new RecipeFilter();
+        filter.setCategoryIds(Arrays.asList(5L, 7L));
+        filter.setCombination(RecipeFilter.Combination.ALL);
+
+        SupportSQLiteQuery query = RecipeFilterQuery.compile(filter, "*", currentMonth);
+        query.bindTo(program);
+
+        assertThat(query.getSql(), containsString("WHERE (recipes.recipeId IN (SELECT recipeId FROM recipes_with_categories WHERE categoryId IN (?, ?) GROUP BY recipeId HAVING COUNT(*) = ?))"));
+        InOrder inOrder = inOrder(program);
+        inOrder.verify(program).bindLong(1, currentMonth);
+        inOrder.verify(program).bindLong(2, 5L);
+        inOrder.verify(program).bindLong(3, 7L);
+        inOrder.verify(program).bindLong(4, 2L);
+    }
+
+    @Test
+    public void match_any_category_or_unassigned() {
+        RecipeFilter filter = new RecipeFilter();
+        filter.setCategoryIds(Collections.singletonList(5L));
+        filter.setUnassigned(true);
+
+        SupportSQLiteQuery query = RecipeFilterQuery.compile(filter, "*", currentMonth);
+
+        assertThat(query.getSql(), containsString("WHERE (recipes.recipeId IN (SELECT recipeId FROM recipes_with_categories WHERE categoryId IN (?)) OR NOT EXISTS"));
+        assertThat(query.getArgCount(), is(2));
+    }
+
+    @Test
+    public void search_in_favorite_seasonal_recipes_of_category() {
+        RecipeFilter filter = new RecipeFilter();
+        filter.setCategoryIds(Collections.singletonList(5L));
+        filter.setFavorites(true);
+        filter.setSeasonal(true);
+        filter.setSearchTerm("tom");
+
+        SupportSQLiteQuery query = RecipeFilterQuery.compile(filter, "tom*", currentMonth);
+        query.bindTo(program);
+
+        assertThat(query.getSql(), containsString("JOIN recipes_fts ON (recipes.recipeId = recipes_fts.docid) WHERE recipes_fts MATCH ? AND (recipes.recipeId IN"));
+        assertThat(query.getSql(), containsString(" AND recipes.favorite AND recipes.recipeId IN (SELECT recipeId FROM recipe_seasonal_food WHERE months & ?) ORDER BY "));
+        assertThat(query.getArgCount(), is(12));
+        InOrder inOrder = inOrder(program);
+        inOrder.verify(program).bindLong(1, currentMonth);
+        inOrder.verify(program).bindString(2, "tom*");
+        inOrder.verify(program).bindLong(3, 5L);
+        inOrder.verify(program).bindLong(4, currentMonth);
+        inOrder.verify(program).bindString(5, "tom*");
+        inOrder.verify(program).bindLong(6, 8L);
+        inOrder.verify(program).bindString(11, "tom*");
+        inOrder.verify(program).bindLong(12, 1L);
+    }
+
+    @Test
+    public void rank_by_column_weights() {
+        RecipeFilter filter = new RecipeFilter();
+        filter.setSearchTerm("tom");
+        filter.setColumnWeights(new RecipeFilter.ColumnWeights(1, 10, 0, 0));
+
+        SupportSQLiteQuery query = RecipeFilterQuery.compile(filter, "tom*", currentMonth);
+        query.bindTo(program);
+
+        assertThat(query.getSql(), containsString("recipes_fts.title MATCH ?)) * ? + "));
+        InOrder inOrder = inOrder(program);
+        inOrder.verify(program).bindLong(4, 1L);
+        inOrder.verify(program).bindLong(6, 10L);
+        inOrder.verify(program).bindLong(8, 0L);
+        inOrder.verify(program).bindLong(10, 0L);
+    }
+
+    @Test
+    public void search_for_substring() {
+        RecipeFilter filter = new RecipeFilter();
+        filter.setSearchTerm("Mato");
+        filter.setSearchMode(RecipeRepository.SearchMode.SUBSTRING);
+
+        SupportSQLiteQuery query = RecipeFilterQuery.compile(filter, "Mato*", currentMonth);
+        query.bindTo(program);
+
+        assertThat(query.getSql(), not(containsString("recipes_fts")));
+        assertThat(query.getSql(), containsString("WHERE trigram IN (?, ?) GROUP BY recipeId HAVING COUNT(*) = ?"));
+        InOrder inOrder = inOrder(program);
+        inOrder.verify(program).bindString(2, "mat");
+        inOrder.verify(program).bindString(3, "ato");
+        inOrder.verify(program).bindLong(4, 2L);
+        inOrder.verify(program).bindString(5, "mato");
+    }
+
+}
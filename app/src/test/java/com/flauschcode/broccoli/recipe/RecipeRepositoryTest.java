@@ -2,43 +2,62 @@ package com.flauschcode.broccoli.recipe;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
-import static org.hamcrest.core.IsIterableContaining.hasItem;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import android.app.Application;
 import android.icu.util.ULocale;
 
-import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.paging.PagingSource;
+import androidx.sqlite.db.SupportSQLiteProgram;
+import androidx.sqlite.db.SupportSQLiteQuery;
 
+import com.flauschcode.broccoli.BroccoliDatabase;
 import com.flauschcode.broccoli.R;
 import com.flauschcode.broccoli.category.Category;
 import com.flauschcode.broccoli.category.CategoryRepository;
+import com.flauschcode.broccoli.concurrent.BroccoliExecutors;
 import com.flauschcode.broccoli.recipe.images.RecipeImageService;
-import com.flauschcode.broccoli.seasons.SeasonalCalendar;
-import com.flauschcode.broccoli.seasons.SeasonalCalendarHolder;
+import com.flauschcode.broccoli.recipe.ingredients.IngredientTable;
+import com.flauschcode.broccoli.recipe.search.FuzzyVocabulary;
+import com.flauschcode.broccoli.recipe.search.TrigramIndex;
+import com.flauschcode.broccoli.seasons.SeasonalFoodIndex;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
-import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
 @RunWith(MockitoJUnitRunner.class)
 public class RecipeRepositoryTest {
 
+    @Mock
+    private BroccoliDatabase database;
+
     @Mock
     private RecipeDAO recipeDAO;
 
@@ -46,23 +65,39 @@ public class RecipeRepositoryTest {
     private RecipeImageService recipeImageService;
 
     @Mock
-    private SeasonalCalendarHolder seasonalCalendarHolder;
+    private SeasonalFoodIndex seasonalFoodIndex;
+
+    @Mock
+    private CategoryRepository categoryRepository;
 
     @Mock
-    private SeasonalCalendar seasonalCalendar;
+    private PagingSource<Integer, RecipeListItem> recipes;
 
     @Mock
-    private CategoryRepository categoryRepository;
+    private BroccoliExecutors executors;
 
     @Mock
-    private LiveData<List<Recipe>> recipes;
+    private TrigramIndex trigramIndex;
+
+    @Mock
+    private FuzzyVocabulary fuzzyVocabulary;
+
+    @Mock
+    private IngredientTable ingredientTable;
+
+    @Mock
+    private ParsedRecipeCache parsedRecipeCache;
+
+    @Mock
+    private SupportSQLiteProgram program;
 
     @InjectMocks
     private RecipeRepository recipeRepository;
 
     private final ArgumentCaptor<RecipeCategoryAssociation> associationCaptor = ArgumentCaptor.forClass(RecipeCategoryAssociation.class);
-    private final ArgumentCaptor<List<Boolean>> favoriteStatesCaptor = ArgumentCaptor.forClass(List.class);
+    private final ArgumentCaptor<SupportSQLiteQuery> queryCaptor = ArgumentCaptor.forClass(SupportSQLiteQuery.class);
     private RecipeRepository.SearchCriteria criteria;
+    private final int currentMonth = SeasonalFoodIndex.bitOf(LocalDate.now().getMonth());
 
     private final Category CATEGORY_ALL = new Category(-1, "All recipes");
     private final Category CATEGORY_FAVORITES = new Category(-2, "Favorites");
@@ -81,141 +116,169 @@ public class RecipeRepositoryTest {
         when(categoryRepository.getUnassignedRecipesCategory()).thenReturn(CATEGORY_UNASSIGNED);
         when(categoryRepository.getSeasonalRecipesCategory()).thenReturn(CATEGORY_SEASONAL);
 
-        criteria = new RecipeRepository.SearchCriteria(CATEGORY_ALL, "", new ArrayList<>());
+        criteria = new RecipeRepository.SearchCriteria(CATEGORY_ALL, "", null);
+
+        lenient().when(database.runInTransaction(any(Callable.class))).thenAnswer(invocation -> ((Callable<?>) invocation.getArgument(0)).call());
+        lenient().doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(database).runInTransaction(any(Runnable.class));
+
+        lenient().when(executors.databaseWriter()).thenReturn(Runnable::run);
+        lenient().when(executors.io()).thenReturn(Runnable::run);
     }
 
     @Test
     public void find_all_recipes() {
-        when(recipeDAO.findAll(favoriteStatesCaptor.capture())).thenReturn(recipes);
-
-        LiveData<List<Recipe>> result = recipeRepository.find(criteria);
-
-        List<Boolean> favoriteStates = favoriteStatesCaptor.getValue();
-        assertThat(favoriteStates.size(), is(2));
-        assertThat(favoriteStates, hasItem(Boolean.TRUE));
-        assertThat(favoriteStates, hasItem(Boolean.FALSE));
-        assertThat(result, is(recipes));
+        RecipeFilter filter = recipeRepository.filterOf(criteria);
+
+        assertThat(filter.getCategoryIds().isEmpty(), is(true));
+        assertThat(filter.isFavorites(), is(false));
+        assertThat(filter.isUnassigned(), is(false));
+        assertThat(filter.isSeasonal(), is(false));
+        assertThat(filter.getSeasonalFood(), is(nullValue()));
+        assertThat(filter.getSearchTerm(), is(""));
     }
 
     @Test
     public void find_all_favorites() {
-        when(recipeDAO.findAll(favoriteStatesCaptor.capture())).thenReturn(recipes);
-
         criteria.setCategory(CATEGORY_FAVORITES);
-        LiveData<List<Recipe>> result = recipeRepository.find(criteria);
 
-        List<Boolean> favoriteStates = favoriteStatesCaptor.getValue();
-        assertThat(favoriteStates.size(), is(1));
-        assertThat(favoriteStates, hasItem(Boolean.TRUE));
-        assertThat(result, is(recipes));
+        RecipeFilter filter = recipeRepository.filterOf(criteria);
+
+        assertThat(filter.isFavorites(), is(true));
+        assertThat(filter.getCategoryIds().isEmpty(), is(true));
     }
 
     @Test
     public void find_all_unassigned() {
-        when(recipeDAO.findUnassigned()).thenReturn(recipes);
-
         criteria.setCategory(CATEGORY_UNASSIGNED);
 
-        LiveData<List<Recipe>> result = recipeRepository.find(criteria);
-        assertThat(result, is(recipes));
+        RecipeFilter filter = recipeRepository.filterOf(criteria);
+
+        assertThat(filter.isUnassigned(), is(true));
+        assertThat(filter.getCategoryIds().isEmpty(), is(true));
     }
 
     @Test
     public void filter_by() {
-        when(recipeDAO.filterBy(5L)).thenReturn(recipes);
-
         criteria.setCategory(new Category(5L, "blupp"));
 
-        LiveData<List<Recipe>> result = recipeRepository.find(criteria);
-        assertThat(result, is(recipes));
+        RecipeFilter filter = recipeRepository.filterOf(criteria);
+
+        assertThat(filter.getCategoryIds(), contains(5L));
+        assertThat(filter.isUnassigned(), is(false));
     }
 
     @Test
-    public void search_for() {
-        when(recipeDAO.searchFor(eq("bla*"), favoriteStatesCaptor.capture())).thenReturn(recipes);
-
-        criteria.setSearchTerm("bla");
+    public void find_seasonal_recipes() {
+        criteria.setCategory(CATEGORY_SEASONAL);
 
-        LiveData<List<Recipe>> result = recipeRepository.find(criteria);
+        RecipeFilter filter = recipeRepository.filterOf(criteria);
 
-        List<Boolean> favoriteStates = favoriteStatesCaptor.getValue();
-        assertThat(favoriteStates.size(), is(2));
-        assertThat(favoriteStates, hasItem(Boolean.TRUE));
-        assertThat(favoriteStates, hasItem(Boolean.FALSE));
-        assertThat(result, is(recipes));
+        assertThat(filter.isSeasonal(), is(true));
+        assertThat(filter.getCategoryIds().isEmpty(), is(true));
     }
 
     @Test
-    public void search_in_favorites() {
-        when(recipeDAO.searchFor(eq("bla*"), favoriteStatesCaptor.capture())).thenReturn(recipes);
+    public void find_recipes_with_seasonal_food_regardless_of_category() {
+        criteria.setCategory(new Category(5L, "blupp"));
+        criteria.setSeasonalFood("Apples");
 
-        criteria.setSearchTerm("bla");
-        criteria.setCategory(CATEGORY_FAVORITES);
+        RecipeFilter filter = recipeRepository.filterOf(criteria);
 
-        LiveData<List<Recipe>> result = recipeRepository.find(criteria);
+        assertThat(filter.getSeasonalFood(), is("Apples"));
+        assertThat(filter.getCategoryIds().isEmpty(), is(true));
+    }
 
-        List<Boolean> favoriteStates = favoriteStatesCaptor.getValue();
-        assertThat(favoriteStates.size(), is(1));
-        assertThat(favoriteStates, hasItem(Boolean.TRUE));
-        assertThat(result, is(recipes));
+    @Test
+    public void search_with_mode_of_criteria() {
+        criteria.setSearchTerm("Mato");
+        criteria.setSearchMode(RecipeRepository.SearchMode.SUBSTRING);
+
+        RecipeFilter filter = recipeRepository.filterOf(criteria);
+
+        assertThat(filter.getSearchTerm(), is("Mato"));
+        assertThat(filter.getSearchMode(), is(RecipeRepository.SearchMode.SUBSTRING));
     }
 
     @Test
     public void filter_and_search_for() {
-        when(recipeDAO.filterByAndSearchFor(5L, "bla*")).thenReturn(recipes);
+        when(recipeDAO.filter(queryCaptor.capture())).thenReturn(recipes);
 
         criteria.setCategory(new Category(5L, "blupp"));
         criteria.setSearchTerm("bla");
 
-        LiveData<List<Recipe>> result = recipeRepository.find(criteria);
+        PagingSource<Integer, RecipeListItem> result = recipeRepository.createPagingSource(criteria);
+        queryCaptor.getValue().bindTo(program);
+
         assertThat(result, is(recipes));
+        verify(program).bindString(2, "bla*");
+        verify(program).bindLong(3, 5L);
     }
 
     @Test
-    public void search_for_unassigned() {
-        when(recipeDAO.searchForUnassigned("bla*")).thenReturn(recipes);
+    public void search_fuzzy() {
+        when(fuzzyVocabulary.expand("brocolli")).thenReturn("brocolli* OR broccoli");
+        when(recipeDAO.filter(queryCaptor.capture())).thenReturn(recipes);
 
-        criteria.setCategory(CATEGORY_UNASSIGNED);
-        criteria.setSearchTerm("bla");
+        criteria.setSearchTerm("brocolli");
+        criteria.setSearchMode(RecipeRepository.SearchMode.FUZZY);
+
+        PagingSource<Integer, RecipeListItem> result = recipeRepository.createPagingSource(criteria);
+        queryCaptor.getValue().bindTo(program);
 
-        LiveData<List<Recipe>> result = recipeRepository.find(criteria);
         assertThat(result, is(recipes));
+        verify(program, times(5)).bindString(anyInt(), eq("brocolli* OR broccoli"));
     }
 
     @Test
-    public void find_seasonal_recipes() {
-        when(recipeDAO.findSeasonal("\"apples\" OR \"leek\"")).thenReturn(recipes);
-        when(seasonalCalendarHolder.get()).thenReturn(Optional.of(seasonalCalendar));
-        Set<String> searchTerms = new HashSet<>();
-        searchTerms.add("apples");
-        searchTerms.add("leek");
-        when(seasonalCalendar.getSearchTermsForCurrentMonth()).thenReturn(searchTerms);
+    public void count_search_results_by_category() {
+        when(recipeDAO.countSearchResultsByCategory("tom*", currentMonth)).thenReturn(new MutableLiveData<>());
 
-        criteria.setCategory(CATEGORY_SEASONAL);
-        criteria.setSearchTerm("");
+        criteria.setCategory(newCategory);
+        criteria.setSearchTerm("tom");
+        recipeRepository.countByCategory(criteria);
 
-        LiveData<List<Recipe>> result = recipeRepository.find(criteria);
-
-        assertThat(result, is(recipes));
+        verify(recipeDAO).countSearchResultsByCategory("tom*", currentMonth);
+        verify(recipeDAO, never()).countByCategory(currentMonth);
     }
 
     @Test
-    public void find_and_search_for_seasonal_recipes() {
-        when(recipeDAO.searchForSeasonal("\"apples\" OR \"leek\"", "bla*")).thenReturn(recipes);
-        when(seasonalCalendarHolder.get()).thenReturn(Optional.of(seasonalCalendar));
-        Set<String> searchTerms = new HashSet<>();
-        searchTerms.add("apples");
-        searchTerms.add("leek");
-        when(seasonalCalendar.getSearchTermsForCurrentMonth()).thenReturn(searchTerms);
+    public void count_substring_search_results_by_category() {
+        when(recipeDAO.countSubstringSearchResultsByCategory(Arrays.asList("mat", "ato"), 2, "mato", currentMonth)).thenReturn(new MutableLiveData<>());
 
-        criteria.setCategory(CATEGORY_SEASONAL);
-        criteria.setSearchTerm("bla");
+        criteria.setSearchTerm("Mato");
+        criteria.setSearchMode(RecipeRepository.SearchMode.SUBSTRING);
+        recipeRepository.countByCategory(criteria);
 
-        LiveData<List<Recipe>> result = recipeRepository.find(criteria);
+        verify(recipeDAO).countSubstringSearchResultsByCategory(Arrays.asList("mat", "ato"), 2, "mato", currentMonth);
+    }
 
-        assertThat(result, is(recipes));
+    @Test
+    public void compile_fuzzy_filter() {
+        when(fuzzyVocabulary.expand("brocolli")).thenReturn("brocolli* OR broccoli");
+
+        RecipeFilter filter = new RecipeFilter();
+        filter.setSearchTerm("brocolli");
+        filter.setSearchMode(RecipeRepository.SearchMode.FUZZY);
+        SupportSQLiteQuery query = recipeRepository.compile(filter);
+        query.bindTo(program);
+
+        verify(program).bindLong(1, currentMonth);
+        verify(program, times(5)).bindString(anyInt(), eq("brocolli* OR broccoli"));
     }
 
+    @Test
+    public void has_fuzzy_matches_loads_vocabulary() throws ExecutionException, InterruptedException {
+        when(fuzzyVocabulary.expand("brocolli")).thenReturn("brocolli* OR broccoli");
+        when(recipeDAO.hasMatches("brocolli* OR broccoli")).thenReturn(true);
+
+        boolean hasMatches = recipeRepository.hasMatches("brocolli", RecipeRepository.SearchMode.FUZZY).get();
+
+        assertThat(hasMatches, is(true));
+        verify(fuzzyVocabulary).load();
+    }
 
     @Test
     public void insert() throws ExecutionException, InterruptedException {
@@ -232,6 +295,13 @@ public class RecipeRepositoryTest {
         RecipeCategoryAssociation categoryAssociation = associationCaptor.getValue();
         assertThat(categoryAssociation.getCategoryId(), is(5L));
         assertThat(categoryAssociation.getRecipeId(), is(12L));
+        verify(trigramIndex).index(12L, recipe.getTitle(), recipe.getIngredients());
+        InOrder inOrder = inOrder(seasonalFoodIndex, database, fuzzyVocabulary);
+        inOrder.verify(seasonalFoodIndex).awaitCalendar();
+        inOrder.verify(database).runInTransaction(any(Callable.class));
+        inOrder.verify(fuzzyVocabulary).add(recipe.getTitle(), recipe.getDescription(), recipe.getSource(), recipe.getIngredients());
+        verify(ingredientTable).write(12L, recipe.getIngredients());
+        verify(seasonalFoodIndex).index(12L, recipe.getIngredients());
     }
 
     @Test
@@ -243,7 +313,7 @@ public class RecipeRepositoryTest {
         doNothing().when(recipeDAO).insert(associationCaptor.capture());
 
         List<RecipeCategoryAssociation> oldAssociations = new ArrayList<>();
-        RecipeCategoryAssociation oldAssociation = new RecipeCategoryAssociation(12L, 5L);
+        RecipeCategoryAssociation oldAssociation = new RecipeCategoryAssociation(12L, 3L);
         oldAssociations.add(oldAssociation);
         when(recipeDAO.getCategoriesFor(12)).thenReturn(oldAssociations);
 
@@ -257,6 +327,53 @@ public class RecipeRepositoryTest {
         RecipeCategoryAssociation categoryAssociation = associationCaptor.getValue();
         assertThat(categoryAssociation.getCategoryId(), is(5L));
         assertThat(categoryAssociation.getRecipeId(), is(12L));
+        verify(parsedRecipeCache).invalidate(12L);
+    }
+
+    @Test
+    public void update_keeps_unchanged_categories() throws ExecutionException, InterruptedException {
+        Recipe recipe = new Recipe();
+        recipe.setRecipeId(12);
+        recipe.addCategory(newCategory);
+
+        List<RecipeCategoryAssociation> oldAssociations = new ArrayList<>();
+        oldAssociations.add(new RecipeCategoryAssociation(12L, 5L));
+        when(recipeDAO.getCategoriesFor(12)).thenReturn(oldAssociations);
+
+        recipeRepository.insertOrUpdate(recipe).get();
+
+        verify(recipeDAO).update(recipe.getCoreRecipe());
+        verify(recipeDAO, never()).delete(any(RecipeCategoryAssociation.class));
+        verify(recipeDAO, never()).insert(any(RecipeCategoryAssociation.class));
+    }
+
+    @Test
+    public void insert_all_in_chunks() throws ExecutionException, InterruptedException {
+        List<Recipe> recipesToInsert = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            Recipe recipe = new Recipe();
+            recipe.addCategory(newCategory);
+            recipesToInsert.add(recipe);
+        }
+
+        recipeRepository.insertOrUpdateAll(recipesToInsert).get();
+
+        verify(database, times(3)).runInTransaction(any(Runnable.class));
+        verify(recipeDAO, times(250)).insert(any(CoreRecipe.class));
+        verify(recipeDAO, times(250)).insert(any(RecipeCategoryAssociation.class));
+    }
+
+    @Test
+    public void update_favorite() throws ExecutionException, InterruptedException {
+        Recipe recipe = new Recipe();
+        recipe.setRecipeId(12);
+        recipe.setFavorite(true);
+
+        recipeRepository.updateFavorite(recipe).get();
+
+        verify(recipeDAO).updateFavorite(12L, true);
+        verify(recipeDAO, never()).update(any(CoreRecipe.class));
+        verify(recipeDAO, never()).getCategoriesFor(12L);
     }
 
     @Test
@@ -3,18 +3,30 @@ package com.flauschcode.broccoli.recipe.cooking;
 import android.app.Application;
 
 import com.flauschcode.broccoli.R;
+import com.flauschcode.broccoli.recipe.ParsedRecipeCache;
 import com.flauschcode.broccoli.recipe.Recipe;
+import com.flauschcode.broccoli.recipe.ingredients.Ingredient;
+import com.flauschcode.broccoli.recipe.ingredients.IngredientTable;
+import com.flauschcode.broccoli.recipe.ingredients.Quantity;
+import com.flauschcode.broccoli.recipe.ingredients.Rational;
 import com.flauschcode.broccoli.recipe.ingredients.ScaledQuantityBuilder;
+import com.flauschcode.broccoli.recipe.ingredients.UnitConverter;
+import com.flauschcode.broccoli.recipe.ingredients.UnitConverter.UnitSystem;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -26,6 +38,12 @@ public class PageableRecipeBuilderTest {
     @Mock
     private ScaledQuantityBuilder scaledQuantityBuilder;
 
+    @Spy
+    private ParsedRecipeCache parsedRecipeCache = new ParsedRecipeCache();
+
+    @Mock
+    private UnitConverter unitConverter;
+
     @InjectMocks
     private PageableRecipeBuilder pageableRecipeBuilder;
 
@@ -33,6 +51,7 @@ public class PageableRecipeBuilderTest {
     public void setUp() {
         when(application.getString(R.string.ingredients)).thenReturn("Ingredients");
         when(application.getString(R.string.no_ingredients_and_directions_message)).thenReturn("Nothing there...");
+        when(unitConverter.getPreferredUnitSystem()).thenReturn(UnitSystem.AS_WRITTEN);
     }
 
     @Test
@@ -58,9 +77,9 @@ public class PageableRecipeBuilderTest {
         recipe.setIngredients("- 500g Mehl\n - ½TL Salz\n  - je 1TL Gewürz");
         recipe.setDirections(" 1. Erst dies. \n 2. Dann das. ");
 
-        when(scaledQuantityBuilder.from("500", 2f)).thenReturn("1000");
-        when(scaledQuantityBuilder.from("½", 2f)).thenReturn("1");
-        when(scaledQuantityBuilder.from("", 2f)).thenReturn("(not scaled) ");
+        when(scaledQuantityBuilder.from(Quantity.parse("500"), Rational.of(2))).thenReturn("1000");
+        when(scaledQuantityBuilder.from(Quantity.parse("½"), Rational.of(2))).thenReturn("1");
+        when(scaledQuantityBuilder.from(Quantity.parse(""), Rational.of(2))).thenReturn("(not scaled) ");
 
         PageableRecipe pageableRecipe = pageableRecipeBuilder.scale(2f).from(recipe);
 
@@ -71,6 +90,56 @@ public class PageableRecipeBuilderTest {
         assertPage(pageableRecipe.getPages().get(2), "2", "Dann das.");
     }
 
+    @Test
+    public void to_pageable_recipe_from_stored_ingredients() {
+        Recipe recipe = new Recipe();
+        recipe.setTitle("Lauchkuchen");
+        recipe.setIngredients("- 500g Mehl\n - 100g Margarine  ");
+        recipe.setStoredIngredients(IngredientTable.parse(1L, "- 250g Mehl"));
+
+        PageableRecipe pageableRecipe = pageableRecipeBuilder.from(recipe);
+
+        assertThat(pageableRecipe.getPages().size(), is(1));
+        assertPage(pageableRecipe.getPages().get(0), "Ingredients", "250g Mehl");
+    }
+
+    @Test
+    public void pages_are_built_once_per_scale_factor() {
+        Recipe recipe = new Recipe();
+        recipe.setTitle("Lauchkuchen");
+        recipe.setIngredients("- 500g Mehl");
+        recipe.setDirections(" 1. Erst dies.");
+
+        when(scaledQuantityBuilder.from(Quantity.parse("500"), Rational.of(2))).thenReturn("1000");
+
+        PageableRecipe pageableRecipe = pageableRecipeBuilder.from(recipe);
+        PageableRecipe scaledPageableRecipe = pageableRecipeBuilder.scale(2f).from(recipe);
+
+        assertThat(pageableRecipeBuilder.scale(-1f).from(recipe), is(pageableRecipe));
+        assertThat(pageableRecipeBuilder.scale(2f).from(recipe), is(scaledPageableRecipe));
+        assertPage(scaledPageableRecipe.getPages().get(0), "Ingredients", "1000g Mehl");
+    }
+
+    @Test
+    public void to_pageable_recipe_in_other_units() {
+        Recipe recipe = new Recipe();
+        recipe.setTitle("Lauchkuchen");
+        recipe.setIngredients("- 1 cup Milch\n - 2 Eier");
+
+        when(unitConverter.getPreferredUnitSystem()).thenReturn(UnitSystem.METRIC);
+        when(unitConverter.convert(any(Ingredient.class), eq(Quantity.parse("1")), eq(Rational.ONE), eq(UnitSystem.METRIC))).thenAnswer(invocation -> {
+            Ingredient ingredient = invocation.getArgument(0);
+            ingredient.setQuantity("240");
+            ingredient.setText(" ml Milch");
+            return true;
+        });
+
+        PageableRecipe pageableRecipe = pageableRecipeBuilder.from(recipe);
+
+        assertPage(pageableRecipe.getPages().get(0), "Ingredients", "240 ml Milch\n2 Eier");
+        verify(scaledQuantityBuilder, never()).from(any(Quantity.class), any(Rational.class));
+    }
+
     @Test
     public void to_pageable_recipe_when_there_is_no_data() {
         Recipe recipe = new Recipe();
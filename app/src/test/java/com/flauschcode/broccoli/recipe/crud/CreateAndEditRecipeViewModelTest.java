@@ -6,6 +6,7 @@ import androidx.lifecycle.LiveData;
 
 import com.flauschcode.broccoli.category.Category;
 import com.flauschcode.broccoli.category.CategoryRepository;
+import com.flauschcode.broccoli.recipe.Recipe;
 import com.flauschcode.broccoli.recipe.RecipeRepository;
 import com.flauschcode.broccoli.recipe.crud.CreateAndEditRecipeViewModel;
 import com.flauschcode.broccoli.recipe.images.RecipeImageService;
@@ -164,10 +165,66 @@ public class CreateAndEditRecipeViewModelTest {
         verify(recipeImageService).deleteImage("old.jpg");
     }
 
+    @Test
+    public void only_update_image_name_of_stored_recipe() throws ExecutionException, InterruptedException {
+        createAndEditRecipeViewModel.setRecipe(storedRecipe());
+        when(recipeImageService.copyImage(imageUri)).thenReturn(CompletableFuture.completedFuture("blupp.jpg"));
+        createAndEditRecipeViewModel.confirmImageHasBeenPicked(imageUri);
+
+        when(recipeImageService.deleteImage("old.jpg")).thenReturn(CompletableFuture.completedFuture(null));
+        when(recipeImageService.moveImage("blupp.jpg")).thenReturn(CompletableFuture.completedFuture(null));
+        when(recipeRepository.updateImageName(createAndEditRecipeViewModel.getRecipe())).thenReturn(CompletableFuture.completedFuture(null));
+
+        Long recipeId = createAndEditRecipeViewModel.save().get();
+
+        assertThat(recipeId, is(12L));
+        verify(recipeRepository).updateImageName(createAndEditRecipeViewModel.getRecipe());
+        verify(recipeRepository, never()).updateCategories(any());
+        verify(recipeRepository, never()).insertOrUpdate(any());
+    }
+
+    @Test
+    public void only_update_categories_of_stored_recipe() throws ExecutionException, InterruptedException {
+        createAndEditRecipeViewModel.setRecipe(storedRecipe());
+        createAndEditRecipeViewModel.getRecipe().addCategory(new Category("Vegan"));
+
+        when(recipeRepository.updateCategories(createAndEditRecipeViewModel.getRecipe())).thenReturn(CompletableFuture.completedFuture(null));
+
+        Long recipeId = createAndEditRecipeViewModel.save().get();
+
+        assertThat(recipeId, is(12L));
+        verify(recipeRepository).updateCategories(createAndEditRecipeViewModel.getRecipe());
+        verify(recipeRepository, never()).updateImageName(any());
+        verify(recipeRepository, never()).insertOrUpdate(any());
+    }
+
+    @Test
+    public void rewrite_stored_recipe_if_its_text_changed() throws ExecutionException, InterruptedException {
+        createAndEditRecipeViewModel.setRecipe(storedRecipe());
+        createAndEditRecipeViewModel.getRecipe().setTitle("Lauchkuchen");
+        createAndEditRecipeViewModel.getRecipe().addCategory(new Category("Vegan"));
+
+        when(recipeRepository.insertOrUpdate(createAndEditRecipeViewModel.getRecipe())).thenReturn(CompletableFuture.completedFuture(12L));
+
+        createAndEditRecipeViewModel.save().get();
+
+        verify(recipeRepository).insertOrUpdate(createAndEditRecipeViewModel.getRecipe());
+        verify(recipeRepository, never()).updateImageName(any());
+        verify(recipeRepository, never()).updateCategories(any());
+    }
+
     @Test
     public void get_categories() {
         when(categoryRepository.findAll()).thenReturn(categories);
         assertThat(createAndEditRecipeViewModel.getCategories(), is(categories));
     }
 
+    private Recipe storedRecipe() {
+        Recipe recipe = new Recipe();
+        recipe.setRecipeId(12L);
+        recipe.setTitle("Lauchkuche");
+        recipe.setImageName("old.jpg");
+        return recipe;
+    }
+
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import android.content.ContentResolver;
 import android.net.Uri;
 import android.os.Environment;
 
+import com.flauschcode.broccoli.concurrent.BroccoliExecutors;
 import com.flauschcode.broccoli.recipe.images.RecipeImageService;
 
 import org.junit.Before;
@@ -16,8 +17,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
@@ -26,6 +29,14 @@ import id.zelory.compressor.Compressor;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -49,6 +60,12 @@ public class RecipeImageServiceTest {
     @Mock
     private Compressor compressor;
 
+    @Mock
+    private ImageScaler imageScaler;
+
+    @Mock
+    private BroccoliExecutors executors;
+
     @InjectMocks
     private RecipeImageService recipeImageService;
 
@@ -59,6 +76,8 @@ public class RecipeImageServiceTest {
     public void setUp() throws IOException {
         when(application.getExternalFilesDir(Environment.DIRECTORY_PICTURES)).thenReturn(picturesDirectory.getRoot());
         when(application.getCacheDir()).thenReturn(cacheDirectory.getRoot());
+        lenient().when(executors.io()).thenReturn(Runnable::run);
+        lenient().when(executors.cpu()).thenReturn(Runnable::run);
 
         savedImage = picturesDirectory.newFile("bla.jpg");
         cachedImage = cacheDirectory.newFile("blupp.jpg");
@@ -77,6 +96,85 @@ public class RecipeImageServiceTest {
         assertThat(compressedImage.exists(), is(false));
     }
 
+    @Test
+    public void move_compressed_image_without_compressing_it_again() throws ExecutionException, InterruptedException {
+        recipeImageService.moveCompressedImage("blupp.jpg").get();
+
+        assertThat(new File(picturesDirectory.getRoot().getPath() + File.separator + "blupp.jpg").exists(), is(true));
+        assertThat(cachedImage.exists(), is(false));
+        verifyNoInteractions(compressor);
+    }
+
+    @Test
+    public void move_compressed_image_that_exceeds_budget() throws ExecutionException, InterruptedException, IOException {
+        try (FileOutputStream fos = new FileOutputStream(cachedImage)) {
+            fos.write(new byte[(int) RecipeImageService.IMAGE_SIZE_BUDGET + 1]);
+        }
+        File compressedImage = cacheDirectory.newFile("compressed.jpg");
+        when(compressor.compressToFile(cachedImage)).thenReturn(compressedImage);
+
+        recipeImageService.moveCompressedImage("blupp.jpg").get();
+
+        assertThat(new File(picturesDirectory.getRoot().getPath() + File.separator + "blupp.jpg").length(), is(0L));
+        assertThat(cachedImage.exists(), is(false));
+        assertThat(compressedImage.exists(), is(false));
+    }
+
+    @Test
+    public void stage_compressed_image() throws IOException {
+        String imageName = recipeImageService.stageCompressedImage(new ByteArrayInputStream(new byte[]{1, 2, 3}));
+
+        File image = new File(picturesDirectory.getRoot(), "staged" + File.separator + imageName);
+        assertThat(image.length(), is(3L));
+        assertThat(new File(picturesDirectory.getRoot(), imageName).exists(), is(false));
+        verifyNoInteractions(compressor);
+        verifyNoInteractions(imageScaler);
+    }
+
+    @Test
+    public void move_staged_image_with_renditions() throws IOException, ExecutionException, InterruptedException {
+        doAnswer(invocation -> {
+            File target = invocation.getArgument(1);
+            return target.createNewFile();
+        }).when(imageScaler).scale(any(File.class), any(File.class), anyInt());
+        String imageName = recipeImageService.stageCompressedImage(new ByteArrayInputStream(new byte[]{1, 2, 3}));
+
+        recipeImageService.moveStagedImage(imageName).get();
+
+        File thumbnail = new File(picturesDirectory.getRoot(), "thumbnails" + File.separator + imageName);
+        assertThat(new File(picturesDirectory.getRoot(), imageName).length(), is(3L));
+        assertThat(new File(picturesDirectory.getRoot(), "staged" + File.separator + imageName).exists(), is(false));
+        assertThat(recipeImageService.findImage(imageName, ImageRendition.THUMBNAIL), is(thumbnail));
+        verify(imageScaler).scale(any(File.class), any(File.class), eq(ImageRendition.THUMBNAIL.getMaxSize()));
+        verifyNoMoreInteractions(imageScaler);
+    }
+
+    @Test
+    public void delete_staged_image() throws IOException, ExecutionException, InterruptedException {
+        String imageName = recipeImageService.stageCompressedImage(new ByteArrayInputStream(new byte[]{1, 2, 3}));
+
+        assertThat(recipeImageService.deleteStagedImage(imageName).get(), is(true));
+        assertThat(new File(picturesDirectory.getRoot(), "staged" + File.separator + imageName).exists(), is(false));
+        assertThat(new File(picturesDirectory.getRoot(), imageName).exists(), is(false));
+        verifyNoInteractions(imageScaler);
+    }
+
+    @Test
+    public void find_missing_rendition_falls_back_to_original_and_backfills() throws IOException {
+        File image = recipeImageService.findImage("bla.jpg", ImageRendition.THUMBNAIL);
+
+        assertThat(image, is(savedImage));
+        verify(imageScaler).scale(eq(savedImage), any(File.class), eq(ImageRendition.THUMBNAIL.getMaxSize()));
+    }
+
+    @Test
+    public void find_original_rendition() {
+        File image = recipeImageService.findImage("bla.jpg", ImageRendition.ORIGINAL);
+
+        assertThat(image, is(savedImage));
+        verifyNoInteractions(imageScaler);
+    }
+
     @Test
     public void copy_image() throws ExecutionException, InterruptedException, IOException {
         Uri uri = Uri.EMPTY;
@@ -112,6 +210,18 @@ public class RecipeImageServiceTest {
         assertThat(deleteMe.exists(), is(false));
     }
 
+    @Test
+    public void delete_saved_image_with_renditions() throws IOException, ExecutionException, InterruptedException {
+        File deleteMe = picturesDirectory.newFile("deleteMe.jpg");
+        File thumbnail = new File(picturesDirectory.newFolder("thumbnails"), "deleteMe.jpg");
+        thumbnail.createNewFile();
+
+        recipeImageService.deleteImage("deleteMe.jpg").get();
+
+        assertThat(deleteMe.exists(), is(false));
+        assertThat(thumbnail.exists(), is(false));
+    }
+
     @Test
     public void delete_temporary_image() throws IOException, ExecutionException, InterruptedException {
         File deleteMe = cacheDirectory.newFile("deleteMe.jpg");
@@ -0,0 +1,44 @@
+package com.flauschcode.broccoli.recipe.ingredients;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// run by the benchmark task only, the texts and the former regular expressions are those of IngredientBuilderTest
+@RunWith(JUnit4.class)
+public class IngredientBuilderBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    @Test
+    public void compare_with_regex() {
+        List<String> texts = IngredientBuilderTest.texts();
+
+        long regexNanos = 0;
+        long scannerNanos = 0;
+        // the results are kept, so that the work is not optimised away
+        List<List<Ingredient>> results = new ArrayList<>();
+        for (int round = 0; round < ROUNDS; round++) {
+            results.clear();
+            long start = System.nanoTime();
+            for (String text : texts) {
+                results.add(IngredientBuilderTest.fromRegex(text));
+            }
+            regexNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (String text : texts) {
+                results.add(IngredientBuilder.from(text));
+            }
+            scannerNanos += System.nanoTime() - start;
+        }
+
+        System.out.printf("%d texts: regex %d ms, scanner %d ms%n", texts.size(),
+                TimeUnit.NANOSECONDS.toMillis(regexNanos / ROUNDS), TimeUnit.NANOSECONDS.toMillis(scannerNanos / ROUNDS));
+    }
+
+}
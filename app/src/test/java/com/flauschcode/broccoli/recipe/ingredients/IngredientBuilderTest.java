@@ -7,7 +7,13 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasItem;
@@ -18,6 +24,24 @@ import static org.hamcrest.collection.IsEmptyCollection.empty;
 @RunWith(JUnit4.class)
 public class IngredientBuilderTest {
 
+    private static final int TEXTS = 2000;
+
+    private static final Pattern newLinePattern = Pattern.compile("\n");
+    private static final Pattern bulletPattern = Pattern.compile("^\\s*[-–](?!$)");
+    private static final Pattern quantityPattern = Pattern.compile("^\\s*([¼½¾⅐⅑⅒⅓⅔⅕⅖⅗⅘⅙⅚⅛⅜⅝⅞]|\\d+([,/.-])*\\d*)(\\s*-\\s*([¼½¾⅐⅑⅒⅓⅔⅕⅖⅗⅘⅙⅚⅛⅜⅝⅞]|\\d+([,/.-])*\\d*))?(?!$)");
+
+    // the texts of the tests below, followed by random texts built from pieces of them
+    private static final List<String> CORPUS = Arrays.asList(
+            "", "500g Mehl", "500g Mehl Typ 405\n 8g Hefe\n 2 Stangen Lauch", " 500g Mehl    \n \n   8g Hefe \n \t 2 Stangen Lauch   ",
+            "0,5 Packungen Mehl\n 3/4 Cup Wasser\n 0.5 TL Salz", "½ Packungen Mehl\n ¾ Cup Wasser\n ⅔ TL Salz", "Ganz viel Liebe.",
+            "-500g Mehl Typ 405\n - 8g Hefe\n – 2 Stangen Lauch", "2 - 3 Zwiebeln\n 1/2-1 EL Chiliflocken"
+    );
+
+    private static final String[] PIECES = {
+            "1", "12", "500", "0,5", "1.5", "3/4", "1/2-1", "2 - 3", "2-", "½", "¾ ", "-", " - ", "–", " ", "\t", "\r", ".", ",",
+            "g", "EL ", " TL", "Mehl", " Zwiebeln", "je 1TL Gewürz", "Salz, Pfeffer"
+    };
+
     private List<Ingredient> ingredients;
 
     @Test
@@ -98,4 +122,49 @@ public class IngredientBuilderTest {
         assertThat(ingredients, hasItem(new Ingredient("2 - 3", " Zwiebeln")));
         assertThat(ingredients, hasItem(new Ingredient("1/2-1", " EL Chiliflocken")));
     }
-}
\ No newline at end of file
+
+
+    // the regular expressions that were replaced by the IngredientLineScanner, timed by IngredientBuilderBenchmark
+    @Test
+    public void scanner_should_agree_with_regex() {
+        for (String text : texts()) {
+            assertThat(text, IngredientBuilder.from(text), is(fromRegex(text)));
+        }
+    }
+
+    static List<String> texts() {
+        Random random = new Random(42);
+        List<String> texts = new ArrayList<>(CORPUS);
+        while (texts.size() < TEXTS) {
+            texts.add(randomText(random));
+        }
+        return texts;
+    }
+
+    static List<Ingredient> fromRegex(String ingredients) {
+        return newLinePattern.splitAsStream(ingredients)
+                .map(s -> bulletPattern.matcher(s).replaceFirst(""))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .map(s -> {
+                    Matcher matcher = quantityPattern.matcher(s);
+                    String quantity = matcher.find()? matcher.group() : "";
+                    return new Ingredient(quantity, s.replaceFirst(Pattern.quote(quantity), ""));
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static String randomText(Random random) {
+        StringBuilder text = new StringBuilder();
+        int lines = 1 + random.nextInt(12);
+        for (int line = 0; line < lines; line++) {
+            int pieces = random.nextInt(5);
+            for (int i = 0; i < pieces; i++) {
+                text.append(PIECES[random.nextInt(PIECES.length)]);
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.flauschcode.broccoli.recipe.ingredients;
+
+import com.flauschcode.broccoli.recipe.Recipe;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class IngredientTableTest {
+
+    @Mock
+    private IngredientDAO ingredientDAO;
+
+    @InjectMocks
+    private IngredientTable ingredientTable;
+
+    private final ArgumentCaptor<List<RecipeIngredient>> ingredientsCaptor = ArgumentCaptor.forClass(List.class);
+
+    @Test
+    public void parse_ingredients() {
+        List<RecipeIngredient> recipeIngredients = IngredientTable.parse(12L, "- 500g Mehl\n - ½TL Salz\n2 Stangen Lauch\n  - je 1TL Gewürz");
+
+        assertThat(recipeIngredients, contains(
+                new RecipeIngredient(12L, 0, "500", "g", "g Mehl", 500.0),
+                new RecipeIngredient(12L, 1, "½", "tl", "TL Salz", 0.5),
+                new RecipeIngredient(12L, 2, "2", "", " Stangen Lauch", 2.0),
+                new RecipeIngredient(12L, 3, "", "", "je 1TL Gewürz", null)
+        ));
+    }
+
+    @Test
+    public void stored_ingredients_yield_parsed_ingredients() {
+        List<RecipeIngredient> recipeIngredients = IngredientTable.parse(12L, "500g Mehl\n 8g Hefe");
+
+        assertThat(recipeIngredients.get(0).toIngredient(), is(new Ingredient("500", "g Mehl")));
+        assertThat(recipeIngredients.get(1).toIngredient(), is(new Ingredient("8", "g Hefe")));
+    }
+
+    @Test
+    public void stored_ingredients_are_listed_by_position() {
+        List<RecipeIngredient> recipeIngredients = new ArrayList<>(IngredientTable.parse(12L, "500g Mehl\n 8g Hefe"));
+        Collections.reverse(recipeIngredients);
+        Recipe recipe = new Recipe();
+        recipe.setStoredIngredients(recipeIngredients);
+
+        assertThat(recipe.getIngredientList(), contains(new Ingredient("500", "g Mehl"), new Ingredient("8", "g Hefe")));
+    }
+
+    @Test
+    public void value_of_quantity() {
+        assertThat(IngredientTable.valueOf("1,5"), is(1.5));
+        assertThat(IngredientTable.valueOf("1 1/2"), is(1.5));
+        assertThat(IngredientTable.valueOf("3/4"), is(0.75));
+        assertThat(IngredientTable.valueOf("2-3"), is(2.0));
+        assertThat(IngredientTable.valueOf("1½"), is(1.5));
+    }
+
+    @Test
+    public void value_of_no_number() {
+        assertThat(IngredientTable.valueOf(""), is(nullValue()));
+        assertThat(IngredientTable.valueOf("1/0"), is(nullValue()));
+    }
+
+    @Test
+    public void unit_of_text() {
+        assertThat(IngredientTable.unitOf(" EL Öl"), is("el"));
+        assertThat(IngredientTable.unitOf("TL. Salz"), is("tl"));
+        assertThat(IngredientTable.unitOf(" Stangen Lauch"), is(""));
+        assertThat(IngredientTable.unitOf("Tasse Milch"), is("tasse"));
+        assertThat(IngredientTable.unitOf("Teelöffel Zimt"), is("teelöffel"));
+    }
+
+    @Test
+    public void write_replaces_stored_ingredients() {
+        ingredientTable.write(12L, "500g Mehl\n 8g Hefe");
+
+        InOrder inOrder = inOrder(ingredientDAO);
+        inOrder.verify(ingredientDAO).deleteFor(12L);
+        inOrder.verify(ingredientDAO).insert(ingredientsCaptor.capture());
+        assertThat(ingredientsCaptor.getValue().size(), is(2));
+    }
+
+    @Test
+    public void write_without_ingredients() {
+        ingredientTable.write(12L, "");
+
+        verify(ingredientDAO).deleteFor(12L);
+        verify(ingredientDAO, never()).insert(anyList());
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.flauschcode.broccoli.recipe.ingredients;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@RunWith(JUnit4.class)
+public class QuantityTest {
+
+    @Test
+    public void parse_integer() {
+        assertThat(Quantity.parse("500").getFrom(), is(Rational.of(500)));
+    }
+
+    @Test
+    public void parse_decimal() {
+        assertThat(Quantity.parse("0.5").getFrom(), is(Rational.of(1, 2)));
+        assertThat(Quantity.parse("1,25").getFrom(), is(Rational.of(5, 4)));
+    }
+
+    @Test
+    public void parse_fraction() {
+        assertThat(Quantity.parse("3/4").getFrom(), is(Rational.of(3, 4)));
+    }
+
+    @Test
+    public void parse_mixed_number() {
+        assertThat(Quantity.parse(" 1 1/2 ").getFrom(), is(Rational.of(3, 2)));
+        assertThat(Quantity.parse("1½").getFrom(), is(Rational.of(3, 2)));
+        assertThat(Quantity.parse("2 ⅓").getFrom(), is(Rational.of(7, 3)));
+    }
+
+    @Test
+    public void parse_vulgar_fraction() {
+        assertThat(Quantity.parse("⅝").getFrom(), is(Rational.of(5, 8)));
+    }
+
+    @Test
+    public void parse_range() {
+        Quantity quantity = Quantity.parse("1/2 - 1");
+
+        assertThat(quantity.isRange(), is(true));
+        assertThat(quantity.getFrom(), is(Rational.of(1, 2)));
+        assertThat(quantity.getTo(), is(Rational.ONE));
+    }
+
+    @Test
+    public void parse_no_quantity() {
+        assertThat(Quantity.parse("").isScalable(), is(false));
+        assertThat(Quantity.parse("je 1").isScalable(), is(false));
+        assertThat(Quantity.parse("1 x").isScalable(), is(false));
+        assertThat(Quantity.parse("2-").isScalable(), is(false));
+        assertThat(Quantity.parse("1/0").isScalable(), is(false));
+        assertThat(Quantity.parse("1/0").getFrom(), is(nullValue()));
+    }
+
+    @Test
+    public void format_integer() {
+        assertThat(Quantity.parse("3/3").format('.'), is("1"));
+    }
+
+    @Test
+    public void format_kitchen_fraction() {
+        assertThat(Quantity.parse("0.5").format('.'), is("½"));
+        assertThat(Quantity.parse("2 2/8").format('.'), is("2¼"));
+        assertThat(Quantity.parse("0.66").format('.'), is("⅔"));
+    }
+
+    @Test
+    public void format_decimal() {
+        assertThat(Quantity.parse("1.1").format(','), is("1,1"));
+        assertThat(Quantity.parse("12.5").format(','), is("12,5"));
+        assertThat(Quantity.parse("0.153").format('.'), is("0.15"));
+        assertThat(Quantity.parse("0.123").format('.'), is("⅛"));
+        assertThat(Quantity.parse("0.005").format('.'), is("0.01"));
+        assertThat(Quantity.parse("250.5").format('.'), is("251"));
+    }
+
+    @Test
+    public void format_range() {
+        assertThat(Quantity.parse("2 - 3").scale(Rational.of(1, 2)).format('.'), is("1-1½"));
+    }
+
+    @Test
+    public void format_no_quantity() {
+        assertThat(Quantity.parse(" je 1 ").scale(Rational.of(2)).format('.'), is("je 1"));
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.flauschcode.broccoli.recipe.ingredients;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@RunWith(JUnit4.class)
+public class RationalTest {
+
+    @Test
+    public void reduce() {
+        Rational rational = Rational.of(6, -8);
+
+        assertThat(rational.getNumerator(), is(-3L));
+        assertThat(rational.getDenominator(), is(4L));
+    }
+
+    @Test
+    public void multiply_exactly() {
+        assertThat(Rational.of(1, 3).multiply(Rational.of(3)), is(Rational.ONE));
+    }
+
+    @Test
+    public void add() {
+        assertThat(Rational.of(1, 6).add(Rational.of(1, 4)), is(Rational.of(5, 12)));
+    }
+
+    @Test
+    public void value_of_float() {
+        assertThat(Rational.valueOf(1.5f), is(Rational.of(3, 2)));
+        assertThat(Rational.valueOf(0.1f), is(Rational.of(1, 10)));
+        assertThat(Rational.valueOf(2f / 3), is(Rational.of(2, 3)));
+        assertThat(Rational.valueOf(4f / 7), is(Rational.of(4, 7)));
+    }
+
+    @Test
+    public void round() {
+        assertThat(Rational.of(1, 8).roundTo(2), is(13L));
+        assertThat(Rational.of(2, 3).roundTo(1), is(7L));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void overflow() {
+        Rational.of(Long.MAX_VALUE).multiply(Rational.of(2));
+    }
+
+    @Test
+    public void compare() {
+        assertThat(Rational.of(1, 3).compareTo(Rational.of(1, 2)), is(-1));
+        assertThat(Rational.of(2, 4).compareTo(Rational.of(1, 2)), is(0));
+    }
+
+}
@@ -14,6 +14,8 @@ import android.app.Application;
 
 import com.flauschcode.broccoli.R;
 
+import java.text.DecimalFormatSymbols;
+
 @RunWith(MockitoJUnitRunner.class)
 public class ScaledQuantityBuilderTest {
 
@@ -73,4 +75,42 @@ public class ScaledQuantityBuilderTest {
         assertThat(scaled,  is("(not scaled) "));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void scale_thirds_exactly() {
+        String scaled = scaledQuantityBuilder.from("1/3", 3f);
+        assertThat(scaled,  is("1"));
+    }
+
+    @Test
+    public void scale_to_kitchen_fraction() {
+        String scaled = scaledQuantityBuilder.from("1 1/2", 0.5f);
+        assertThat(scaled,  is("¾"));
+    }
+
+    @Test
+    public void scale_servings_to_kitchen_fraction() {
+        String scaled = scaledQuantityBuilder.from("2", 2f / 3);
+        assertThat(scaled,  is("1⅓"));
+    }
+
+    @Test
+    public void scale_decimal_quantity() {
+        String scaled = scaledQuantityBuilder.from("12,5", 3f);
+        assertThat(scaled,  is("37" + DecimalFormatSymbols.getInstance().getDecimalSeparator() + "5"));
+    }
+
+    @Test
+    public void scale_parsed_quantity() {
+        Quantity quantity = Quantity.parse("½ - 1");
+        assertThat(scaledQuantityBuilder.from(quantity, Rational.of(3)),  is("1½-3"));
+        assertThat(scaledQuantityBuilder.from(quantity, Rational.of(1, 2)),  is("¼-½"));
+    }
+
+    @Test
+    public void scale_overflowing_quantity() {
+        when(application.getString(R.string.unscaled)).thenReturn("not scaled");
+        String scaled = scaledQuantityBuilder.from(Quantity.parse(String.valueOf(Long.MAX_VALUE)), Rational.of(2));
+        assertThat(scaled,  is("(not scaled) " + Long.MAX_VALUE));
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.flauschcode.broccoli.recipe.ingredients;
+
+import android.app.Application;
+
+import com.flauschcode.broccoli.recipe.ingredients.UnitConverter.UnitSystem;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Locale;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@RunWith(MockitoJUnitRunner.class)
+public class UnitConverterTest {
+
+    @Mock
+    private Application application;
+
+    @InjectMocks
+    private UnitConverter unitConverter;
+
+    @Test
+    public void scale_to_larger_unit() {
+        Ingredient ingredient = convert("500", "g Mehl", Rational.of(3), UnitSystem.AS_WRITTEN, Locale.GERMAN);
+        assertIngredient(ingredient, "1½", "kg Mehl");
+    }
+
+    @Test
+    public void scale_to_smaller_unit() {
+        Ingredient ingredient = convert("1", " l Milch", Rational.of(1, 2), UnitSystem.AS_WRITTEN, Locale.GERMAN);
+        assertIngredient(ingredient, "500", " ml Milch");
+    }
+
+    @Test
+    public void scale_spoons_to_cups() {
+        Ingredient ingredient = convert("4", " tsp sugar", Rational.of(3), UnitSystem.AS_WRITTEN, Locale.ENGLISH);
+        assertIngredient(ingredient, "¼", " cup sugar");
+    }
+
+    @Test
+    public void scale_in_same_unit() {
+        Ingredient ingredient = convert("200", " G. Mehl", Rational.of(2), UnitSystem.AS_WRITTEN, Locale.GERMAN);
+        assertIngredient(ingredient, "400", " G. Mehl");
+    }
+
+    @Test
+    public void scale_range() {
+        Ingredient ingredient = convert("2 - 3", " kg Kartoffeln", Rational.of(1, 2), UnitSystem.AS_WRITTEN, Locale.GERMAN);
+        assertIngredient(ingredient, "1-1½", " kg Kartoffeln");
+    }
+
+    @Test
+    public void convert_to_metric() {
+        assertIngredient(convert("1", " cup milk", Rational.ONE, UnitSystem.METRIC, Locale.ENGLISH), "240", " ml milk");
+        assertIngredient(convert("1", " lb. butter", Rational.ONE, UnitSystem.METRIC, Locale.ENGLISH), "454", " g butter");
+        assertIngredient(convert("2", " EL Öl", Rational.ONE, UnitSystem.METRIC, Locale.GERMAN), "2", " EL Öl");
+    }
+
+    @Test
+    public void convert_to_imperial() {
+        assertIngredient(convert("907", " g flour", Rational.ONE, UnitSystem.IMPERIAL, Locale.ENGLISH), "2", " lb flour");
+        assertIngredient(convert("480", " ml Milch", Rational.ONE, UnitSystem.IMPERIAL, Locale.GERMAN), "2", " Tassen Milch");
+    }
+
+    @Test
+    public void do_not_convert_unknown_units() {
+        Ingredient ingredient = new Ingredient("2", " Eier");
+        assertThat(unitConverter.convert(ingredient, Quantity.parse("2"), Rational.of(2), UnitSystem.METRIC, Locale.GERMAN), is(false));
+        assertIngredient(ingredient, "2", " Eier");
+    }
+
+    @Test
+    public void do_not_convert_unscalable_quantities() {
+        Ingredient ingredient = new Ingredient("", "je 1 EL Öl");
+        assertThat(unitConverter.convert(ingredient, Quantity.parse(""), Rational.ONE, UnitSystem.METRIC, Locale.GERMAN), is(false));
+    }
+
+    private Ingredient convert(String quantity, String text, Rational scaleFactor, UnitSystem unitSystem, Locale locale) {
+        Ingredient ingredient = new Ingredient(quantity, text);
+        assertThat(unitConverter.convert(ingredient, Quantity.parse(quantity), scaleFactor, unitSystem, locale), is(true));
+        return ingredient;
+    }
+
+    private void assertIngredient(Ingredient ingredient, String quantity, String text) {
+        assertThat(ingredient.getQuantity(), is(quantity));
+        assertThat(ingredient.getText(), is(text));
+    }
+
+}
@@ -2,17 +2,29 @@ package com.flauschcode.broccoli.recipe.list;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.Observer;
+import androidx.paging.PagingData;
 
 import com.flauschcode.broccoli.category.Category;
 import com.flauschcode.broccoli.category.CategoryRepository;
-import com.flauschcode.broccoli.recipe.Recipe;
+import com.flauschcode.broccoli.concurrent.BroccoliExecutors;
+import com.flauschcode.broccoli.recipe.RecipeListItem;
 import com.flauschcode.broccoli.recipe.RecipeRepository;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -21,7 +33,13 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import kotlinx.coroutines.Dispatchers;
+import kotlinx.coroutines.test.TestDispatchers;
 
 @RunWith(MockitoJUnitRunner.class)
 public class RecipeViewModelTest {
@@ -39,24 +57,33 @@ public class RecipeViewModelTest {
     private LiveData<List<Category>> categories;
 
     @Mock
-    private LiveData<List<Recipe>> recipes;
+    private LiveData<PagingData<RecipeListItem>> recipes;
+
+    private final BroccoliExecutors executors = new BroccoliExecutors();
 
     private RecipeViewModel recipeViewModel;
 
     private ArgumentCaptor<RecipeRepository.SearchCriteria> criteriaArgumentCaptor = ArgumentCaptor.forClass(RecipeRepository.SearchCriteria.class);
-    private Observer<List<Recipe>> observer = recipes -> {};
+    private Observer<PagingData<RecipeListItem>> observer = recipes -> {};
 
     private final Category CATEGORY_ALL = new Category(-1, "All recipes");
 
     @Before
     public void setUp() {
+        TestDispatchers.setMain(Dispatchers.INSTANCE, Dispatchers.getUnconfined());
         when(categoryRepository.getAllRecipesCategory()).thenReturn(CATEGORY_ALL);
-        recipeViewModel = new RecipeViewModel(recipeRepository, categoryRepository);
+        recipeViewModel = new RecipeViewModel(recipeRepository, categoryRepository, executors, 0);
+    }
+
+    @After
+    public void tearDown() {
+        TestDispatchers.resetMain(Dispatchers.INSTANCE);
     }
 
     @Test
     public void test_get_recipes_for_criteria() {
         when(recipeRepository.find(criteriaArgumentCaptor.capture())).thenReturn(recipes);
+        when(recipeRepository.hasMatches(eq("blupp"), any())).thenReturn(CompletableFuture.completedFuture(true));
 
         try {
             Category filter = new Category(5L, "Bla");
@@ -90,6 +117,88 @@ public class RecipeViewModelTest {
         }
     }
 
+    @Test
+    public void debounce_search_terms() {
+        when(recipeRepository.find(criteriaArgumentCaptor.capture())).thenReturn(recipes);
+        when(recipeRepository.hasMatches(anyString(), any())).thenReturn(CompletableFuture.completedFuture(true));
+        recipeViewModel = new RecipeViewModel(recipeRepository, categoryRepository, executors, 50);
+
+        try {
+            recipeViewModel.getRecipes().observeForever(observer);
+
+            recipeViewModel.setSearchTerm("t");
+            recipeViewModel.setSearchTerm("to");
+            recipeViewModel.setSearchTerm("tom");
+
+            verify(recipeRepository, timeout(1000)).find(argThat(criteria -> "tom".equals(criteria.getSearchTerm())));
+            verify(recipeRepository, never()).hasMatches(eq("t"), any());
+            verify(recipeRepository, never()).hasMatches(eq("to"), any());
+        } finally {
+            recipeViewModel.getRecipes().removeObserver(observer);
+        }
+    }
+
+    @Test
+    public void skip_extensions_of_terms_without_matches() {
+        when(recipeRepository.find(criteriaArgumentCaptor.capture())).thenReturn(recipes);
+        when(recipeRepository.hasMatches(eq("xyz"), any())).thenReturn(CompletableFuture.completedFuture(false));
+
+        try {
+            recipeViewModel.getRecipes().observeForever(observer);
+
+            recipeViewModel.setSearchTerm("xyz");
+            recipeViewModel.setSearchTerm("xyzw");
+
+            verify(recipeRepository, never()).hasMatches(eq("xyzw"), any());
+            criteriaArgumentCaptor.getAllValues().forEach(criteria -> assertThat(criteria.getSearchTerm(), is("")));
+        } finally {
+            recipeViewModel.getRecipes().removeObserver(observer);
+        }
+    }
+
+    @Test
+    public void count_recipes_once_for_all_categories() {
+        MutableLiveData<Map<Long, Integer>> counts = new MutableLiveData<>(Collections.singletonMap(5L, 2));
+        when(recipeRepository.countByCategory(criteriaArgumentCaptor.capture())).thenReturn(counts);
+        when(recipeRepository.hasMatches(eq("blupp"), any())).thenReturn(CompletableFuture.completedFuture(true));
+        Observer<Map<Long, Integer>> countObserver = recipeCounts -> {};
+
+        try {
+            recipeViewModel.getRecipeCounts().observeForever(countObserver);
+
+            recipeViewModel.setFilterCategory(new Category(5L, "Bla"));
+            recipeViewModel.setFilterCategory(CATEGORY_ALL);
+            verify(recipeRepository, times(1)).countByCategory(any());
+
+            recipeViewModel.setSearchTerm("blupp");
+            verify(recipeRepository, times(2)).countByCategory(any());
+            assertThat(criteriaArgumentCaptor.getValue().getSearchTerm(), is("blupp"));
+            assertThat(recipeViewModel.getRecipeCounts().getValue(), is(counts.getValue()));
+        } finally {
+            recipeViewModel.getRecipeCounts().removeObserver(countObserver);
+        }
+    }
+
+    @Test
+    public void search_extensions_of_short_substrings_without_matches() {
+        when(recipeRepository.find(criteriaArgumentCaptor.capture())).thenReturn(recipes);
+        when(recipeRepository.hasMatches(eq("ma"), any())).thenReturn(CompletableFuture.completedFuture(false));
+        when(recipeRepository.hasMatches(eq("mato"), any())).thenReturn(CompletableFuture.completedFuture(true));
+        recipeViewModel.setSearchMode(RecipeRepository.SearchMode.SUBSTRING);
+
+        try {
+            recipeViewModel.getRecipes().observeForever(observer);
+
+            recipeViewModel.setSearchTerm("ma");
+            recipeViewModel.setSearchTerm("mato");
+
+            verify(recipeRepository).hasMatches("mato", RecipeRepository.SearchMode.SUBSTRING);
+            assertThat(criteriaArgumentCaptor.getValue().getSearchTerm(), is("mato"));
+        } finally {
+            recipeViewModel.getRecipes().removeObserver(observer);
+        }
+    }
+
     @Test
     public void get_categories() {
         when(categoryRepository.findAll()).thenReturn(categories);
@@ -0,0 +1,77 @@
+package com.flauschcode.broccoli.recipe.search;
+
+import com.flauschcode.broccoli.BroccoliDatabase;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.core.Is.is;
+
+@RunWith(MockitoJUnitRunner.class)
+public class FuzzyVocabularyTest {
+
+    @Mock
+    private BroccoliDatabase database;
+
+    private FuzzyVocabulary fuzzyVocabulary;
+
+    @Before
+    public void setUp() {
+        fuzzyVocabulary = new FuzzyVocabulary(database);
+        fuzzyVocabulary.add("Broccoli-Auflauf mit Käse", "500 g Brokkoli\n200 g Kässpätzle", "Broccolini");
+    }
+
+    @Test
+    public void tokenize_like_the_full_text_index() {
+        assertThat(FuzzyVocabulary.tokenize("Crème-fraîche #vegan, 2x"), contains("creme", "fraiche", "#vegan", "2x"));
+    }
+
+    @Test
+    public void distance() {
+        assertThat(FuzzyVocabulary.distance("brocolli", "broccoli", 2), is(2));
+        assertThat(FuzzyVocabulary.distance("kitten", "sitting", 3), is(3));
+    }
+
+    @Test
+    public void transposition_is_one_edit() {
+        assertThat(FuzzyVocabulary.distance("auflauf", "aulfauf", 1), is(1));
+    }
+
+    @Test
+    public void distance_stops_beyond_maximum() {
+        assertThat(FuzzyVocabulary.distance("kitten", "sitting", 2), is(3));
+    }
+
+    @Test
+    public void find_similar_terms() {
+        assertThat(fuzzyVocabulary.findSimilar("brocolli"), contains("broccoli"));
+        assertThat(fuzzyVocabulary.findSimilar("brokoli"), contains("brokkoli"));
+    }
+
+    @Test
+    public void short_words_are_not_corrected() {
+        assertThat(fuzzyVocabulary.findSimilar("mi"), is(empty()));
+    }
+
+    @Test
+    public void saving_again_does_not_make_terms_more_common() {
+        fuzzyVocabulary.add("Tomaten");
+        fuzzyVocabulary.add("Tomaten");
+        fuzzyVocabulary.add("Tomate");
+
+        assertThat(fuzzyVocabulary.findSimilar("tomatn"), contains("tomate", "tomaten"));
+    }
+
+    @Test
+    public void expand_search_term() {
+        assertThat(fuzzyVocabulary.expand("Brokoli auflau"), is("brokoli OR brokkoli auflau* OR auflauf"));
+        assertThat(fuzzyVocabulary.expand("brocolli"), is("brocolli* OR broccoli"));
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.flauschcode.broccoli.recipe.search;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TrigramIndexTest {
+
+    @Mock
+    private SearchIndexDAO searchIndexDAO;
+
+    @InjectMocks
+    private TrigramIndex trigramIndex;
+
+    private final ArgumentCaptor<List<RecipeTrigram>> trigramsCaptor = ArgumentCaptor.forClass(List.class);
+    private final ArgumentCaptor<Collection<String>> removedTrigramsCaptor = ArgumentCaptor.forClass(Collection.class);
+    private final ArgumentCaptor<RecipeSearchText> searchTextCaptor = ArgumentCaptor.forClass(RecipeSearchText.class);
+
+    @Test
+    public void index_new_recipe() {
+        trigramIndex.index(12L, "Tomatensuppe", "Mark");
+
+        verify(searchIndexDAO).insert(trigramsCaptor.capture());
+        List<String> trigrams = trigramsCaptor.getValue().stream().map(RecipeTrigram::getTrigram).collect(Collectors.toList());
+        assertThat(trigrams, containsInAnyOrder("tom", "oma", "mat", "ate", "ten", "ens", "nsu", "sup", "upp", "ppe", "mar", "ark"));
+        verify(searchIndexDAO, never()).deleteTrigrams(eq(12L), anyCollection());
+
+        verify(searchIndexDAO).insert(searchTextCaptor.capture());
+        assertThat(searchTextCaptor.getValue().getTitle(), is("tomatensuppe"));
+        assertThat(searchTextCaptor.getValue().getIngredients(), is("mark"));
+    }
+
+    @Test
+    public void only_write_changed_trigrams() {
+        when(searchIndexDAO.findTrigrams(12L)).thenReturn(Arrays.asList("tom", "oma", "mat", "ato"));
+
+        trigramIndex.index(12L, "Tomaten", "");
+
+        verify(searchIndexDAO).deleteTrigrams(eq(12L), removedTrigramsCaptor.capture());
+        assertThat(removedTrigramsCaptor.getValue(), containsInAnyOrder("ato"));
+        verify(searchIndexDAO).insert(trigramsCaptor.capture());
+        List<String> addedTrigrams = trigramsCaptor.getValue().stream().map(RecipeTrigram::getTrigram).collect(Collectors.toList());
+        assertThat(addedTrigrams, containsInAnyOrder("ate", "ten"));
+    }
+
+    @Test
+    public void nothing_to_write_for_unchanged_recipe() {
+        when(searchIndexDAO.findTrigrams(12L)).thenReturn(Arrays.asList("tom", "oma", "mat", "ato"));
+
+        trigramIndex.index(12L, "Tomato", "");
+
+        verify(searchIndexDAO, never()).deleteTrigrams(eq(12L), anyCollection());
+        verify(searchIndexDAO, never()).insert(anyList());
+    }
+
+}
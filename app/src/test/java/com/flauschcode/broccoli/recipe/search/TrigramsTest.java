@@ -0,0 +1,55 @@
+package com.flauschcode.broccoli.recipe.search;
+
+import org.junit.Test;
+
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.core.Is.is;
+
+public class TrigramsTest {
+
+    @Test
+    public void normalize() {
+        assertThat(Trigrams.normalize("  Tomaten\tMark \r\n\n 2 Zwiebeln "), is("tomaten mark\n2 zwiebeln"));
+    }
+
+    @Test
+    public void normalize_term() {
+        assertThat(Trigrams.normalizeTerm(" Tomaten \n Mark"), is("tomaten mark"));
+    }
+
+    @Test
+    public void trigrams() {
+        assertThat(Trigrams.of("tomate"), contains("tom", "oma", "mat", "ate"));
+    }
+
+    @Test
+    public void trigrams_are_distinct() {
+        assertThat(Trigrams.of("aaaa"), contains("aaa"));
+    }
+
+    @Test
+    public void trigrams_do_not_span_lines() {
+        Set<String> trigrams = Trigrams.of("ei\nmehl");
+        assertThat(trigrams, contains("meh", "ehl"));
+        assertThat(trigrams, not(hasItem("i\nm")));
+    }
+
+    @Test
+    public void trigrams_of_short_text() {
+        assertThat(Trigrams.of("ei"), is(empty()));
+        assertThat(Trigrams.canBeSearched("ei"), is(false));
+        assertThat(Trigrams.canBeSearched("eis"), is(true));
+    }
+
+    @Test
+    public void compound_words_contain_the_trigrams_of_their_parts() {
+        assertThat(Trigrams.of("tomatenmark").containsAll(Trigrams.of("mark")), is(true));
+    }
+
+}
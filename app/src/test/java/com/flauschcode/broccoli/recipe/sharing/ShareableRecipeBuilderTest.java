@@ -4,6 +4,7 @@ import android.app.Application;
 import android.net.Uri;
 
 import com.flauschcode.broccoli.R;
+import com.flauschcode.broccoli.recipe.ParsedRecipeCache;
 import com.flauschcode.broccoli.recipe.Recipe;
 import com.flauschcode.broccoli.recipe.images.RecipeImageService;
 
@@ -12,6 +13,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import static org.hamcrest.CoreMatchers.is;
@@ -31,6 +33,9 @@ public class ShareableRecipeBuilderTest {
     @Mock
     private Uri imageUri;
 
+    @Spy
+    private ParsedRecipeCache parsedRecipeCache = new ParsedRecipeCache();
+
     @InjectMocks
     private ShareableRecipeBuilder shareableRecipeBuilder;
 
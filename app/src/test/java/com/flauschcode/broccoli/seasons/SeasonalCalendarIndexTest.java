@@ -0,0 +1,121 @@
+package com.flauschcode.broccoli.seasons;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Month;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+import static org.hamcrest.core.IsCollectionContaining.hasItem;
+
+@RunWith(JUnit4.class)
+public class SeasonalCalendarIndexTest {
+
+    @Test
+    public void read_name_and_terms_in_language_of_locale() throws IOException {
+        SeasonalCalendar seasonalCalendar = SeasonalCalendarIndex.read(index()).toSeasonalCalendar(Arrays.asList("de", "en"), Locale.GERMAN);
+
+        List<SeasonalFood> seasonalFood = seasonalCalendar.getSeasonalFoodFor(Month.OCTOBER);
+        assertThat(seasonalFood, hasSize(2));
+        assertThat(seasonalFood, hasItem(new SeasonalFood("apple", "Apfel", "Apfel, Äpfel, apple, apples", Arrays.asList(Month.SEPTEMBER, Month.OCTOBER))));
+        assertThat(seasonalFood, hasItem(new SeasonalFood("leek", "Lauch", "Lauch, Porree, leek", Collections.singletonList(Month.OCTOBER))));
+    }
+
+    @Test
+    public void fall_back_to_default_language() throws IOException {
+        SeasonalCalendar seasonalCalendar = SeasonalCalendarIndex.read(index()).toSeasonalCalendar(Collections.singletonList("fr"), Locale.FRENCH);
+
+        List<SeasonalFood> seasonalFood = seasonalCalendar.getSeasonalFoodFor(Month.SEPTEMBER);
+        assertThat(seasonalFood, hasSize(1));
+        assertThat(seasonalFood.get(0).getName(), is("Apple"));
+        assertThat(seasonalFood.get(0).getTerms(), is(Arrays.asList("apple", "apples")));
+    }
+
+    @Test
+    public void fall_back_to_resource_name() throws IOException {
+        SeasonalCalendar seasonalCalendar = SeasonalCalendarIndex.read(index()).toSeasonalCalendar(Collections.singletonList("fr"), Locale.FRENCH);
+
+        assertThat(seasonalCalendar.getSearchTermsFor(Month.OCTOBER), hasItem("leek"));
+    }
+
+    @Test
+    public void prefer_most_specific_language() throws IOException {
+        SeasonalCalendar seasonalCalendar = SeasonalCalendarIndex.read(index()).toSeasonalCalendar(Collections.singletonList("de-AT"), Locale.forLanguageTag("de-AT"));
+
+        List<SeasonalFood> seasonalFood = seasonalCalendar.getSeasonalFoodFor(Month.SEPTEMBER);
+        assertThat(seasonalFood.get(0).getName(), is("Apfel (AT)"));
+    }
+
+    @Test
+    public void use_legacy_language_code() throws IOException {
+        SeasonalCalendar seasonalCalendar = SeasonalCalendarIndex.read(index()).toSeasonalCalendar(Collections.singletonList("he"), new Locale("he"));
+
+        List<SeasonalFood> seasonalFood = seasonalCalendar.getSeasonalFoodFor(Month.SEPTEMBER);
+        assertThat(seasonalFood.get(0).getName(), is("תפוח"));
+    }
+
+    @Test(expected = IOException.class)
+    public void reject_corrupt_index() throws IOException {
+        ByteBuffer index = index();
+        index.limit(index.limit() - 3);
+        SeasonalCalendarIndex.read(index);
+    }
+
+    @Test(expected = IOException.class)
+    public void reject_other_files() throws IOException {
+        SeasonalCalendarIndex.read(ByteBuffer.wrap("{\"apple\": [9, 10]}".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private ByteBuffer index() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0x42525343);
+        out.writeShort(1);
+
+        out.writeShort(4);
+        out.writeUTF("");
+        out.writeUTF("de");
+        out.writeUTF("de-AT");
+        out.writeUTF("iw");
+
+        out.writeShort(2);
+
+        out.writeUTF("apple");
+        out.writeByte(2);
+        out.writeByte(Month.SEPTEMBER.ordinal());
+        out.writeByte(Month.OCTOBER.ordinal());
+        writeTranslation(out, "Apple", "apple, apples");
+        writeTranslation(out, "Apfel", "Apfel, Äpfel");
+        writeTranslation(out, "Apfel (AT)", "");
+        writeTranslation(out, "תפוח", "");
+
+        out.writeUTF("leek");
+        out.writeByte(1);
+        out.writeByte(Month.OCTOBER.ordinal());
+        writeTranslation(out, "", "");
+        writeTranslation(out, "Lauch", "Lauch, Porree");
+        writeTranslation(out, "", "");
+        writeTranslation(out, "", "");
+
+        return ByteBuffer.wrap(bytes.toByteArray());
+    }
+
+    private void writeTranslation(DataOutputStream out, String name, String terms) throws IOException {
+        // modified UTF-8 is the same as UTF-8 for these strings
+        out.writeUTF(name);
+        out.writeUTF(terms);
+    }
+
+}
@@ -0,0 +1,155 @@
+package com.flauschcode.broccoli.seasons;
+
+import android.app.Application;
+
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.flauschcode.broccoli.BroccoliDatabase;
+import com.flauschcode.broccoli.concurrent.BroccoliExecutors;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.time.Month;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsEmptyCollection.empty;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SeasonalFoodIndexTest {
+
+    @Rule
+    public InstantTaskExecutorRule instantExecutorRule = new InstantTaskExecutorRule();
+
+    @Mock
+    private Application application;
+
+    @Mock
+    private BroccoliDatabase database;
+
+    @Mock
+    private SeasonalFoodDAO seasonalFoodDAO;
+
+    @Mock
+    private SeasonalCalendarHolder seasonalCalendarHolder;
+
+    @Mock
+    private BroccoliExecutors executors;
+
+    private final SeasonalCalendar seasonalCalendar = new SeasonalCalendar();
+    private final SeasonalFood apple = new SeasonalFood("apple", "Apfel", "Apfel, Äpfel", Arrays.asList(Month.SEPTEMBER, Month.OCTOBER));
+    private final SeasonalFood leek = new SeasonalFood("leek", "Lauch", "Lauch, Porree", Collections.singletonList(Month.OCTOBER));
+
+    private SeasonalFoodIndex seasonalFoodIndex;
+
+    @Before
+    public void setUp() {
+        apple.getMonths().forEach(month -> seasonalCalendar.add(apple, month));
+        leek.getMonths().forEach(month -> seasonalCalendar.add(leek, month));
+
+        when(seasonalCalendarHolder.load()).thenReturn(CompletableFuture.completedFuture(Optional.of(seasonalCalendar)));
+        when(executors.databaseWriter()).thenReturn(command -> {});
+        seasonalFoodIndex = new SeasonalFoodIndex(application, database, seasonalFoodDAO, seasonalCalendarHolder, executors);
+    }
+
+    @Test
+    public void index_recipe() {
+        seasonalFoodIndex.awaitCalendar();
+        seasonalFoodIndex.index(12L, "3 äpfel\n1 Stange Porree\nApfelessig");
+
+        int septemberAndOctober = SeasonalFoodIndex.bitOf(Month.SEPTEMBER) | SeasonalFoodIndex.bitOf(Month.OCTOBER);
+        verify(seasonalFoodDAO).deleteFor(12L);
+        verify(seasonalFoodDAO).insert(Arrays.asList(
+                new RecipeSeasonalFood(12L, "apple", septemberAndOctober),
+                new RecipeSeasonalFood(12L, "leek", SeasonalFoodIndex.bitOf(Month.OCTOBER))
+        ));
+    }
+
+    @Test
+    public void index_only_whole_words() {
+        List<RecipeSeasonalFood> recipeSeasonalFood = new SeasonalFoodIndex.Terms(seasonalCalendar).find(12L, "2 Zehen Knoblauch\n1 Bund Bärlauch");
+
+        assertThat(recipeSeasonalFood, is(empty()));
+    }
+
+    @Test
+    public void index_food_with_the_same_name_separately() {
+        SeasonalFood springOnion = new SeasonalFood("spring_onion", "Lauch", "Lauchzwiebel, Lauchzwiebeln", Collections.singletonList(Month.MAY));
+        SeasonalCalendar otherSeasonalCalendar = new SeasonalCalendar();
+        otherSeasonalCalendar.add(leek, Month.OCTOBER);
+        otherSeasonalCalendar.add(springOnion, Month.MAY);
+
+        List<RecipeSeasonalFood> recipeSeasonalFood = new SeasonalFoodIndex.Terms(otherSeasonalCalendar).find(12L, "1 Stange Porree\n2 Lauchzwiebeln");
+
+        assertThat(recipeSeasonalFood, is(Arrays.asList(
+                new RecipeSeasonalFood(12L, "leek", SeasonalFoodIndex.bitOf(Month.OCTOBER)),
+                new RecipeSeasonalFood(12L, "spring_onion", SeasonalFoodIndex.bitOf(Month.MAY))
+        )));
+    }
+
+    @Test
+    public void index_recipe_without_seasonal_food() {
+        seasonalFoodIndex.awaitCalendar();
+        seasonalFoodIndex.index(12L, "Apfelessig");
+
+        verify(seasonalFoodDAO).deleteFor(12L);
+        verify(seasonalFoodDAO, never()).insert(anyList());
+    }
+
+    @Test
+    public void index_without_calendar() {
+        List<RecipeSeasonalFood> recipeSeasonalFood = new SeasonalFoodIndex.Terms(null).find(12L, "3 Äpfel");
+
+        assertThat(recipeSeasonalFood, is(empty()));
+    }
+
+    @Test
+    public void fingerprint_changes_with_calendar() {
+        SeasonalCalendar otherSeasonalCalendar = new SeasonalCalendar();
+        otherSeasonalCalendar.add(apple, Month.SEPTEMBER);
+
+        String fingerprint = new SeasonalFoodIndex.Terms(seasonalCalendar).getFingerprint();
+
+        assertThat(new SeasonalFoodIndex.Terms(seasonalCalendar).getFingerprint(), is(fingerprint));
+        assertThat(new SeasonalFoodIndex.Terms(otherSeasonalCalendar).getFingerprint(), is(not(fingerprint)));
+        assertThat(new SeasonalFoodIndex.Terms(null).getFingerprint(), is(not(fingerprint)));
+    }
+
+    @Test
+    public void count_recipes_by_seasonal_food() {
+        MutableLiveData<List<SeasonalFoodCount>> seasonalFoodCounts = new MutableLiveData<>(Arrays.asList(new SeasonalFoodCount("apple", 3), new SeasonalFoodCount("leek", 1)));
+        when(seasonalFoodDAO.countRecipes()).thenReturn(seasonalFoodCounts);
+
+        LiveData<Map<String, Integer>> recipeCounts = seasonalFoodIndex.getRecipeCounts();
+        recipeCounts.observeForever(counts -> {});
+
+        assertThat(recipeCounts.getValue().get("apple"), is(3));
+        assertThat(recipeCounts.getValue().get("leek"), is(1));
+        assertThat(seasonalFoodIndex.getRecipeCounts(), is(recipeCounts));
+    }
+
+    @Test
+    public void month_bits() {
+        assertThat(SeasonalFoodIndex.bitOf(Month.JANUARY), is(1));
+        assertThat(SeasonalFoodIndex.bitOf(Month.DECEMBER), is(1 << 11));
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.flauschcode.broccoli.seasons;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// compiles the regular expression for every line, as the SeasonalCalendar used to, see SeasonalMatcherTest for the lines
+@RunWith(JUnit4.class)
+public class SeasonalMatcherBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    @Test
+    public void compare_with_regex() {
+        Random random = new Random(42);
+        List<String> terms = SeasonalMatcherTest.terms(random);
+        List<String> lines = SeasonalMatcherTest.lines(random, terms);
+
+        // the results are kept, so that the work is not optimised away
+        int regexMatches = 0;
+        int matcherMatches = 0;
+        long regexNanos = 0;
+        long matcherNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (String line : lines) {
+                if (SeasonalMatcherTest.regexOf(terms).matcher(line).find()) {
+                    regexMatches++;
+                }
+            }
+            regexNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            SeasonalMatcher seasonalMatcher = new SeasonalMatcher(terms);
+            for (String line : lines) {
+                if (seasonalMatcher.matches(line)) {
+                    matcherMatches++;
+                }
+            }
+            matcherNanos += System.nanoTime() - start;
+        }
+
+        System.out.printf("%d lines x %d terms: regex %d ms, seasonal matcher %d ms, %d and %d matches%n", lines.size(), terms.size(),
+                TimeUnit.NANOSECONDS.toMillis(regexNanos / ROUNDS), TimeUnit.NANOSECONDS.toMillis(matcherNanos / ROUNDS),
+                regexMatches / ROUNDS, matcherMatches / ROUNDS);
+    }
+
+}
@@ -0,0 +1,155 @@
+package com.flauschcode.broccoli.seasons;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.collection.IsEmptyCollection.empty;
+
+@RunWith(JUnit4.class)
+public class SeasonalMatcherTest {
+
+    private static final int TERMS = 400;
+    private static final int LINES = 2000;
+
+    private final SeasonalMatcher seasonalMatcher = new SeasonalMatcher(Arrays.asList("Apfel", "Äpfel", "Auberginen", "Lauch", "Lauchzwiebeln"));
+
+    @Test
+    public void match_at_end_of_input() {
+        assertThat(seasonalMatcher.matches("2 Auberginen"), is(true));
+    }
+
+    @Test
+    public void match_followed_by_punctuation() {
+        assertThat(seasonalMatcher.matches("1 Apfel, 2 Birnen"), is(true));
+        assertThat(seasonalMatcher.matches("3 Äpfel (säuerlich)"), is(true));
+    }
+
+    @Test
+    public void match_inside_of_word() {
+        assertThat(seasonalMatcher.matches("4 Grillauberginen"), is(false));
+        assertThat(seasonalMatcher.matches("4 GrillAuberginen"), is(true));
+    }
+
+    @Test
+    public void no_match_for_prefix() {
+        assertThat(seasonalMatcher.matches("Apfelessig"), is(false));
+    }
+
+    @Test
+    public void match_longer_term_sharing_a_prefix() {
+        assertThat(seasonalMatcher.matches("1 Bund Lauchzwiebeln"), is(true));
+        assertThat(seasonalMatcher.matches("1 Bund Lauchzwiebel"), is(false));
+    }
+
+    @Test
+    public void match_term_overlapping_a_failed_term() {
+        SeasonalMatcher matcher = new SeasonalMatcher(Arrays.asList("Apfelsaft", "fels"));
+        assertThat(matcher.matches("Apfels"), is(true));
+    }
+
+    @Test
+    public void empty_terms_never_match() {
+        assertThat(new SeasonalMatcher(Collections.emptyList()).matches("1 Apfel"), is(false));
+        assertThat(new SeasonalMatcher(Collections.singletonList("")).matches("1 Apfel"), is(false));
+        assertThat(seasonalMatcher.matches(null), is(false));
+    }
+
+    @Test
+    public void find_all_terms() {
+        assertThat(seasonalMatcher.findAll("1 Apfel, 2 Lauchzwiebeln, Apfelessig"), is(new HashSet<>(Arrays.asList("Apfel", "Lauchzwiebeln"))));
+        assertThat(new SeasonalMatcher(Arrays.asList("Apfelsaft", "fels", "els")).findAll("Apfels"), is(new HashSet<>(Arrays.asList("fels", "els"))));
+        assertThat(seasonalMatcher.findAll("Apfelessig"), is(empty()));
+        assertThat(seasonalMatcher.findAll(null), is(empty()));
+    }
+
+    @Test
+    public void match_whole_words_only() {
+        SeasonalMatcher matcher = SeasonalMatcher.forWholeWords(Arrays.asList("lauch", "rettich", "äpfel"));
+
+        assertThat(matcher.matches("1 stange lauch"), is(true));
+        assertThat(matcher.matches("2 zehen knoblauch"), is(false));
+        assertThat(matcher.matches("1 bund bärlauch"), is(false));
+        assertThat(matcher.findAll("meerrettich, 3 äpfel, lauch"), is(new HashSet<>(Arrays.asList("äpfel", "lauch"))));
+        assertThat(matcher.findAll("1 rettich_scheibe, eisäpfel"), is(new HashSet<>(Collections.singletonList("rettich"))));
+    }
+
+    @Test
+    public void calendar_caches_matcher_until_food_is_added() {
+        SeasonalCalendar seasonalCalendar = new SeasonalCalendar();
+        List<Month> months = new ArrayList<>();
+        months.add(Month.OCTOBER);
+        seasonalCalendar.add(new SeasonalFood("Apfel", "Apfel, Äpfel", months), Month.OCTOBER);
+
+        SeasonalMatcher matcher = seasonalCalendar.getMatcherFor(Month.OCTOBER);
+        assertThat(seasonalCalendar.getMatcherFor(Month.OCTOBER), is(sameInstance(matcher)));
+        assertThat(matcher.matches("1 Lauch"), is(false));
+
+        seasonalCalendar.add(new SeasonalFood("Lauch", "Lauch, Porree", months), Month.OCTOBER);
+        assertThat(seasonalCalendar.getMatcherFor(Month.OCTOBER), is(not(sameInstance(matcher))));
+        assertThat(seasonalCalendar.getMatcherFor(Month.OCTOBER).matches("1 Lauch"), is(true));
+    }
+
+    // the regular expression that was replaced by the seasonal matcher, timed by SeasonalMatcherBenchmark
+    @Test
+    public void agree_with_regex_on_random_lines() {
+        Random random = new Random(42);
+        List<String> terms = terms(random);
+        List<String> lines = lines(random, terms);
+
+        SeasonalMatcher seasonalMatcher = new SeasonalMatcher(terms);
+        Pattern regex = regexOf(terms);
+        for (String line : lines) {
+            assertThat(line, seasonalMatcher.matches(line), is(regex.matcher(line).find()));
+        }
+    }
+
+    static List<String> terms(Random random) {
+        List<String> terms = new ArrayList<>();
+        for (int i = 0; i < TERMS; i++) {
+            terms.add(randomWord(random));
+        }
+        return terms;
+    }
+
+    static List<String> lines(Random random, List<String> terms) {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < LINES; i++) {
+            lines.add(random.nextInt(500) + " g " + randomWord(random) + (random.nextBoolean()? ", " + randomWord(random) : ""));
+        }
+        // make sure that some lines are seasonal
+        for (int i = 0; i < LINES; i += 10) {
+            lines.set(i, "1 " + terms.get(random.nextInt(TERMS)));
+        }
+        return lines;
+    }
+
+    static Pattern regexOf(List<String> terms) {
+        return Pattern.compile(terms.stream().map(searchTerm -> searchTerm + "(\\W|$)").collect(Collectors.joining("|")));
+    }
+
+    private static String randomWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        word.append((char) ('A' + random.nextInt(26)));
+        int length = 3 + random.nextInt(8);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(26)));
+        }
+        return word.toString();
+    }
+
+}
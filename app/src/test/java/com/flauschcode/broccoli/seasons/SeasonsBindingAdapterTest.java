@@ -1,5 +1,8 @@
 package com.flauschcode.broccoli.seasons;
 
+import com.flauschcode.broccoli.recipe.ParsedRecipeCache;
+import com.flauschcode.broccoli.recipe.ingredients.UnitConverter;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -23,18 +26,21 @@ public class SeasonsBindingAdapterTest {
     @Mock
     SeasonalCalendar seasonalCalendar;
 
+    @Mock
+    UnitConverter unitConverter;
+
     private SeasonsBindingAdapter seasonsBindingAdapter;
 
     @Before
     public void setUp() {
-        seasonsBindingAdapter = new SeasonsBindingAdapter(seasonalCalendarHolder);
+        seasonsBindingAdapter = new SeasonsBindingAdapter(seasonalCalendarHolder, new ParsedRecipeCache(), unitConverter);
 
         when(seasonalCalendarHolder.get()).thenReturn(Optional.of(seasonalCalendar));
 
         Set<String> searchTerms = new HashSet<>();
         searchTerms.add("Apfel");
         searchTerms.add("Auberginen");
-        when(seasonalCalendar.getSearchTermsForCurrentMonth()).thenReturn(searchTerms);
+        when(seasonalCalendar.getMatcherForCurrentMonth()).thenReturn(new SeasonalMatcher(searchTerms));
     }
 
     @Test